@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+/**
+ * Immutable point-in-time view onto the counters of a cache
+ */
+public class CacheStatistics {
+
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  private final int size;
+  private final long weight;
+
+  public CacheStatistics(long hits, long misses, long evictions, int size) {
+    this(hits, misses, evictions, size, size);
+  }
+
+  public CacheStatistics(long hits, long misses, long evictions, int size, long weight) {
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.size = size;
+    this.weight = weight;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Get the number of entries which have been removed to stay within the size bound
+   */
+  public long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * Get the number of entries held at the time of taking these statistics
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Get the sum of the weights of all entries held at the time of taking these statistics,
+   * which equals their number for caches which weigh each entry as one
+   */
+  public long getWeight() {
+    return weight;
+  }
+
+  /**
+   * Get the ratio of hits to all requests, within the range [0;1]
+   */
+  public double getHitRate() {
+    long requests = hits + misses;
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStatistics{" +
+      "hits=" + hits +
+      ", misses=" + misses +
+      ", evictions=" + evictions +
+      ", size=" + size +
+      ", weight=" + weight +
+      '}';
+  }
+}
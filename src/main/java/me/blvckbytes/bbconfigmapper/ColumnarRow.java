@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Flyweight view onto a single row of a {@link ColumnarTable}, which can be
+ * repositioned freely and thus doesn't require an allocation per row
+ */
+public class ColumnarRow {
+
+  private final ColumnarTable<?> table;
+  private int index;
+
+  ColumnarRow(ColumnarTable<?> table) {
+    this.table = table;
+  }
+
+  /**
+   * Position this view at another row
+   * @param index Index of the target row
+   * @return This view, for chaining
+   */
+  public ColumnarRow moveTo(int index) {
+    if (index < 0 || index >= table.size())
+      throw new IndexOutOfBoundsException("Row " + index + " is out of bounds for a table of size " + table.size());
+
+    this.index = index;
+    return this;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public ColumnarTable<?> getTable() {
+    return table;
+  }
+
+  public boolean isNull(int column) {
+    return table.isNull(index, column);
+  }
+
+  public boolean isNull(String column) {
+    return table.isNull(index, table.requireColumn(column));
+  }
+
+  public long getLong(int column) {
+    return table.getLong(index, column);
+  }
+
+  public long getLong(String column) {
+    return table.getLong(index, table.requireColumn(column));
+  }
+
+  public int getInt(int column) {
+    return table.getInt(index, column);
+  }
+
+  public int getInt(String column) {
+    return table.getInt(index, table.requireColumn(column));
+  }
+
+  public double getDouble(int column) {
+    return table.getDouble(index, column);
+  }
+
+  public double getDouble(String column) {
+    return table.getDouble(index, table.requireColumn(column));
+  }
+
+  public float getFloat(int column) {
+    return table.getFloat(index, column);
+  }
+
+  public float getFloat(String column) {
+    return table.getFloat(index, table.requireColumn(column));
+  }
+
+  public boolean getBoolean(int column) {
+    return table.getBoolean(index, column);
+  }
+
+  public boolean getBoolean(String column) {
+    return table.getBoolean(index, table.requireColumn(column));
+  }
+
+  public @Nullable String getString(int column) {
+    return table.getString(index, column);
+  }
+
+  public @Nullable String getString(String column) {
+    return table.getString(index, table.requireColumn(column));
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnarRow{" +
+      "index=" + index +
+      '}';
+  }
+}
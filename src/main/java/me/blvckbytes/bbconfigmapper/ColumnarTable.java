@@ -0,0 +1,276 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import me.blvckbytes.bbconfigmapper.sections.AConfigSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * Struct-of-arrays representation of a list of uniform config sections. Instead of
+ * instantiating one section per list item, every mapped field of the row type is stored
+ * within its own primitive (or {@link String}) array, which keeps huge tables compact
+ * and makes full scans cache-friendly. Rows are read through {@link ColumnarRow} views.
+ * Absent cells read as the column type's default value, which {@link #isNull} tells apart
+ * from present values, just like null would for boxed fields of a mapped section.
+ */
+public class ColumnarTable<T extends AConfigSection> {
+
+  private final Class<T> rowType;
+  private final String[] columnNames;
+  private final Class<?>[] columnTypes;
+  private final Object[] columns;
+  private final @Nullable BitSet[] nullCells;
+  private final int size;
+
+  ColumnarTable(Class<T> rowType, String[] columnNames, Class<?>[] columnTypes, Object[] columns, @Nullable BitSet[] nullCells, int size) {
+    this.rowType = rowType;
+    this.columnNames = columnNames;
+    this.columnTypes = columnTypes;
+    this.columns = columns;
+    this.nullCells = nullCells;
+    this.size = size;
+  }
+
+  /**
+   * Allocate the backing array of a column which holds values of the provided type
+   * @param type Type of the column's values
+   * @param size Number of rows
+   * @return Allocated array, null if the type cannot be stored in a column
+   */
+  static @Nullable Object allocateColumn(Class<?> type, int size) {
+    if (type == long.class || type == Long.class)
+      return new long[size];
+
+    if (type == int.class || type == Integer.class)
+      return new int[size];
+
+    if (type == double.class || type == Double.class)
+      return new double[size];
+
+    if (type == float.class || type == Float.class)
+      return new float[size];
+
+    if (type == boolean.class || type == Boolean.class)
+      return new boolean[size];
+
+    if (type == String.class)
+      return new String[size];
+
+    return null;
+  }
+
+  /**
+   * Store a previously converted value within a column allocated by {@link #allocateColumn}
+   * @param column Target column
+   * @param row Target row
+   * @param value Value, converted to the column's type
+   */
+  static void storeCell(Object column, int row, Object value) {
+    if (column instanceof long[])
+      ((long[]) column)[row] = ((Number) value).longValue();
+
+    else if (column instanceof int[])
+      ((int[]) column)[row] = ((Number) value).intValue();
+
+    else if (column instanceof double[])
+      ((double[]) column)[row] = ((Number) value).doubleValue();
+
+    else if (column instanceof float[])
+      ((float[]) column)[row] = ((Number) value).floatValue();
+
+    else if (column instanceof boolean[])
+      ((boolean[]) column)[row] = (Boolean) value;
+
+    else
+      ((String[]) column)[row] = (String) value;
+  }
+
+  public Class<T> getRowType() {
+    return rowType;
+  }
+
+  /**
+   * Get the number of rows within this table
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the number of columns within this table
+   */
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  public String getColumnName(int column) {
+    return columnNames[column];
+  }
+
+  public Class<?> getColumnType(int column) {
+    return columnTypes[column];
+  }
+
+  /**
+   * Look up the index of a column by it's name, which is either the name of the
+   * row type's field or the name specified by it's {@link me.blvckbytes.bbconfigmapper.sections.CSNamed} annotation
+   * @param name Name of the column
+   * @return Index of the column, -1 if there's no column with this name
+   */
+  public int columnIndexOf(String name) {
+    for (int i = 0; i < columnNames.length; i++) {
+      if (columnNames[i].equals(name))
+        return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Create a new flyweight view, positioned at the first row
+   */
+  public ColumnarRow view() {
+    return new ColumnarRow(this);
+  }
+
+  /**
+   * Call the consumer once for every row, in order, while reusing a single view
+   * @param consumer Row consumer, which must not retain the view past it's invocation
+   */
+  public void forEachRow(Consumer<ColumnarRow> consumer) {
+    ColumnarRow row = new ColumnarRow(this);
+
+    for (int i = 0; i < size; i++)
+      consumer.accept(row.moveTo(i));
+  }
+
+  /**
+   * Check whether a cell has been absent or null, where primitive columns hold their default value instead
+   * @param row Row of the cell
+   * @param column Column of the cell
+   * @return True if the cell has no value
+   */
+  public boolean isNull(int row, int column) {
+    if (row < 0 || row >= size)
+      throw new IndexOutOfBoundsException("Row " + row + " is out of bounds for a table of size " + size);
+
+    if (columns[column] instanceof String[])
+      return ((String[]) columns[column])[row] == null;
+
+    return nullCells[column] != null && nullCells[column].get(row);
+  }
+
+  public long getLong(int row, int column) {
+    Object values = columns[column];
+
+    if (values instanceof long[])
+      return ((long[]) values)[row];
+
+    if (values instanceof int[])
+      return ((int[]) values)[row];
+
+    throw makeTypeMismatch(column, "an integer");
+  }
+
+  public int getInt(int row, int column) {
+    Object values = columns[column];
+
+    if (values instanceof int[])
+      return ((int[]) values)[row];
+
+    if (values instanceof long[])
+      return (int) ((long[]) values)[row];
+
+    throw makeTypeMismatch(column, "an integer");
+  }
+
+  public double getDouble(int row, int column) {
+    Object values = columns[column];
+
+    if (values instanceof double[])
+      return ((double[]) values)[row];
+
+    if (values instanceof float[])
+      return ((float[]) values)[row];
+
+    if (values instanceof long[])
+      return ((long[]) values)[row];
+
+    if (values instanceof int[])
+      return ((int[]) values)[row];
+
+    throw makeTypeMismatch(column, "a number");
+  }
+
+  public float getFloat(int row, int column) {
+    return (float) getDouble(row, column);
+  }
+
+  public boolean getBoolean(int row, int column) {
+    Object values = columns[column];
+
+    if (values instanceof boolean[])
+      return ((boolean[]) values)[row];
+
+    throw makeTypeMismatch(column, "a boolean");
+  }
+
+  public @Nullable String getString(int row, int column) {
+    Object values = columns[column];
+
+    if (values instanceof String[])
+      return ((String[]) values)[row];
+
+    throw makeTypeMismatch(column, "a string");
+  }
+
+  /**
+   * Resolve a column's index by it's name or throw if it doesn't exist
+   * @param name Name of the column
+   * @return Index of the column
+   */
+  int requireColumn(String name) {
+    int index = columnIndexOf(name);
+
+    if (index < 0)
+      throw new IllegalArgumentException("Unknown column \"" + name + "\" of row type " + rowType);
+
+    return index;
+  }
+
+  private IllegalArgumentException makeTypeMismatch(int column, String expected) {
+    return new IllegalArgumentException("Column \"" + columnNames[column] + "\" of type " + columnTypes[column] + " is not " + expected);
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnarTable{" +
+      "rowType=" + rowType +
+      ", size=" + size +
+      '}';
+  }
+}
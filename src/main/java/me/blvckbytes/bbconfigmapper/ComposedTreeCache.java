@@ -0,0 +1,404 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.comments.CommentLine;
+import org.yaml.snakeyaml.comments.CommentType;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.nodes.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Compact binary representation of a composed tree after merge keys have been processed and the
+ * header has been extracted, which is keyed by the hash of the text it has been composed from. All
+ * strings (keys, scalar values, tags, anchors and comments) are stored once within a table, so that
+ * they are interned when reading. Nodes which are reachable by multiple paths are stored once and
+ * referenced by their position, which preserves aliases. Cache files are read by mapping them into
+ * memory, and are only ever decoded if their hash matches the current source.
+ */
+class ComposedTreeCache {
+
+  static class CachedTree {
+    final MappingNode root;
+    final String header;
+    final Set<NodeTuple> mergedTuples;
+
+    private CachedTree(MappingNode root, String header, Set<NodeTuple> mergedTuples) {
+      this.root = root;
+      this.header = header;
+      this.mergedTuples = mergedTuples;
+    }
+  }
+
+  private static final int MAGIC = 0x42424354;
+  private static final int VERSION = 1;
+  private static final int HASH_LENGTH = 32;
+
+  private static final byte KIND_REFERENCE = 0;
+  private static final byte KIND_SCALAR = 1;
+  private static final byte KIND_MAPPING = 2;
+  private static final byte KIND_SEQUENCE = 3;
+
+  private static final DumperOptions.ScalarStyle[] SCALAR_STYLES = DumperOptions.ScalarStyle.values();
+  private static final DumperOptions.FlowStyle[] FLOW_STYLES = DumperOptions.FlowStyle.values();
+  private static final CommentType[] COMMENT_TYPES = CommentType.values();
+
+  // Tags are compared by identity throughout, so the constants have to be reused
+  private static final Tag[] STANDARD_TAGS = {
+    Tag.STR, Tag.INT, Tag.FLOAT, Tag.BOOL, Tag.NULL, Tag.MAP, Tag.SEQ, Tag.MERGE,
+    Tag.SET, Tag.OMAP, Tag.PAIRS, Tag.BINARY, Tag.TIMESTAMP, Tag.YAML, Tag.COMMENT
+  };
+
+  private ComposedTreeCache() {}
+
+  /**
+   * Encode a tree, which has to remain unaltered while encoding
+   * @param sourceHash Hash of the text the tree has been composed from
+   * @param root Root node of the tree
+   * @param header Header which has been extracted from the tree
+   * @param mergedTuples Tuples which have been added by merge keys
+   * @return Encoded tree
+   */
+  static byte[] encode(byte[] sourceHash, MappingNode root, String header, Set<NodeTuple> mergedTuples) {
+    if (sourceHash.length != HASH_LENGTH)
+      throw new IllegalArgumentException("Expected a hash of " + HASH_LENGTH + " bytes");
+
+    Encoder encoder = new Encoder(mergedTuples);
+
+    try {
+      // Strings are collected while encoding the nodes, but are to be read before them
+      ByteArrayOutputStream nodeBytes = new ByteArrayOutputStream();
+      DataOutputStream nodeOutput = new DataOutputStream(nodeBytes);
+
+      int headerIndex = encoder.stringIndex(header);
+      encoder.writeNode(nodeOutput, root);
+
+      ByteArrayOutputStream resultBytes = new ByteArrayOutputStream(nodeBytes.size() + 1024);
+      DataOutputStream result = new DataOutputStream(resultBytes);
+
+      result.writeInt(MAGIC);
+      result.writeInt(VERSION);
+      result.write(sourceHash);
+      result.writeInt(encoder.strings.size());
+
+      for (String string : encoder.strings) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        result.writeInt(bytes.length);
+        result.write(bytes);
+      }
+
+      result.writeInt(headerIndex);
+      nodeBytes.writeTo(result);
+
+      return resultBytes.toByteArray();
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not encode the tree", e);
+    }
+  }
+
+  /**
+   * Read a cached tree, if it's been composed from a text of the provided hash
+   * @param file Cache file to read from
+   * @param sourceHash Hash of the current text
+   * @return Decoded tree, null if the file is absent, outdated or malformed
+   */
+  static @Nullable CachedTree read(Path file, byte[] sourceHash) throws IOException {
+    MappedByteBuffer buffer;
+
+    try (
+      FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)
+    ) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+
+    try {
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+        return null;
+
+      byte[] cachedHash = new byte[HASH_LENGTH];
+      buffer.get(cachedHash);
+
+      if (!Arrays.equals(cachedHash, sourceHash))
+        return null;
+
+      String[] strings = new String[buffer.getInt()];
+
+      for (int i = 0; i < strings.length; i++) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        strings[i] = new String(bytes, StandardCharsets.UTF_8);
+      }
+
+      String header = strings[buffer.getInt()];
+      Decoder decoder = new Decoder(buffer, strings);
+      Node root = decoder.readNode();
+
+      if (!(root instanceof MappingNode) || buffer.hasRemaining())
+        return null;
+
+      return new CachedTree((MappingNode) root, header, decoder.mergedTuples);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException | IllegalArgumentException | IllegalStateException | NullPointerException e) {
+      // Malformed files are treated as being outdated, which causes them to be rewritten
+      return null;
+    }
+  }
+
+  private static class Encoder {
+
+    private final Set<NodeTuple> mergedTuples;
+    private final List<String> strings;
+    private final Map<String, Integer> stringIndices;
+    private final Map<Node, Integer> nodeIndices;
+
+    private Encoder(Set<NodeTuple> mergedTuples) {
+      this.mergedTuples = mergedTuples;
+      this.strings = new ArrayList<>();
+      this.stringIndices = new HashMap<>();
+      this.nodeIndices = new IdentityHashMap<>();
+    }
+
+    private int stringIndex(@Nullable String value) {
+      if (value == null)
+        return -1;
+
+      return stringIndices.computeIfAbsent(value, key -> {
+        strings.add(key);
+        return strings.size() - 1;
+      });
+    }
+
+    private void writeNode(DataOutputStream output, Node node) throws IOException {
+      Integer previousIndex = nodeIndices.get(node);
+
+      if (previousIndex != null) {
+        output.writeByte(KIND_REFERENCE);
+        output.writeInt(previousIndex);
+        return;
+      }
+
+      // Indices are assigned before visiting children, as to support recursive aliases
+      nodeIndices.put(node, nodeIndices.size());
+
+      if (node instanceof ScalarNode) {
+        output.writeByte(KIND_SCALAR);
+        writeNodeProperties(output, node);
+        output.writeInt(stringIndex(((ScalarNode) node).getValue()));
+        output.writeByte(((ScalarNode) node).getScalarStyle().ordinal());
+        return;
+      }
+
+      if (node instanceof MappingNode) {
+        MappingNode mapping = (MappingNode) node;
+
+        output.writeByte(KIND_MAPPING);
+        writeNodeProperties(output, node);
+        output.writeByte(mapping.getFlowStyle().ordinal());
+        output.writeInt(mapping.getValue().size());
+
+        for (NodeTuple tuple : mapping.getValue()) {
+          output.writeBoolean(mergedTuples.contains(tuple));
+          writeNode(output, tuple.getKeyNode());
+          writeNode(output, tuple.getValueNode());
+        }
+
+        return;
+      }
+
+      SequenceNode sequence = (SequenceNode) node;
+
+      output.writeByte(KIND_SEQUENCE);
+      writeNodeProperties(output, node);
+      output.writeByte(sequence.getFlowStyle().ordinal());
+      output.writeInt(sequence.getValue().size());
+
+      for (Node item : sequence.getValue())
+        writeNode(output, item);
+    }
+
+    private void writeNodeProperties(DataOutputStream output, Node node) throws IOException {
+      output.writeInt(stringIndex(node.getTag().getValue()));
+      output.writeInt(stringIndex(node.getAnchor()));
+
+      // Start marks are taken into account when looking for commented out keys
+      Mark startMark = node.getStartMark();
+      output.writeBoolean(startMark != null);
+
+      if (startMark != null) {
+        output.writeInt(startMark.getIndex());
+        output.writeInt(startMark.getLine());
+        output.writeInt(startMark.getColumn());
+      }
+
+      writeComments(output, node.getBlockComments());
+      writeComments(output, node.getInLineComments());
+      writeComments(output, node.getEndComments());
+    }
+
+    private void writeComments(DataOutputStream output, @Nullable List<CommentLine> comments) throws IOException {
+      // Absent and empty lists of comments are told apart, as they're not treated equally
+      if (comments == null) {
+        output.writeInt(-1);
+        return;
+      }
+
+      output.writeInt(comments.size());
+
+      for (CommentLine comment : comments) {
+        output.writeByte(comment.getCommentType().ordinal());
+        output.writeInt(stringIndex(comment.getValue()));
+      }
+    }
+  }
+
+  private static class Decoder {
+
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private final List<Node> nodes;
+    private final Map<String, Tag> tags;
+    private final Set<NodeTuple> mergedTuples;
+
+    private Decoder(ByteBuffer buffer, String[] strings) {
+      this.buffer = buffer;
+      this.strings = strings;
+      this.nodes = new ArrayList<>();
+      this.tags = new HashMap<>();
+      this.mergedTuples = Collections.newSetFromMap(new IdentityHashMap<>());
+
+      for (Tag tag : STANDARD_TAGS)
+        tags.put(tag.getValue(), tag);
+    }
+
+    private @Nullable String readString() {
+      int index = buffer.getInt();
+      return index < 0 ? null : strings[index];
+    }
+
+    private Node readNode() {
+      byte kind = buffer.get();
+
+      if (kind == KIND_REFERENCE)
+        return nodes.get(buffer.getInt());
+
+      Tag tag = tags.computeIfAbsent(Objects.requireNonNull(readString()), Tag::new);
+      String anchor = readString();
+      Mark startMark = buffer.get() != 0 ? readMark() : null;
+
+      List<CommentLine> blockComments = readComments();
+      List<CommentLine> inLineComments = readComments();
+      List<CommentLine> endComments = readComments();
+
+      Node node;
+
+      if (kind == KIND_SCALAR) {
+        String value = Objects.requireNonNull(readString());
+        node = new ScalarNode(tag, true, value, startMark, null, SCALAR_STYLES[buffer.get()]);
+        nodes.add(node);
+      }
+
+      else if (kind == KIND_MAPPING) {
+        DumperOptions.FlowStyle flowStyle = FLOW_STYLES[buffer.get()];
+        int size = buffer.getInt();
+        List<NodeTuple> tuples = new ArrayList<>(Math.min(size, buffer.remaining()));
+
+        // Registered before reading children, as they may refer back to this node
+        node = new MappingNode(tag, true, tuples, startMark, null, flowStyle);
+        nodes.add(node);
+
+        for (int i = 0; i < size; i++) {
+          boolean isMerged = buffer.get() != 0;
+          NodeTuple tuple = new NodeTuple(readNode(), readNode());
+
+          if (isMerged)
+            mergedTuples.add(tuple);
+
+          tuples.add(tuple);
+        }
+      }
+
+      else if (kind == KIND_SEQUENCE) {
+        DumperOptions.FlowStyle flowStyle = FLOW_STYLES[buffer.get()];
+        int size = buffer.getInt();
+        List<Node> items = new ArrayList<>(Math.min(size, buffer.remaining()));
+
+        node = new SequenceNode(tag, true, items, startMark, null, flowStyle);
+        nodes.add(node);
+
+        for (int i = 0; i < size; i++)
+          items.add(readNode());
+      }
+
+      else
+        throw new IllegalStateException("Encountered unknown node kind " + kind);
+
+      node.setAnchor(anchor);
+      node.setBlockComments(blockComments);
+      node.setInLineComments(inLineComments);
+      node.setEndComments(endComments);
+
+      return node;
+    }
+
+    private Mark readMark() {
+      int index = buffer.getInt();
+      int line = buffer.getInt();
+      int column = buffer.getInt();
+      return new Mark("cache", index, line, column, new int[0], 0);
+    }
+
+    private @Nullable List<CommentLine> readComments() {
+      int size = buffer.getInt();
+
+      if (size < 0)
+        return null;
+
+      List<CommentLine> comments = new ArrayList<>(size);
+
+      for (int i = 0; i < size; i++) {
+        CommentType type = COMMENT_TYPES[buffer.get()];
+        comments.add(new CommentLine(null, null, readString(), type));
+      }
+
+      return comments;
+    }
+  }
+}
@@ -40,11 +40,56 @@ import java.util.stream.Collectors;
 
 public class ConfigMapper implements IConfigMapper {
 
+  /**
+   * State which only lives for the duration of a single mapping request
+   */
+  private static class MappingContext {
+
+    // Sections which have been mapped from values that the config shares between multiple
+    // aliases of the same node, by the identity of that value and the requested section type
+    private final Map<Object, Map<Class<?>, AConfigSection>> sharedSections;
+
+    // Hash-cons tables of immutable leaf values and of config values wrapping them, null if disabled; config
+    // values are looked up by the identity of their already interned value, which keeps the order of maps apart
+    private final @Nullable Map<Object, Object> internedLeaves;
+    private final @Nullable Map<Object, ConfigValue> internedConfigValues;
+    private int internHits;
+
+    private MappingContext(boolean internLeafValues) {
+      this.sharedSections = new IdentityHashMap<>();
+      this.internedLeaves = internLeafValues ? new HashMap<>() : null;
+      this.internedConfigValues = internLeafValues ? new IdentityHashMap<>() : null;
+    }
+  }
+
+  /**
+   * Key to intern maps by, which - unlike {@link Map#equals(Object)} - also takes the order of entries into account
+   */
+  private static class OrderedMapKey {
+
+    private final List<Map.Entry<Object, Object>> entries;
+
+    private OrderedMapKey(Map<Object, Object> map) {
+      this.entries = new ArrayList<>(map.entrySet());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof OrderedMapKey && entries.equals(((OrderedMapKey) other).entries);
+    }
+
+    @Override
+    public int hashCode() {
+      return entries.hashCode();
+    }
+  }
+
   private final IConfig config;
 
   private final Logger logger;
   private final IExpressionEvaluator evaluator;
   private final @Nullable IValueConverterRegistry converterRegistry;
+  private final boolean internLeafValues;
 
   /**
    * Create a new config reader on a {@link IConfig}
@@ -58,11 +103,34 @@ public class ConfigMapper implements IConfigMapper {
     Logger logger,
     IExpressionEvaluator evaluator,
     @Nullable IValueConverterRegistry converterRegistry
+  ) {
+    this(config, logger, evaluator, converterRegistry, false);
+  }
+
+  /**
+   * Create a new config reader on a {@link IConfig}
+   * @param config Configuration to read from
+   * @param logger Logger to use for logging events
+   * @param evaluator Expression evaluator instance to use when parsing expressions
+   * @param converterRegistry Optional registry of custom value converters
+   * @param internLeafValues Whether to deduplicate equal immutable leaf values (strings, boxed
+   *                         primitives, config values wrapping those or lists/maps of those)
+   *                         across all sections of a mapping request, so that only one instance
+   *                         per distinct value is retained. Collections wrapped by interned config
+   *                         values are unmodifiable.
+   */
+  public ConfigMapper(
+    IConfig config,
+    Logger logger,
+    IExpressionEvaluator evaluator,
+    @Nullable IValueConverterRegistry converterRegistry,
+    boolean internLeafValues
   ) {
     this.config = config;
     this.logger = logger;
     this.evaluator = evaluator;
     this.converterRegistry = converterRegistry;
+    this.internLeafValues = internLeafValues;
   }
 
   @Override
@@ -73,88 +141,544 @@ public class ConfigMapper implements IConfigMapper {
   @Override
   public <T extends AConfigSection> T mapSection(@Nullable String root, Class<T> type) throws Exception {
     logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "At the entry point of mapping path=" + root + " to type=" + type);
-    return mapSectionSub(root, null, type);
+    MappingContext context = new MappingContext(internLeafValues);
+    T result = mapSectionSub(root, null, type, context);
+
+    if (context.internedLeaves != null && context.internedConfigValues != null) {
+      logger.log(Level.FINEST, () -> (
+        DebugLogSource.MAPPER + "Interned " + context.internedLeaves.size() + " leaf values and " +
+        context.internedConfigValues.size() + " config values, reusing them " + context.internHits + " times"
+      ));
+    }
+
+    return result;
+  }
+
+  @Override
+  public <T extends AConfigSection> IMappingJob<T> createMappingJob(
+    @Nullable String root,
+    Class<T> type,
+    int maxUnitsPerStep,
+    long maxMicrosPerStep
+  ) {
+    logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Creating a mapping job for path=" + root + " to type=" + type);
+    return new MappingJob<>(root, type, maxUnitsPerStep, maxMicrosPerStep);
   }
 
   /**
-   * Recursive, parameterized subroutine for creating an empty config section and then assigning values
+   * Parameterized subroutine for creating an empty config section and then assigning values
    * to it's mapped fields automatically, based on their names and types by making use of
    * {@link #resolveFieldValue}. Fields of type object will be decided at
    * runtime, null values may get a default value assigned and incompatible values are tried to be
    * converted before invoking the field setter. If a value still is null after all calls, the field
-   * remains unchanged.
+   * remains unchanged. The traversal is performed by {@link SectionMapping} frames, which are
+   * completed right away.
    * @param root Root node of this section (null means config root)
    * @param source Alternative value source (map instead of config lookup)
    * @param type Class of the config section to instantiate
+   * @param context Context of the current mapping request
    * @return Instantiated class with mapped fields
    */
-  private <T extends AConfigSection> T mapSectionSub(@Nullable String root, @Nullable Map<?, ?> source, Class<T> type) throws Exception {
+  private <T extends AConfigSection> T mapSectionSub(@Nullable String root, @Nullable Map<?, ?> source, Class<T> type, MappingContext context) throws Exception {
+    return mapSectionSub(root, source, type, context, null);
+  }
+
+  private <T extends AConfigSection> T mapSectionSub(
+    @Nullable String root,
+    @Nullable Map<?, ?> source,
+    Class<T> type,
+    MappingContext context,
+    @Nullable Object sharedValue
+  ) throws Exception {
+    SectionMapping<T> mapping = new SectionMapping<>(root, source, type, context, sharedValue);
+    Deque<AMappingFrame> frames = new ArrayDeque<>();
+    frames.push(mapping);
+
+    while (!frames.isEmpty())
+      advanceFrames(frames);
+
+    return mapping.instance;
+  }
+
+  /**
+   * Maps a section by making use of {@link #mapSectionSub}, unless the value it's mapped from is shared
+   * by the config between multiple aliases of the same node and has already been mapped to the requested
+   * type within the current request, in which case the previously mapped instance is reused.
+   * @param value Value the section is mapped from, as looked up previously
+   * @param root Root node of this section (null means config root)
+   * @param source Alternative value source (map instead of config lookup)
+   * @param type Class of the config section to instantiate
+   * @param context Context of the current mapping request
+   * @return Instantiated class with mapped fields
+   */
+  private <T extends AConfigSection> T mapSectionOrReuse(
+    @Nullable Object value,
+    @Nullable String root,
+    @Nullable Map<?, ?> source,
+    Class<T> type,
+    MappingContext context
+  ) throws Exception {
+    T existingSection = findSharedSection(value, type, context);
+
+    if (existingSection != null)
+      return existingSection;
+
+    return mapSectionSub(root, source, type, context, sharedValueOf(value));
+  }
+
+  /**
+   * Looks up the section which has previously been mapped to the requested type from a shared value
+   * @param value Value the section is mapped from
+   * @param type Class of the config section
+   * @param context Context of the current mapping request
+   * @return Previously mapped section, null if the value isn't shared or hasn't yet been mapped
+   */
+  private <T extends AConfigSection> @Nullable T findSharedSection(@Nullable Object value, Class<T> type, MappingContext context) {
+    if (sharedValueOf(value) == null)
+      return null;
+
+    Map<Class<?>, AConfigSection> sectionByType = context.sharedSections.get(value);
+
+    if (sectionByType == null)
+      return null;
+
+    AConfigSection existingSection = sectionByType.get(type);
+
+    if (existingSection == null)
+      return null;
+
+    logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Reusing the section previously mapped from a shared value for type=" + type);
+    return type.cast(existingSection);
+  }
+
+  /**
+   * Filters out values which are not shared by the config between multiple aliases of the same node
+   * @param value Value to check
+   * @return The value itself if it's shared, null otherwise
+   */
+  private @Nullable Object sharedValueOf(@Nullable Object value) {
+    return value != null && config.isSharedValue(value) ? value : null;
+  }
+
+  /**
+   * Advances the top-most frame of the traversal by one unit of work, or - if it's
+   * done - pops it off and hands it's result to the frame which requested it
+   * @param frames Stack of pending frames
+   */
+  private void advanceFrames(Deque<AMappingFrame> frames) throws Exception {
+    AMappingFrame frame = frames.peek();
+    assert frame != null;
+
+    if (frame.isDone()) {
+      frames.pop();
+
+      AMappingFrame parent = frames.peek();
+
+      if (parent != null)
+        parent.acceptChildResult(frame.getResult());
+
+      return;
+    }
+
+    AMappingFrame child = frame.step();
+
+    if (child != null)
+      frames.push(child);
+  }
+
+  /**
+   * A resumable piece of the mapping traversal, which is kept on an explicit stack in
+   * order to be able to interrupt the traversal in between any two units of work
+   */
+  private abstract static class AMappingFrame {
+
+    /**
+     * Perform the next unit of work
+     * @return Frame which has to be completed before this frame may continue, null if there's none
+     */
+    abstract @Nullable AMappingFrame step() throws Exception;
+
+    /**
+     * Receives the result of the frame previously returned by {@link #step()}
+     * @param result Result of the completed frame
+     */
+    abstract void acceptChildResult(@Nullable Object result) throws Exception;
+
+    abstract boolean isDone();
+
+    abstract @Nullable Object getResult();
+
+  }
+
+  /**
+   * Maps the fields of a single section, one field per unit of work. Fields which are sections
+   * themselves or collections of sections are delegated to frames of their own.
+   */
+  private class SectionMapping<T extends AConfigSection> extends AMappingFrame {
+
+    private final @Nullable String root;
+    private final @Nullable Map<?, ?> source;
+    private final MappingContext context;
+    private final @Nullable Object sharedValue;
+
+    private final T instance;
+    private final Tuple<List<Field>, Iterator<Field>> fields;
+    private boolean done;
+
+    // Field which awaits the result of a child frame
+    private @Nullable Field pendingField;
+    private @Nullable String pendingFieldName;
+
+    private SectionMapping(
+      @Nullable String root,
+      @Nullable Map<?, ?> source,
+      Class<T> type,
+      MappingContext context,
+      @Nullable Object sharedValue
+    ) throws Exception {
       logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "At the subroutine of mapping path=" + root + " to type=" + type + " using source=" + source);
-      T instance = findStandardConstructor(type).newInstance(evaluator.getBaseEnvironment());
 
-      Tuple<List<Field>, Iterator<Field>> fields = findApplicableFields(type);
+      this.root = root;
+      this.source = source;
+      this.context = context;
+      this.sharedValue = sharedValue;
+      this.instance = findStandardConstructor(type).newInstance(evaluator.getBaseEnvironment());
+      this.fields = findApplicableFields(type);
+    }
 
-      while (fields.b.hasNext()) {
-        Field f = fields.b.next();
-        CSNamed nameAnnotation = f.getAnnotation(CSNamed.class);
-        String fName = nameAnnotation == null ? f.getName() : nameAnnotation.name();
+    @Override
+    @Nullable AMappingFrame step() throws Exception {
+      if (!fields.b.hasNext()) {
+        // This instance won't have any more changes applied to it, call with the list of affected fields
+        instance.afterParsing(fields.a);
 
-        try {
-          Class<?> fieldType = f.getType();
+        if (sharedValue != null)
+          context.sharedSections.computeIfAbsent(sharedValue, k -> new HashMap<>()).put(instance.getClass(), instance);
 
-          Class<?> finalFieldType = fieldType;
-          logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Processing field=" + fName + " of type=" + finalFieldType);
+        done = true;
+        return null;
+      }
 
-          // Object fields trigger a call to runtime decide their type based on previous fields
-          if (fieldType == Object.class || f.isAnnotationPresent(CSDecide.class)) {
-            Class<?> decidedType = instance.runtimeDecide(fName);
+      Field f = fields.b.next();
+      CSNamed nameAnnotation = f.getAnnotation(CSNamed.class);
+      String fName = nameAnnotation == null ? f.getName() : nameAnnotation.name();
 
-            if (decidedType == null)
-              throw new MappingError("Requesting plain objects is disallowed");
+      try {
+        Class<?> fieldType = f.getType();
 
-            logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Called runtimeDecide on field=" + fName + ", yielded type=" + decidedType);
+        Class<?> finalFieldType = fieldType;
+        logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Processing field=" + fName + " of type=" + finalFieldType);
 
-            fieldType = decidedType;
-          }
+        // Object fields trigger a call to runtime decide their type based on previous fields
+        if (fieldType == Object.class || f.isAnnotationPresent(CSDecide.class)) {
+          Class<?> decidedType = instance.runtimeDecide(fName);
 
-          FValueConverter converter = null;
-          if (converterRegistry != null) {
-            Class<?> requiredType = converterRegistry.getRequiredTypeFor(fieldType);
-            converter = converterRegistry.getConverterFor(fieldType);
+          if (decidedType == null)
+            throw new MappingError("Requesting plain objects is disallowed");
 
-            if (requiredType != null && converter != null) {
-              logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Using custom converter for type=" + finalFieldType);
+          logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Called runtimeDecide on field=" + fName + ", yielded type=" + decidedType);
 
-              fieldType = requiredType;
-            }
-          }
+          fieldType = decidedType;
+        }
 
-          Object value = resolveFieldValue(root, source, f, fieldType);
+        FValueConverter converter = null;
+        if (converterRegistry != null) {
+          Class<?> requiredType = converterRegistry.getRequiredTypeFor(fieldType);
+          converter = converterRegistry.getConverterFor(fieldType);
 
-          // Couldn't resolve a non-null value, try to ask for a default value
-          if (value == null)
-            value = instance.defaultFor(f);
+          if (requiredType != null && converter != null) {
+            logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Using custom converter for type=" + finalFieldType);
 
-          if (value != null && converter != null)
-            value = converter.apply(value, evaluator);
+            fieldType = requiredType;
+          }
+        }
 
-          // Only set if the value isn't null, as the default constructor
-          // might have already assigned some default value earlier
-          if (value == null)
-            continue;
+        // Values which are not post-processed by a converter may be mapped by a frame of their own
+        if (converter == null) {
+          AMappingFrame child = makeFieldFrame(f, fieldType);
 
-          f.set(instance, value);
-        } catch (MappingError error) {
-          IllegalStateException exception = new IllegalStateException(error.getMessage() + " (at path '" + joinPaths(root, fName) + "')");
-          exception.addSuppressed(error);
-          throw exception;
+          if (child != null) {
+            pendingField = f;
+            pendingFieldName = fName;
+            return child;
+          }
         }
+
+        assignField(f, resolveFieldValue(root, source, f, fieldType, context), converter);
+        return null;
+      } catch (MappingError error) {
+        throw wrapMappingError(error, fName);
       }
+    }
+
+    /**
+     * Creates a frame for a field which is either a section or a collection of sections, unless the
+     * field's path is absent, the value has already been mapped or isn't shaped like a collection
+     * @param f Field which has to be assigned to
+     * @param type Type to resolve the field as
+     * @return Frame to complete in order to get the field's value, null if it has to be resolved directly
+     */
+    private @Nullable AMappingFrame makeFieldFrame(Field f, Class<?> type) throws Exception {
+      boolean isSection = AConfigSection.class.isAssignableFrom(type);
+      boolean isCollection = List.class.isAssignableFrom(type) || Set.class.isAssignableFrom(type) || type.isArray();
+
+      if (!isSection && !isCollection)
+        return null;
 
-      // This instance won't have any more changes applied to it, call with the list of affected fields
-      instance.afterParsing(fields.a);
+      Class<?> itemType;
 
+      if (type.isArray())
+        itemType = f.getType().getComponentType();
+
+      else if (isCollection) {
+        List<Class<?>> genericTypes = getGenericTypes(f);
+        itemType = genericTypes == null || genericTypes.size() != 1 ? Object.class : genericTypes.get(0);
+      }
+
+      else
+        itemType = type;
+
+      if (!AConfigSection.class.isAssignableFrom(itemType))
+        return null;
+
+      // Items which have to be post-processed by a converter are left for convertType to handle
+      if (isCollection && converterRegistry != null && converterRegistry.getConverterFor(itemType) != null)
+        return null;
+
+      CSNamed nameAnnotation = f.getAnnotation(CSNamed.class);
+      String fieldName = nameAnnotation == null ? f.getName() : nameAnnotation.name();
+      String path = f.isAnnotationPresent(CSInlined.class) ? root : joinPaths(root, fieldName);
+      boolean always = f.isAnnotationPresent(CSAlways.class) || f.getDeclaringClass().isAnnotationPresent(CSAlways.class);
+
+      Object value = resolvePath(path, source);
+
+      if (!always && value == null)
+        return null;
+
+      Class<? extends AConfigSection> sectionType = itemType.asSubclass(AConfigSection.class);
+
+      if (isSection) {
+        if (findSharedSection(value, sectionType, context) != null)
+          return null;
+
+        return new SectionMapping<>(path, source, sectionType, context, sharedValueOf(value));
+      }
+
+      if (!(value instanceof List))
+        return null;
+
+      return new SectionCollectionMapping<>((List<?>) value, sectionType, type, context);
+    }
+
+    @Override
+    void acceptChildResult(@Nullable Object result) throws Exception {
+      Field f = pendingField;
+      String fName = pendingFieldName;
+      assert f != null && fName != null;
+
+      pendingField = null;
+      pendingFieldName = null;
+
+      try {
+        assignField(f, result, null);
+      } catch (MappingError error) {
+        throw wrapMappingError(error, fName);
+      }
+    }
+
+    /**
+     * Assigns a resolved value to a field, while falling back on the section's default value
+     * @param f Field to assign to
+     * @param value Resolved value
+     * @param converter Converter to apply before assigning, optional
+     */
+    private void assignField(Field f, @Nullable Object value, @Nullable FValueConverter converter) throws Exception {
+      // Couldn't resolve a non-null value, try to ask for a default value
+      if (value == null)
+        value = instance.defaultFor(f);
+
+      if (value != null && converter != null)
+        value = converter.apply(value, evaluator);
+
+      // Only set if the value isn't null, as the default constructor
+      // might have already assigned some default value earlier
+      if (value == null)
+        return;
+
+      f.set(instance, value);
+    }
+
+    private IllegalStateException wrapMappingError(MappingError error, String fName) {
+      IllegalStateException exception = new IllegalStateException(error.getMessage() + " (at path '" + joinPaths(root, fName) + "')");
+      exception.addSuppressed(error);
+      return exception;
+    }
+
+    @Override
+    boolean isDone() {
+      return done;
+    }
+
+    @Override
+    @Nullable Object getResult() {
       return instance;
+    }
+  }
+
+  /**
+   * Maps the items of a list, set or array of sections, one item per unit of work
+   */
+  private class SectionCollectionMapping<T extends AConfigSection> extends AMappingFrame {
+
+    private final List<?> items;
+    private final Class<T> itemType;
+    private final Class<?> collectionType;
+    private final MappingContext context;
+
+    private final List<Object> result;
+    private int nextIndex;
+
+    private SectionCollectionMapping(List<?> items, Class<T> itemType, Class<?> collectionType, MappingContext context) {
+      this.items = items;
+      this.itemType = itemType;
+      this.collectionType = collectionType;
+      this.context = context;
+      this.result = new ArrayList<>(items.size());
+    }
+
+    @Override
+    @Nullable AMappingFrame step() throws Exception {
+      Object item = items.get(nextIndex++);
+
+      if (item == null) {
+        result.add(null);
+        return null;
+      }
+
+      T existingSection = findSharedSection(item, itemType, context);
+
+      if (existingSection != null) {
+        result.add(existingSection);
+        return null;
+      }
+
+      // Non-map values fall back on an empty section, just like within convertType
+      Map<?, ?> source = item instanceof Map ? (Map<?, ?>) item : new HashMap<>();
+      return new SectionMapping<>(null, source, itemType, context, sharedValueOf(item));
+    }
+
+    @Override
+    void acceptChildResult(@Nullable Object result) {
+      this.result.add(result);
+    }
+
+    @Override
+    boolean isDone() {
+      return nextIndex == items.size() && result.size() == items.size();
+    }
+
+    @Override
+    @Nullable Object getResult() {
+      if (collectionType.isArray()) {
+        Object array = Array.newInstance(itemType, result.size());
+
+        for (int i = 0; i < result.size(); i++)
+          Array.set(array, i, result.get(i));
+
+        return array;
+      }
+
+      if (Set.class.isAssignableFrom(collectionType))
+        return new HashSet<>(result);
+
+      return result;
+    }
+  }
+
+  /**
+   * Mapping request which is performed in slices by driving the frames of it's traversal
+   * until either the unit- or the time-budget of the current step has been exhausted
+   */
+  private class MappingJob<T extends AConfigSection> implements IMappingJob<T> {
+
+    private final @Nullable String root;
+    private final int maxUnitsPerStep;
+    private final long maxNanosPerStep;
+    private final MappingContext context;
+    private final Deque<AMappingFrame> frames;
+    private final SectionMapping<T> rootMapping;
+
+    private @Nullable T result;
+    private boolean failed;
+
+    private MappingJob(@Nullable String root, Class<T> type, int maxUnitsPerStep, long maxMicrosPerStep) {
+      this.root = root;
+      this.maxUnitsPerStep = maxUnitsPerStep;
+      this.maxNanosPerStep = maxMicrosPerStep * 1000;
+      this.context = new MappingContext(internLeafValues);
+      this.frames = new ArrayDeque<>();
+
+      try {
+        this.rootMapping = new SectionMapping<>(root, null, type, context, null);
+      } catch (Exception e) {
+        throw new IllegalStateException("Could not instantiate the root section of type " + type, e);
+      }
+
+      this.frames.push(rootMapping);
+    }
+
+    @Override
+    public boolean step() throws Exception {
+      if (failed)
+        throw new IllegalStateException("This mapping job has previously failed");
+
+      if (result != null)
+        return true;
+
+      long startNanos = maxNanosPerStep > 0 ? System.nanoTime() : 0;
+      int units = 0;
+
+      try {
+        // Always perform at least one unit of work, so that every step makes progress
+        while (!frames.isEmpty()) {
+          advanceFrames(frames);
+          ++units;
+
+          if (maxUnitsPerStep > 0 && units >= maxUnitsPerStep)
+            break;
+
+          if (maxNanosPerStep > 0 && System.nanoTime() - startNanos >= maxNanosPerStep)
+            break;
+        }
+      } catch (Exception e) {
+        failed = true;
+        frames.clear();
+        throw e;
+      }
+
+      int finalUnits = units;
+      logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Performed " + finalUnits + " units of the mapping job for path=" + root);
+
+      if (!frames.isEmpty())
+        return false;
+
+      // The root section is only published after all of it's fields have been assigned
+      result = rootMapping.instance;
+      return true;
+    }
+
+    @Override
+    public boolean isDone() {
+      return result != null;
+    }
+
+    @Override
+    public T getResult() {
+      if (result == null)
+        throw new IllegalStateException("This mapping job has not yet completed");
+
+      return result;
+    }
   }
 
   /**
@@ -252,8 +776,9 @@ public class ConfigMapper implements IConfigMapper {
    * if the input is of type map and returning null otherwise. Unsupported types throw.
    * @param input Input object to convert
    * @param type Type to convert to
+   * @param context Context of the current mapping request
    */
-  private @Nullable Object convertType(@Nullable Object input, Class<?> type) throws Exception {
+  private @Nullable Object convertType(@Nullable Object input, Class<?> type, MappingContext context) throws Exception {
 
     Class<?> finalType = type;
     logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Trying to convert a value to type: " + finalType);
@@ -278,9 +803,9 @@ public class ConfigMapper implements IConfigMapper {
     // Requested plain object
     if (type == Object.class) {
       if (converter != null)
-        input = converter.apply(input, evaluator);
+        return converter.apply(input, evaluator);
 
-      return input;
+      return isInternableLeaf(input) ? intern(input, context) : input;
     }
 
     if (type.isEnum()) {
@@ -307,7 +832,7 @@ public class ConfigMapper implements IConfigMapper {
         input = new HashMap<>();
       }
 
-      Object value = mapSectionSub(null, (Map<?, ?>) input, type.asSubclass(AConfigSection.class));
+      Object value = mapSectionOrReuse(input, null, (Map<?, ?>) input, type.asSubclass(AConfigSection.class), context);
 
       if (converter != null)
         value = converter.apply(value, evaluator);
@@ -317,27 +842,27 @@ public class ConfigMapper implements IConfigMapper {
 
     logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Wrapping value in evaluable");
 
-    IEvaluable evaluable = new ConfigValue(input, this.evaluator);
-
     if (IEvaluable.class.isAssignableFrom(type)) {
       logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Returning evaluable");
-      return evaluable;
+      return makeConfigValue(input, context);
     }
 
+    IEvaluable evaluable = new ConfigValue(input, this.evaluator);
+
     if (type == String.class)
-      return evaluable.asScalar(ScalarType.STRING, GPEEE.EMPTY_ENVIRONMENT);
+      return intern(evaluable.asScalar(ScalarType.STRING, GPEEE.EMPTY_ENVIRONMENT), context);
 
     if (type == int.class || type == Integer.class)
-      return evaluable.asScalar(ScalarType.LONG, GPEEE.EMPTY_ENVIRONMENT).intValue();
+      return intern(evaluable.asScalar(ScalarType.LONG, GPEEE.EMPTY_ENVIRONMENT).intValue(), context);
 
     if (type == long.class || type == Long.class)
-      return evaluable.asScalar(ScalarType.LONG, GPEEE.EMPTY_ENVIRONMENT);
+      return intern(evaluable.asScalar(ScalarType.LONG, GPEEE.EMPTY_ENVIRONMENT), context);
 
     if (type == double.class || type == Double.class)
-      return evaluable.asScalar(ScalarType.DOUBLE, GPEEE.EMPTY_ENVIRONMENT);
+      return intern(evaluable.asScalar(ScalarType.DOUBLE, GPEEE.EMPTY_ENVIRONMENT), context);
 
     if (type == float.class || type == Float.class)
-      return evaluable.asScalar(ScalarType.DOUBLE, GPEEE.EMPTY_ENVIRONMENT).floatValue();
+      return intern(evaluable.asScalar(ScalarType.DOUBLE, GPEEE.EMPTY_ENVIRONMENT).floatValue(), context);
 
     if (type == boolean.class || type == Boolean.class)
       return evaluable.asScalar(ScalarType.BOOLEAN, GPEEE.EMPTY_ENVIRONMENT);
@@ -345,13 +870,132 @@ public class ConfigMapper implements IConfigMapper {
     throw new MappingError("Unsupported type specified: " + type);
   }
 
+  /**
+   * Wraps a value into a {@link ConfigValue} which - if interning is enabled and the value is
+   * immutable or can be made so - is shared with all other equal config values of this request
+   * @param input Value to wrap
+   * @param context Context of the current mapping request
+   * @return Wrapped value
+   */
+  private ConfigValue makeConfigValue(Object input, MappingContext context) {
+    if (context.internedConfigValues == null)
+      return new ConfigValue(input, this.evaluator);
+
+    Object internedInput = internConstant(input, context);
+
+    // Expressions or nested collections cannot be interned
+    if (internedInput == null)
+      return new ConfigValue(input, this.evaluator);
+
+    ConfigValue configValue = context.internedConfigValues.get(internedInput);
+
+    if (configValue != null) {
+      ++context.internHits;
+      return configValue;
+    }
+
+    configValue = new ConfigValue(internedInput, this.evaluator);
+    context.internedConfigValues.put(internedInput, configValue);
+    return configValue;
+  }
+
+  /**
+   * Interns a constant value, which is either a leaf or a list/map made up of leaves,
+   * where collections are copied into an unmodifiable representation beforehand
+   * @param input Value to intern
+   * @param context Context of the current mapping request
+   * @return Interned value, null if the value is not a constant
+   */
+  private @Nullable Object internConstant(Object input, MappingContext context) {
+    if (isInternableLeaf(input))
+      return intern(input, context);
+
+    if (input instanceof List) {
+      List<Object> items = new ArrayList<>(((List<?>) input).size());
+
+      for (Object item : (List<?>) input) {
+        if (item != null && !isInternableLeaf(item))
+          return null;
+
+        items.add(item == null ? null : intern(item, context));
+      }
+
+      return intern(Collections.unmodifiableList(items), context);
+    }
+
+    if (input instanceof Map) {
+      Map<Object, Object> items = new LinkedHashMap<>();
+
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) input).entrySet()) {
+        Object key = entry.getKey(), value = entry.getValue();
+
+        if (!isInternableLeaf(key) || (value != null && !isInternableLeaf(value)))
+          return null;
+
+        items.put(intern(key, context), value == null ? null : intern(value, context));
+      }
+
+      // Equal maps of differing order would otherwise hand out the first map's order for all of them
+      return intern(new OrderedMapKey(items), Collections.unmodifiableMap(items), context);
+    }
+
+    return null;
+  }
+
+  /**
+   * Deduplicates an immutable value through the hash-cons table of the current request, if enabled
+   * @param value Value to intern
+   * @param context Context of the current mapping request
+   * @return Previously interned equal value or the provided value, if it's the first of it's kind
+   */
+  private <T> T intern(T value, MappingContext context) {
+    return intern(value, value, context);
+  }
+
+  /**
+   * Deduplicates an immutable value through the hash-cons table of the current request by a key
+   * which identifies it, if enabled
+   * @param key Key which is equal for all values which may be used interchangeably
+   * @param value Value to intern
+   * @param context Context of the current mapping request
+   * @return Previously interned value of an equal key or the provided value, if it's the first of it's kind
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T intern(Object key, T value, MappingContext context) {
+    if (context.internedLeaves == null)
+      return value;
+
+    Object existingValue = context.internedLeaves.putIfAbsent(key, value);
+
+    if (existingValue == null)
+      return value;
+
+    ++context.internHits;
+    return (T) existingValue;
+  }
+
+  /**
+   * Checks whether a value is an immutable leaf value which may be interned
+   * @param value Value to check
+   */
+  private boolean isInternableLeaf(@Nullable Object value) {
+    return (
+      value instanceof String ||
+      value instanceof Long || value instanceof Integer ||
+      value instanceof Short || value instanceof Byte ||
+      value instanceof Double || value instanceof Float ||
+      value instanceof Boolean || value instanceof Character
+    );
+  }
+
   /**
    * Handles resolving a field of type map based on a previously looked up value
    * @param f Map field which has to be assigned to
    * @param value Previously looked up value
+   * @param context Context of the current mapping request
    * @return Value to assign to the field
    */
-  private Object handleResolveMapField(Field f, Object value) throws Exception {
+  private Object handleResolveMapField(Field f, Object value, MappingContext context) throws Exception {
     logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Resolving map field");
 
     List<Class<?>> genericTypes = getGenericTypes(f);
@@ -369,14 +1013,14 @@ public class ConfigMapper implements IConfigMapper {
     for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
       Object resultKey;
       try {
-        resultKey = convertType(entry.getKey(), genericTypes.get(0));
+        resultKey = convertType(entry.getKey(), genericTypes.get(0), context);
       } catch (MappingError error) {
         throw new MappingError(error.getMessage() + " (at the key of a map)");
       }
 
       Object resultValue;
       try {
-        resultValue = convertType(entry.getValue(), genericTypes.get(1));
+        resultValue = convertType(entry.getValue(), genericTypes.get(1), context);
       } catch (MappingError error) {
         throw new MappingError(error.getMessage() + " (at value for key=" + resultKey + " of a map)");
       }
@@ -391,9 +1035,10 @@ public class ConfigMapper implements IConfigMapper {
    * Handles resolving a field of type list based on a previously looked up value
    * @param f List field which has to be assigned to
    * @param value Previously looked up value
+   * @param context Context of the current mapping request
    * @return Value to assign to the field
    */
-  private List<Object> handleResolveListField(Field f, Object value) throws Exception {
+  private List<Object> handleResolveListField(Field f, Object value, MappingContext context) throws Exception {
     logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Resolving list field");
 
     List<Class<?>> genericTypes = getGenericTypes(f);
@@ -410,7 +1055,7 @@ public class ConfigMapper implements IConfigMapper {
     for (int i = 0; i < list.size(); i++) {
       Object itemValue;
       try {
-        itemValue = convertType(list.get(i), genericTypes.get(0));
+        itemValue = convertType(list.get(i), genericTypes.get(0), context);
       } catch (MappingError error) {
         throw new MappingError(error.getMessage() + " (at index " + i + " of a list)");
       }
@@ -425,9 +1070,10 @@ public class ConfigMapper implements IConfigMapper {
    * Handles resolving a field of type array based on a previously looked up value
    * @param f List field which has to be assigned to
    * @param value Previously looked up value
+   * @param context Context of the current mapping request
    * @return Value to assign to the field
    */
-  private Object handleResolveArrayField(Field f, Object value) throws Exception {
+  private Object handleResolveArrayField(Field f, Object value, MappingContext context) throws Exception {
     logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Resolving array field");
 
     Class<?> arrayType = f.getType().getComponentType();
@@ -443,7 +1089,7 @@ public class ConfigMapper implements IConfigMapper {
     for (int i = 0; i < list.size(); i++) {
       Object itemValue;
       try {
-        itemValue = convertType(list.get(i), arrayType);
+        itemValue = convertType(list.get(i), arrayType, context);
       } catch (MappingError error) {
         throw new MappingError(error.getMessage() + " (at index " + i + " of an array)");
       }
@@ -454,15 +1100,144 @@ public class ConfigMapper implements IConfigMapper {
     return array;
   }
 
+  /**
+   * Handles resolving a field of type {@link ColumnarTable} by storing the values of every row type field
+   * within a column of it's own, instead of instantiating a section per item. Without a previously looked
+   * up value, the cells are read from the config's tree directly, which spares unwrapping every row into
+   * a map. Keys are looked up case-insensitively, while absent keys leave their cell at the default value.
+   * @param f Columnar table field which has to be assigned to
+   * @param path Path of the table within the config, null if unknown
+   * @param value Previously looked up value, null to read the cells from the config at the path
+   * @param context Context of the current mapping request
+   * @return Value to assign to the field, null if the config cannot provide the cells directly
+   */
+  private @Nullable ColumnarTable<?> handleResolveColumnarField(
+    Field f, @Nullable String path, @Nullable Object value, MappingContext context
+  ) throws Exception {
+    logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Resolving columnar table field");
+
+    List<Class<?>> genericTypes = getGenericTypes(f);
+
+    if (genericTypes == null || genericTypes.size() != 1 || !AConfigSection.class.isAssignableFrom(genericTypes.get(0)))
+      throw new MappingError("Columnar tables require a config-section as their row type");
+
+    Class<? extends AConfigSection> rowType = genericTypes.get(0).asSubclass(AConfigSection.class);
+    List<Field> rowFields = new ArrayList<>();
+
+    // The base class' internal state is not part of a row
+    for (Field rowField : findApplicableFields(rowType).a) {
+      if (rowField.getDeclaringClass() != AConfigSection.class)
+        rowFields.add(rowField);
+    }
+
+    int columnCount = rowFields.size();
+    String[] columnNames = new String[columnCount];
+    Class<?>[] columnTypes = new Class<?>[columnCount];
+
+    for (int i = 0; i < columnCount; i++) {
+      Field rowField = rowFields.get(i);
+      CSNamed nameAnnotation = rowField.getAnnotation(CSNamed.class);
+
+      columnNames[i] = nameAnnotation == null ? rowField.getName() : nameAnnotation.name();
+      columnTypes[i] = rowField.getType();
+    }
+
+    Object[][] cells;
+
+    if (value == null) {
+      if (path == null || !(config instanceof YamlConfig))
+        return null;
+
+      try {
+        cells = ((YamlConfig) config).readColumns(path, columnNames);
+      } catch (IllegalArgumentException e) {
+        throw new MappingError(e.getMessage() + " (within a columnar table)");
+      }
+
+      if (cells == null)
+        return null;
+    }
+
+    else
+      cells = collectColumns(value, columnNames);
+
+    int rowCount = columnCount == 0 ? 0 : cells[0].length;
+    Object[] columns = new Object[columnCount];
+    BitSet[] nullCells = new BitSet[columnCount];
+
+    logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Filling " + columnCount + " columns of " + rowCount + " rows");
+
+    for (int column = 0; column < columnCount; column++) {
+      columns[column] = ColumnarTable.allocateColumn(columnTypes[column], rowCount);
+
+      if (columns[column] == null)
+        throw new MappingError("Unsupported column type " + columnTypes[column] + " of field " + columnNames[column] + " within a columnar table");
+
+      for (int row = 0; row < rowCount; row++) {
+        Object cellValue;
+        try {
+          cellValue = convertType(cells[column][row], columnTypes[column], context);
+        } catch (MappingError error) {
+          throw new MappingError(error.getMessage() + " (at column " + columnNames[column] + " of row " + row + " of a columnar table)");
+        }
+
+        if (cellValue != null) {
+          ColumnarTable.storeCell(columns[column], row, cellValue);
+          continue;
+        }
+
+        // Primitive arrays cannot hold null, which is why absent cells are remembered separately
+        if (nullCells[column] == null)
+          nullCells[column] = new BitSet(rowCount);
+
+        nullCells[column].set(row);
+      }
+    }
+
+    return new ColumnarTable<>(rowType, columnNames, columnTypes, columns, nullCells, rowCount);
+  }
+
+  /**
+   * Collects the cells of a columnar table from an already unwrapped list of rows
+   * @param value Unwrapped value of the table, where non-lists are treated as an empty table
+   * @param columnNames Keys to look up case-insensitively within every row
+   * @return Cells by column and then by row
+   */
+  private Object[][] collectColumns(Object value, String[] columnNames) {
+    List<?> rows = value instanceof List ? (List<?>) value : Collections.emptyList();
+    Object[][] cells = new Object[columnNames.length][rows.size()];
+
+    for (int row = 0; row < rows.size(); row++) {
+      if (!(rows.get(row) instanceof Map))
+        throw new MappingError("Item " + row + " is not a map (within a columnar table)");
+
+      Map<?, ?> rowValues = (Map<?, ?>) rows.get(row);
+
+      for (Map.Entry<?, ?> entry : rowValues.entrySet()) {
+        if (!(entry.getKey() instanceof String))
+          continue;
+
+        for (int column = 0; column < columnNames.length; column++) {
+          // Exact matches take precedence over keys which only match when ignoring case
+          if (columnNames[column].equals(entry.getKey()) || (cells[column][row] == null && columnNames[column].equalsIgnoreCase((String) entry.getKey())))
+            cells[column][row] = entry.getValue();
+        }
+      }
+    }
+
+    return cells;
+  }
+
   /**
    * Tries to resolve a field's value based on its type, it's annotations, it's name and
    * the source (either a path or a source map).
    * @param root Root node of this section (null means config root)
    * @param source Map to resolve from instead of querying the config, optional
    * @param f Field which has to be assigned to
+   * @param context Context of the current mapping request
    * @return Value to be assigned to the field
    */
-  private @Nullable Object resolveFieldValue(@Nullable String root, @Nullable Map<?, ?> source, Field f, Class<?> type) throws Exception {
+  private @Nullable Object resolveFieldValue(@Nullable String root, @Nullable Map<?, ?> source, Field f, Class<?> type, MappingContext context) throws Exception {
     CSNamed nameAnnotation = f.getAnnotation(CSNamed.class);
     String fieldName = nameAnnotation == null ? f.getName() : nameAnnotation.name();
     String path = f.isAnnotationPresent(CSInlined.class) ? root : joinPaths(root, fieldName);
@@ -470,6 +1245,14 @@ public class ConfigMapper implements IConfigMapper {
 
     logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Resolving value for field=" + f.getName() + " at path=" + path + " using source=" + source);
 
+    // Columnar tables are read from the tree directly, without unwrapping every row into a map first
+    if (type == ColumnarTable.class && source == null) {
+      ColumnarTable<?> table = handleResolveColumnarField(f, path, null, context);
+
+      if (table != null)
+        return table;
+    }
+
     Object value = resolvePath(path, source);
 
     // It's not marked as always and the current path doesn't exist: return null
@@ -480,7 +1263,7 @@ public class ConfigMapper implements IConfigMapper {
 
     if (AConfigSection.class.isAssignableFrom(type)) {
       logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Type is of another section");
-      return mapSectionSub(path, source, type.asSubclass(AConfigSection.class));
+      return mapSectionOrReuse(value, path, source, type.asSubclass(AConfigSection.class), context);
     }
 
     logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Resolving path value as plain object");
@@ -491,11 +1274,14 @@ public class ConfigMapper implements IConfigMapper {
 
     logger.log(Level.FINEST, () -> DebugLogSource.MAPPER + "Resolved value=" + value);
 
+    if (type == ColumnarTable.class)
+      return handleResolveColumnarField(f, path, value == null ? Collections.emptyList() : value, context);
+
     if (Map.class.isAssignableFrom(type))
-      return handleResolveMapField(f, value);
+      return handleResolveMapField(f, value, context);
 
     if (List.class.isAssignableFrom(type) || Set.class.isAssignableFrom(type)) {
-      var result = handleResolveListField(f, value);
+      var result = handleResolveListField(f, value, context);
 
       if (Set.class.isAssignableFrom(type))
         return new HashSet<>(result);
@@ -504,9 +1290,9 @@ public class ConfigMapper implements IConfigMapper {
     }
 
     if (type.isArray())
-      return handleResolveArrayField(f, value);
+      return handleResolveArrayField(f, value, context);
 
-    return convertType(value, type);
+    return convertType(value, type, context);
   }
 
   /**
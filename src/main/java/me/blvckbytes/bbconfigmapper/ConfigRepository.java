@@ -0,0 +1,248 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import me.blvckbytes.bbconfigmapper.logging.DebugLogSource;
+import me.blvckbytes.bbconfigmapper.sections.AConfigSection;
+import me.blvckbytes.gpeee.IExpressionEvaluator;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Repository of many config files within a common directory, which are loaded as a whole by
+ * passing each file through the stages of reading and composing (including merge-key processing),
+ * pre-processing and finally mapping all sections registered for it. Each stage of a file is
+ * scheduled on a bounded pool as soon as it's previous stage completed, so that files progress
+ * independently of each other and the total duration scales with the number of available cores.
+ */
+public class ConfigRepository {
+
+  private static class SectionRegistration {
+    private final @Nullable String root;
+    private final Class<? extends AConfigSection> type;
+
+    private SectionRegistration(@Nullable String root, Class<? extends AConfigSection> type) {
+      this.root = root;
+      this.type = type;
+    }
+  }
+
+  private final Path directory;
+  private final Logger logger;
+  private final IExpressionEvaluator evaluator;
+  private final @Nullable String expressionMarkerSuffix;
+  private final @Nullable IValueConverterRegistry converterRegistry;
+  private final int parallelism;
+  private final Map<String, List<SectionRegistration>> registrations;
+
+  // Results of the last successful load, which are swapped out as a whole
+  private volatile Map<String, YamlConfig> configs;
+  private volatile Map<String, Map<Class<?>, AConfigSection>> sections;
+
+  /**
+   * Create a new repository of config files
+   * @param directory Directory which contains all config files
+   * @param logger Logger to use for logging events
+   * @param evaluator Expression evaluator instance to use when parsing expressions
+   * @param expressionMarkerSuffix Suffix of keys which mark their values as expressions, optional
+   * @param converterRegistry Optional registry of custom value converters
+   * @param parallelism Maximum number of stages to execute at once
+   */
+  public ConfigRepository(
+    Path directory,
+    Logger logger,
+    IExpressionEvaluator evaluator,
+    @Nullable String expressionMarkerSuffix,
+    @Nullable IValueConverterRegistry converterRegistry,
+    int parallelism
+  ) {
+    if (parallelism < 1)
+      throw new IllegalArgumentException("The parallelism has to be at least one");
+
+    this.directory = directory;
+    this.logger = logger;
+    this.evaluator = evaluator;
+    this.expressionMarkerSuffix = expressionMarkerSuffix;
+    this.converterRegistry = converterRegistry;
+    this.parallelism = parallelism;
+    this.registrations = new LinkedHashMap<>();
+    this.configs = Collections.emptyMap();
+    this.sections = Collections.emptyMap();
+  }
+
+  /**
+   * Register a section which is to be mapped from a file on every load
+   * @param fileName Name of the file, relative to the repository's directory
+   * @param root Root node of the section (null means config root)
+   * @param type Type of the section, which may only be registered once per file
+   * @return This instance, for chaining
+   */
+  public synchronized ConfigRepository register(String fileName, @Nullable String root, Class<? extends AConfigSection> type) {
+    List<SectionRegistration> fileRegistrations = registrations.computeIfAbsent(fileName, k -> new ArrayList<>());
+
+    for (SectionRegistration registration : fileRegistrations) {
+      if (registration.type == type)
+        throw new IllegalArgumentException("The section " + type + " has already been registered for the file " + fileName);
+    }
+
+    fileRegistrations.add(new SectionRegistration(root, type));
+    return this;
+  }
+
+  /**
+   * Loads all registered files and maps all of their sections, while blocking until each file either
+   * completed or failed. Results are only made available if all files succeeded, otherwise the results
+   * of the previous load remain in place.
+   * @param preProcessor Optional pre-processor, which is applied on every file before mapping it
+   * @throws ConfigRepositoryException If at least one file failed, containing the error of each such file
+   * @throws InterruptedException If interrupted while waiting for the files to complete
+   */
+  public synchronized void loadAll(@Nullable FConfigPreProcessor preProcessor) throws ConfigRepositoryException, InterruptedException {
+    logger.log(Level.FINEST, () -> DebugLogSource.REPOSITORY + "Loading " + registrations.size() + " files within " + directory);
+
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+      Thread thread = new Thread(runnable, "ConfigRepository-Worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    Map<String, CompletableFuture<YamlConfig>> configFutures = new LinkedHashMap<>();
+    Map<String, CompletableFuture<Map<Class<?>, AConfigSection>>> sectionFutures = new LinkedHashMap<>();
+
+    try {
+      for (Map.Entry<String, List<SectionRegistration>> entry : registrations.entrySet()) {
+        String fileName = entry.getKey();
+        List<SectionRegistration> fileRegistrations = entry.getValue();
+
+        CompletableFuture<YamlConfig> configFuture = CompletableFuture
+          .supplyAsync(() -> loadFile(fileName), executor)
+          .thenApplyAsync(config -> preProcessFile(fileName, config, preProcessor), executor);
+
+        configFutures.put(fileName, configFuture);
+        sectionFutures.put(fileName, configFuture.thenApplyAsync(config -> mapFile(config, fileRegistrations), executor));
+      }
+
+      Map<String, YamlConfig> loadedConfigs = new LinkedHashMap<>();
+      Map<String, Map<Class<?>, AConfigSection>> mappedSections = new LinkedHashMap<>();
+      Map<String, Throwable> errors = new LinkedHashMap<>();
+
+      for (Map.Entry<String, CompletableFuture<Map<Class<?>, AConfigSection>>> entry : sectionFutures.entrySet()) {
+        String fileName = entry.getKey();
+
+        try {
+          mappedSections.put(fileName, entry.getValue().get());
+          loadedConfigs.put(fileName, configFutures.get(fileName).get());
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          logger.log(Level.FINEST, () -> DebugLogSource.REPOSITORY + "Could not load file " + fileName + ": " + cause);
+          errors.put(fileName, cause);
+        }
+      }
+
+      if (!errors.isEmpty())
+        throw new ConfigRepositoryException(errors);
+
+      this.configs = Collections.unmodifiableMap(loadedConfigs);
+      this.sections = Collections.unmodifiableMap(mappedSections);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Get the config which has been loaded from a file by the last successful load
+   * @param fileName Name of the file, relative to the repository's directory
+   * @return Loaded config, null if there's no such file or nothing has been loaded yet
+   */
+  public @Nullable YamlConfig getConfig(String fileName) {
+    return configs.get(fileName);
+  }
+
+  /**
+   * Get a section which has been mapped from a file by the last successful load
+   * @param fileName Name of the file, relative to the repository's directory
+   * @param type Type of the registered section
+   * @return Mapped section, null if there's no such registration or nothing has been loaded yet
+   */
+  public <T extends AConfigSection> @Nullable T getSection(String fileName, Class<T> type) {
+    Map<Class<?>, AConfigSection> fileSections = sections.get(fileName);
+
+    if (fileSections == null)
+      return null;
+
+    return type.cast(fileSections.get(type));
+  }
+
+  private YamlConfig loadFile(String fileName) {
+    logger.log(Level.FINEST, () -> DebugLogSource.REPOSITORY + "Reading and composing file " + fileName);
+
+    YamlConfig config = new YamlConfig(evaluator, logger, expressionMarkerSuffix);
+
+    try (Reader reader = Files.newBufferedReader(directory.resolve(fileName), StandardCharsets.UTF_8)) {
+      config.load(reader);
+    } catch (Exception e) {
+      throw new CompletionException(e);
+    }
+
+    return config;
+  }
+
+  private YamlConfig preProcessFile(String fileName, YamlConfig config, @Nullable FConfigPreProcessor preProcessor) {
+    if (preProcessor == null)
+      return config;
+
+    logger.log(Level.FINEST, () -> DebugLogSource.REPOSITORY + "Pre-processing file " + fileName);
+
+    try {
+      preProcessor.apply(fileName, config);
+    } catch (Exception e) {
+      throw new CompletionException(e);
+    }
+
+    return config;
+  }
+
+  private Map<Class<?>, AConfigSection> mapFile(YamlConfig config, List<SectionRegistration> fileRegistrations) {
+    IConfigMapper mapper = new ConfigMapper(config, logger, evaluator, converterRegistry);
+    Map<Class<?>, AConfigSection> result = new HashMap<>();
+
+    try {
+      for (SectionRegistration registration : fileRegistrations)
+        result.put(registration.type, mapper.mapSection(registration.root, registration.type));
+    } catch (Exception e) {
+      throw new CompletionException(e);
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import me.blvckbytes.gpeee.IExpressionEvaluator;
+import me.blvckbytes.gpeee.parser.expression.AExpression;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Table of optimized expressions by their source text, which is shared by all configs using the
+ * same evaluator, so that identical expressions are only parsed once and all of their occurrences
+ * reference the very same tree. Expressions are only held weakly and vanish from the table as
+ * soon as no config or caller references them anymore. Tables don't reference their evaluator,
+ * which is passed in on every call, so that they vanish alongside evaluators which are unused.
+ */
+class ExpressionInternTable {
+
+  private static final Map<IExpressionEvaluator, ExpressionInternTable> TABLES = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private static class InternedExpression extends WeakReference<AExpression> {
+
+    private final String source;
+
+    InternedExpression(String source, AExpression expression, ReferenceQueue<AExpression> queue) {
+      super(expression, queue);
+      this.source = source;
+    }
+  }
+
+  private final ReferenceQueue<AExpression> collectedExpressions;
+  private final Map<String, InternedExpression> expressions;
+
+  private ExpressionInternTable() {
+    this.collectedExpressions = new ReferenceQueue<>();
+    this.expressions = new HashMap<>();
+  }
+
+  /**
+   * Get the table shared by all users of the provided evaluator
+   * @param evaluator Evaluator which expressions are parsed and optimized with
+   * @return Shared table
+   */
+  static ExpressionInternTable of(IExpressionEvaluator evaluator) {
+    return TABLES.computeIfAbsent(evaluator, key -> new ExpressionInternTable());
+  }
+
+  /**
+   * Get the interned expression of a source text, or parse, optimize and intern it if absent
+   * @param evaluator Evaluator this table has been obtained for, to parse and optimize with
+   * @param source Source text of the expression
+   * @return Optimized expression, which is shared with all other occurrences of the same text
+   */
+  AExpression intern(IExpressionEvaluator evaluator, String source) {
+    AExpression expression = lookup(source);
+
+    if (expression != null)
+      return expression;
+
+    // Parsing happens outside of the lock, where the first expression to be interned wins a race
+    AExpression parsedExpression = evaluator.optimizeExpression(evaluator.parseString(source));
+
+    synchronized (this) {
+      expression = lookup(source);
+
+      if (expression != null)
+        return expression;
+
+      expressions.put(source, new InternedExpression(source, parsedExpression, collectedExpressions));
+      return parsedExpression;
+    }
+  }
+
+  /**
+   * Get the number of interned expressions, which may include collected expressions not yet enqueued
+   */
+  synchronized int size() {
+    expungeCollectedExpressions();
+    return expressions.size();
+  }
+
+  private synchronized @Nullable AExpression lookup(String source) {
+    expungeCollectedExpressions();
+
+    InternedExpression interned = expressions.get(source);
+    return interned == null ? null : interned.get();
+  }
+
+  private void expungeCollectedExpressions() {
+    InternedExpression collected;
+
+    while ((collected = (InternedExpression) collectedExpressions.poll()) != null) {
+      // The source might have been interned again after it's previous expression has been collected
+      if (expressions.get(collected.source) == collected)
+        expressions.remove(collected.source);
+    }
+  }
+}
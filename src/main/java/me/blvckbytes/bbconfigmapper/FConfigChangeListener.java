@@ -1,7 +1,7 @@
 /*
  * MIT License
  *
- * Copyright (c) 2023 BlvckBytes
+ * Copyright (c) 2024 BlvckBytes
  *
  * Permission is hereby granted, free of charge, to any person obtaining a copy
  * of this software and associated documentation files (the "Software"), to deal
@@ -24,19 +24,16 @@
 
 package me.blvckbytes.bbconfigmapper;
 
-import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.function.Supplier;
+@FunctionalInterface
+public interface FConfigChangeListener {
 
-public class MergedNodeTuple {
+  /**
+   * Called after a modification of a config has been applied, outside of the config's lock
+   * @param config Config which has been modified
+   * @param path Path which has been modified, null if the root or multiple paths have been modified
+   */
+  void onChange(YamlConfig config, @Nullable String path);
 
-  public final NodeTuple handle;
-  public final Runnable addRoutine;
-  public final Supplier<Boolean> removeRoutine;
-
-  public MergedNodeTuple(NodeTuple handle, Runnable addRoutine, Supplier<Boolean> removeRoutine) {
-    this.handle = handle;
-    this.addRoutine = addRoutine;
-    this.removeRoutine = removeRoutine;
-  }
 }
@@ -0,0 +1,481 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.nodes.*;
+
+import java.util.*;
+
+/**
+ * Immutable, read-only view of a {@link YamlConfig} which resolves paths without walking the tree.
+ * All paths which could be resolved by the config, including their case and expression marker
+ * variants, are flattened into a table indexed by a {@link MinimalPerfectHash} of their folded
+ * case, which points at values unwrapped ahead of time. Values are handed out as the very same
+ * unmodifiable instances on every call, which is why instances can be shared across threads freely.
+ */
+class FrozenYamlConfig implements IConfig {
+
+  // Unwrapping values may fail, which is only to surface once they're requested, like in the tree
+  private static class DeferredFailure {
+    final RuntimeException exception;
+
+    DeferredFailure(RuntimeException exception) {
+      this.exception = exception;
+    }
+  }
+
+  private final YamlConfig snapshot;
+  private final MinimalPerfectHash pathHash;
+  private final String[] foldedPaths;
+  private final @Nullable Object[] values;
+  private final boolean[] markedPaths;
+  private final @Nullable Object rootValue;
+  private final Set<Object> sharedValues;
+
+  private FrozenYamlConfig(
+    YamlConfig snapshot, MinimalPerfectHash pathHash, String[] foldedPaths,
+    @Nullable Object[] values, boolean[] markedPaths, @Nullable Object rootValue, Set<Object> sharedValues
+  ) {
+    this.snapshot = snapshot;
+    this.pathHash = pathHash;
+    this.foldedPaths = foldedPaths;
+    this.values = values;
+    this.markedPaths = markedPaths;
+    this.rootValue = rootValue;
+    this.sharedValues = sharedValues;
+  }
+
+  /**
+   * Flattens the tree of a snapshot
+   * @param snapshot Snapshot to freeze, which is retained to read comments from
+   * @return Frozen view of the snapshot
+   */
+  static FrozenYamlConfig of(YamlConfig snapshot) {
+    Freezer freezer = new Freezer(snapshot);
+    MappingNode rootNode = snapshot.getRootNode();
+    Object rootValue = null;
+
+    if (rootNode != null) {
+      rootValue = freezer.freezeValue(rootNode, false, false);
+      freezer.registerPaths(rootNode, false, null);
+    }
+
+    int size = freezer.paths.size();
+    long[] hashes = new long[size];
+
+    for (int i = 0; i < size; i++)
+      hashes[i] = hashFolded(freezer.paths.get(i));
+
+    MinimalPerfectHash pathHash = MinimalPerfectHash.build(hashes);
+    String[] foldedPaths = new String[size];
+    Object[] values = new Object[size];
+    boolean[] markedPaths = new boolean[size];
+
+    for (int i = 0; i < size; i++) {
+      int slot = pathHash.slotOf(hashes[i]);
+      foldedPaths[slot] = freezer.paths.get(i);
+      values[slot] = freezer.values.get(i);
+      markedPaths[slot] = freezer.markedPaths.get(i);
+    }
+
+    return new FrozenYamlConfig(snapshot, pathHash, foldedPaths, values, markedPaths, rootValue, freezer.sharedValues);
+  }
+
+  @Override
+  public @Nullable Object get(@Nullable String path) {
+    if (path == null)
+      return unwrapFailure(rootValue);
+
+    int slot = slotOf(path);
+    return slot < 0 ? null : unwrapFailure(values[slot]);
+  }
+
+  @Override
+  public boolean exists(@Nullable String path) {
+    if (path == null)
+      return snapshot.getRootNode() != null;
+
+    return slotOf(path) >= 0;
+  }
+
+  @Override
+  public void set(@Nullable String path, @Nullable Object value) {
+    throw new UnsupportedOperationException("Frozen configs are immutable");
+  }
+
+  @Override
+  public void remove(@Nullable String path) {
+    throw new UnsupportedOperationException("Frozen configs are immutable");
+  }
+
+  @Override
+  public void attachComment(@Nullable String path, List<String> lines, boolean self) {
+    throw new UnsupportedOperationException("Frozen configs are immutable");
+  }
+
+  @Override
+  public @Nullable List<String> readComment(@Nullable String path, boolean self) {
+    return snapshot.readComment(path, self);
+  }
+
+  @Override
+  public @Nullable IConfigCursor cursor(@Nullable String path) {
+    if (path == null)
+      return snapshot.getRootNode() == null ? null : new PathCursor(null, false);
+
+    int slot = slotOf(path);
+    return slot < 0 ? null : new PathCursor(path.trim(), markedPaths[slot]);
+  }
+
+  @Override
+  public boolean isSharedValue(Object value) {
+    return sharedValues.contains(value);
+  }
+
+  /**
+   * Get the number of distinct paths which can be resolved
+   */
+  int getPathCount() {
+    return foldedPaths.length;
+  }
+
+  private int slotOf(String path) {
+    // Keys should never contain any whitespace
+    path = path.trim();
+
+    if (StringUtils.isBlank(path))
+      throw new IllegalArgumentException("Invalid path specified: " + path);
+
+    int slot = pathHash.slotOf(hashFolded(path));
+
+    // Absent paths map onto an arbitrary slot
+    if (slot < 0 || !foldedPaths[slot].equalsIgnoreCase(path))
+      return -1;
+
+    return slot;
+  }
+
+  private static @Nullable Object unwrapFailure(@Nullable Object value) {
+    if (value instanceof DeferredFailure)
+      throw ((DeferredFailure) value).exception;
+
+    return value;
+  }
+
+  /**
+   * Hashes a string as if it's case had been folded by {@link MappingKeyIndex#foldCase(String)}
+   * beforehand, so that case-insensitively equal strings share their hash without any allocations
+   * @param value String to hash
+   * @return 64-bit FNV-1a hash of the folded code points
+   */
+  private static long hashFolded(String value) {
+    long hash = 0xCBF29CE484222325L;
+
+    for (int i = 0; i < value.length();) {
+      int codePoint = value.codePointAt(i);
+      hash = (hash ^ Character.toLowerCase(Character.toUpperCase(codePoint))) * 0x100000001B3L;
+      i += Character.charCount(codePoint);
+    }
+
+    return hash;
+  }
+
+  /**
+   * Cursor which resolves paths by prepending it's own path, which costs no more than a
+   * single lookup, as paths are not walked; the values below it never change
+   */
+  private class PathCursor implements IConfigCursor {
+    private final @Nullable String path;
+    private final boolean markedForExpressions;
+
+    private PathCursor(@Nullable String path, boolean markedForExpressions) {
+      this.path = path;
+      this.markedForExpressions = markedForExpressions;
+    }
+
+    @Override
+    public @Nullable String getPath() {
+      return path;
+    }
+
+    @Override
+    public boolean isMarkedForExpressions() {
+      return markedForExpressions;
+    }
+
+    @Override
+    public @Nullable Object get(@Nullable String path) {
+      return FrozenYamlConfig.this.get(path == null ? this.path : joinPath(path));
+    }
+
+    @Override
+    public boolean exists(@Nullable String path) {
+      return path == null || FrozenYamlConfig.this.exists(joinPath(path));
+    }
+
+    @Override
+    public @Nullable IConfigCursor child(String path) {
+      return cursor(joinPath(path));
+    }
+
+    @Override
+    public void iterate(FConfigCursorConsumer consumer) {
+      if (!(get(null) instanceof Map))
+        return;
+
+      for (Object key : ((Map<?, ?>) get(null)).keySet()) {
+        String keyString = String.valueOf(key);
+        IConfigCursor cursor = keyString.indexOf('.') < 0 ? child(keyString) : null;
+
+        // Keys containing the separator cannot be addressed
+        if (cursor != null)
+          consumer.accept(keyString, cursor);
+      }
+    }
+
+    private String joinPath(String relativePath) {
+      // Validate the relative path on it's own, as it would otherwise be joined
+      if (StringUtils.isBlank(relativePath))
+        throw new IllegalArgumentException("Invalid path specified: " + relativePath);
+
+      return this.path == null ? relativePath : this.path + "." + relativePath.trim();
+    }
+
+    @Override
+    public String toString() {
+      return "PathCursor{" +
+        "path='" + path + '\'' +
+        '}';
+    }
+  }
+
+  /**
+   * Walks the tree once to unwrap all values bottom-up and to collect all resolvable paths,
+   * mirroring the lookup rules of {@link YamlConfig}: keys are matched case-insensitively,
+   * the first of multiple matching keys wins, and keys carrying the expression marker suffix
+   * may be addressed with or without it, as long as there's no unmarked key of the same name.
+   */
+  private static class Freezer {
+
+    private final YamlConfig snapshot;
+    private final @Nullable String expressionMarkerSuffix;
+    private final List<String> paths;
+    private final List<@Nullable Object> values;
+    private final List<Boolean> markedPaths;
+    private final Set<String> registeredPaths;
+    private final Map<Node, Object> plainValues;
+    private final Map<Node, Object> expressionValues;
+    private final Set<Object> sharedValues;
+
+    Freezer(YamlConfig snapshot) {
+      this.snapshot = snapshot;
+      this.expressionMarkerSuffix = snapshot.getExpressionMarkerSuffix();
+      this.paths = new ArrayList<>();
+      this.values = new ArrayList<>();
+      this.markedPaths = new ArrayList<>();
+      this.registeredPaths = new HashSet<>();
+      this.plainValues = new IdentityHashMap<>();
+      this.expressionValues = new IdentityHashMap<>();
+      this.sharedValues = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Registers the paths of all keys of a mapping as well as of all of it's descendants
+     * @param node Mapping to register
+     * @param markedForExpressions Whether the mapping is marked for expressions by one of it's parents
+     * @param parentPaths Folded path variants of the mapping, null for the root
+     */
+    void registerPaths(MappingNode node, boolean markedForExpressions, @Nullable List<String> parentPaths) {
+      List<NodeTuple> tuples = node.getValue();
+      List<List<String>> tuplePaths = new ArrayList<>(tuples.size());
+
+      // Keys as they're written take precedence over marked keys being addressed without their marker
+      for (NodeTuple tuple : tuples) {
+        String key = resolvableKeyOf(tuple);
+        tuplePaths.add(key == null ? null : registerKey(tuple, markedForExpressions, parentPaths, key));
+      }
+
+      for (int i = 0; i < tuples.size(); i++) {
+        NodeTuple tuple = tuples.get(i);
+        String key = resolvableKeyOf(tuple);
+
+        if (key == null || !isMarked(key))
+          continue;
+
+        List<String> strippedPaths = registerKey(tuple, true, parentPaths, key.substring(0, key.length() - expressionMarkerSuffix.length()));
+        tuplePaths.get(i).addAll(strippedPaths);
+      }
+
+      for (int i = 0; i < tuples.size(); i++) {
+        NodeTuple tuple = tuples.get(i);
+        List<String> keyPaths = tuplePaths.get(i);
+
+        if (keyPaths == null || keyPaths.isEmpty() || !(tuple.getValueNode() instanceof MappingNode))
+          continue;
+
+        String key = resolvableKeyOf(tuple);
+        registerPaths((MappingNode) tuple.getValueNode(), markedForExpressions || isMarked(key), keyPaths);
+      }
+    }
+
+    /**
+     * Registers all path variants of a key which are not yet taken
+     * @return List of newly registered paths
+     */
+    private List<String> registerKey(NodeTuple tuple, boolean markedForExpressions, @Nullable List<String> parentPaths, String key) {
+      List<String> registeredKeyPaths = new ArrayList<>(parentPaths == null ? 1 : parentPaths.size());
+      String foldedKey = MappingKeyIndex.foldCase(key);
+      Object value = null;
+
+      markedForExpressions |= isMarked(((ScalarNode) tuple.getKeyNode()).getValue());
+
+      for (int i = 0; i < (parentPaths == null ? 1 : parentPaths.size()); i++) {
+        String path = parentPaths == null ? foldedKey : parentPaths.get(i) + "." + foldedKey;
+
+        if (!registeredPaths.add(path))
+          continue;
+
+        if (registeredKeyPaths.isEmpty())
+          value = freezeValue(tuple.getValueNode(), markedForExpressions, false);
+
+        registeredKeyPaths.add(path);
+        paths.add(path);
+        values.add(value);
+        markedPaths.add(markedForExpressions);
+      }
+
+      return registeredKeyPaths;
+    }
+
+    /**
+     * Unwraps a node into an unmodifiable value, reusing the values of children as well as
+     * of nodes which occur multiple times, just like {@link YamlConfig#get(String)} would
+     * @param node Node to unwrap
+     * @param markedForExpressions Whether scalars are to be parsed as expressions
+     * @param nested Whether the node is unwrapped as part of it's parent, in which case a known value is shared
+     * @return Unwrapped value, or a {@link DeferredFailure} if unwrapping failed
+     */
+    @Nullable Object freezeValue(Node node, boolean markedForExpressions, boolean nested) {
+      Map<Node, Object> valueCache = markedForExpressions ? expressionValues : plainValues;
+
+      // Scalars are remembered as well, as each marked key resolves by two paths which are to yield the same expression
+      if (valueCache.containsKey(node)) {
+        Object value = valueCache.get(node);
+
+        // Parents are always unwrapped before their children are registered, so a known
+        // value within another parent stems from a node which occurs multiple times
+        if (nested && !(node instanceof ScalarNode) && !(value instanceof DeferredFailure))
+          sharedValues.add(value);
+
+        return value;
+      }
+
+      Object value;
+
+      if (node instanceof ScalarNode)
+        value = freezeScalar((ScalarNode) node, markedForExpressions);
+      else
+        value = freezeCollection(node, markedForExpressions);
+
+      valueCache.put(node, value);
+      return value;
+    }
+
+    private @Nullable Object freezeScalar(ScalarNode node, boolean markedForExpressions) {
+      try {
+        return snapshot.unwrapScalarNode(node, markedForExpressions);
+      } catch (RuntimeException e) {
+        return new DeferredFailure(e);
+      }
+    }
+
+    private Object freezeCollection(Node node, boolean markedForExpressions) {
+      if (node instanceof SequenceNode) {
+        List<Object> items = new ArrayList<>();
+
+        for (Node item : ((SequenceNode) node).getValue()) {
+          Object value = freezeValue(item, markedForExpressions, true);
+
+          if (value instanceof DeferredFailure)
+            return value;
+
+          items.add(value);
+        }
+
+        return Collections.unmodifiableList(items);
+      }
+
+      if (node instanceof MappingNode) {
+        Map<Object, Object> items = new LinkedHashMap<>();
+
+        for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+          boolean isItemMarkedForExpressions = markedForExpressions;
+
+          // Expressions within keys are - of course - not supported
+          Object key = freezeValue(tuple.getKeyNode(), false, true);
+
+          if (key instanceof DeferredFailure)
+            return key;
+
+          // Strip of trailing marker, also mark for expressions (if not marked already)
+          if (key instanceof String && isMarked((String) key)) {
+            key = ((String) key).substring(0, ((String) key).length() - 1);
+            isItemMarkedForExpressions = true;
+          }
+
+          Object value = freezeValue(tuple.getValueNode(), isItemMarkedForExpressions, true);
+
+          if (value instanceof DeferredFailure)
+            return value;
+
+          items.put(key, value);
+        }
+
+        return Collections.unmodifiableMap(items);
+      }
+
+      return new DeferredFailure(new IllegalStateException("Encountered unknown node type >" + node.getType().getName() + "<"));
+    }
+
+    /**
+     * Get the key of a tuple if it can be addressed by a path
+     * @return Key, null if it's not a scalar, a merge key or contains the path separator
+     */
+    private @Nullable String resolvableKeyOf(NodeTuple tuple) {
+      Node keyNode = tuple.getKeyNode();
+
+      if (!(keyNode instanceof ScalarNode) || keyNode.getTag() == Tag.MERGE)
+        return null;
+
+      String key = ((ScalarNode) keyNode).getValue();
+      return key.indexOf('.') >= 0 ? null : key;
+    }
+
+    private boolean isMarked(String key) {
+      return expressionMarkerSuffix != null && key.endsWith(expressionMarkerSuffix);
+    }
+  }
+}
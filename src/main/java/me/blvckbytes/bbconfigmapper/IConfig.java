@@ -36,6 +36,64 @@ public interface IConfig {
    */
   @Nullable Object get(@Nullable String path);
 
+  /**
+   * Get an integer by it's path
+   * @param path Path to identify the value
+   * @param defaultValue Value to fall back to if the path is absent, not an integer or marked for expressions
+   */
+  default long getLong(@Nullable String path, long defaultValue) {
+    Object value = get(path);
+    return value instanceof Long ? (Long) value : defaultValue;
+  }
+
+  /**
+   * Get an integer by it's path, which has to fit into 32 bits
+   * @param path Path to identify the value
+   * @param defaultValue Value to fall back to if the path is absent, not an integer, out of range or marked for expressions
+   */
+  default int getInt(@Nullable String path, int defaultValue) {
+    long value = getLong(path, defaultValue);
+    return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? defaultValue : (int) value;
+  }
+
+  /**
+   * Get a number by it's path
+   * @param path Path to identify the value
+   * @param defaultValue Value to fall back to if the path is absent, not a number or marked for expressions
+   */
+  default double getDouble(@Nullable String path, double defaultValue) {
+    Object value = get(path);
+
+    if (value instanceof Double || value instanceof Long)
+      return ((Number) value).doubleValue();
+
+    return defaultValue;
+  }
+
+  /**
+   * Get a boolean by it's path
+   * @param path Path to identify the value
+   * @param defaultValue Value to fall back to if the path is absent, not a boolean or marked for expressions
+   */
+  default boolean getBoolean(@Nullable String path, boolean defaultValue) {
+    Object value = get(path);
+    return value instanceof Boolean ? (Boolean) value : defaultValue;
+  }
+
+  /**
+   * Get the text of any scalar by it's path
+   * @param path Path to identify the value
+   * @param defaultValue Value to fall back to if the path is absent, null, not a scalar or marked for expressions
+   */
+  default @Nullable String getString(@Nullable String path, @Nullable String defaultValue) {
+    Object value = get(path);
+
+    if (value instanceof String || value instanceof Long || value instanceof Double || value instanceof Boolean)
+      return String.valueOf(value);
+
+    return defaultValue;
+  }
+
   /**
    * Set a value by it's path
    * @param path Path to identify the value
@@ -71,4 +129,20 @@ public interface IConfig {
    */
   @Nullable List<String> readComment(@Nullable String path, boolean self);
 
+  /**
+   * Create a cursor positioned at a path, which resolves further paths relative to it
+   * @param path Path to position at, null means root
+   * @return Positioned cursor, null if the path doesn't exist
+   */
+  @Nullable IConfigCursor cursor(@Nullable String path);
+
+  /**
+   * Check whether a value previously returned by {@link #get} is shared between multiple
+   * aliases of the same node and thus is handed out as the very same, read-only instance
+   * @param value Value to check
+   */
+  default boolean isSharedValue(Object value) {
+    return false;
+  }
+
 }
@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Handle positioned at a node of a config, which resolves paths relative to that node instead of
+ * walking the whole path from the root on every call. Nodes which have been marked for expressions
+ * by the path leading to them keep that state for all of their descendants, just like absolute
+ * paths. Cursors follow modifications of their config by locating their node again.
+ */
+public interface IConfigCursor {
+
+  /**
+   * Get the absolute path this cursor is positioned at, null for the root
+   */
+  @Nullable String getPath();
+
+  /**
+   * Whether values at and below this cursor are parsed as expressions
+   */
+  boolean isMarkedForExpressions();
+
+  /**
+   * Get a value by it's path relative to this cursor
+   * @param path Relative path to identify the value, null to get the value this cursor is positioned at
+   */
+  @Nullable Object get(@Nullable String path);
+
+  /**
+   * Check whether a given path relative to this cursor exists
+   * @param path Relative path to identify the value, null to check whether this cursor's node still exists
+   */
+  boolean exists(@Nullable String path);
+
+  /**
+   * Create a new cursor positioned relative to this cursor
+   * @param path Relative path to position at
+   * @return Positioned cursor, null if the path doesn't exist
+   */
+  @Nullable IConfigCursor child(String path);
+
+  /**
+   * Call the consumer with a cursor for every key which can be addressed by a path, in order,
+   * if this cursor is positioned at a mapping. The config is not locked while consuming.
+   * @param consumer Key and cursor consumer
+   */
+  void iterate(FConfigCursorConsumer consumer);
+
+}
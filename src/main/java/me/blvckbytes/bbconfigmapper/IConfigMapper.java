@@ -39,6 +39,19 @@ public interface IConfigMapper {
    */
   <T extends AConfigSection> T mapSection(@Nullable String root, Class<T> type) throws Exception;
 
+  /**
+   * Creates a resumable job which maps the provided type just like {@link #mapSection} does, but only performs
+   * a limited amount of work per {@link IMappingJob#step()} call, where a unit of work is either a single field
+   * of a section or a single item of a list of sections. The configuration must not be altered while the job is
+   * in progress. Each step performs at least one unit of work and a non-positive budget means unlimited.
+   * @param root Root node of this section (null means config root)
+   * @param type Type of the class to map
+   * @param maxUnitsPerStep Maximum number of units of work to perform per step
+   * @param maxMicrosPerStep Maximum number of microseconds to spend per step
+   * @return Job which has yet to be stepped through
+   */
+  <T extends AConfigSection> IMappingJob<T> createMappingJob(@Nullable String root, Class<T> type, int maxUnitsPerStep, long maxMicrosPerStep);
+
   /**
    * Get the underlying configuration instance
    */
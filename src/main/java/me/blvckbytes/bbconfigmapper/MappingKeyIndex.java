@@ -0,0 +1,278 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.nodes.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Case-insensitive index of the keys of a single {@link MappingNode}, which is built adaptively: small
+ * mappings which are rarely looked up are scanned linearly, while all others are indexed by their case-folded
+ * key as soon as they pass either the size or the lookup-count threshold. Keys carrying the expression marker
+ * suffix are registered within the same slot as their plain form, so that both variants resolve by a single
+ * probe. Once built, the index is complete, which is why misses don't need to be remembered.
+ * Lookups may occur concurrently, while updates are only to be applied by a single writer without any readers.
+ */
+class MappingKeyIndex {
+
+  // Mappings with at least this many tuples are indexed on their first lookup
+  static final int SIZE_THRESHOLD = 16;
+
+  // Smaller mappings are indexed as soon as they've been looked up this many times
+  static final int LOOKUP_THRESHOLD = 8;
+
+  private static class Slot {
+    @Nullable NodeTuple plainTuple;
+    @Nullable NodeTuple markedTuple;
+  }
+
+  private final @Nullable String foldedMarkerSuffix;
+  private final long generation;
+
+  // Only a heuristic, which is why increments racing each other are of no concern
+  private int lookupCount;
+
+  private volatile @Nullable Map<String, Slot> slots;
+
+  // Whether there are multiple tuples with case-insensitively equal keys, of which only the first is indexed
+  private boolean hasShadowedTuples;
+
+  /**
+   * @param expressionMarkerSuffix Suffix which marks keys of expressions, if any
+   * @param generation Generation of the owning config's key indices at the time of creation
+   */
+  MappingKeyIndex(@Nullable String expressionMarkerSuffix, long generation) {
+    this.foldedMarkerSuffix = expressionMarkerSuffix == null ? null : foldCase(expressionMarkerSuffix);
+    this.generation = generation;
+  }
+
+  long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Locates the first tuple with a case-insensitively matching scalar key, while skipping merge keys
+   * @param node Mapping node this index belongs to
+   * @param key Target key
+   * @return Target tuple if found, null on absent key
+   */
+  @Nullable NodeTuple lookup(MappingNode node, String key) {
+    Map<String, Slot> slots = this.slots;
+
+    if (slots == null) {
+      List<NodeTuple> tuples = node.getValue();
+
+      if (tuples.size() < SIZE_THRESHOLD && ++lookupCount < LOOKUP_THRESHOLD)
+        return scanLinearly(tuples, key);
+
+      slots = build(tuples);
+    }
+
+    String foldedKey = foldCase(key);
+    boolean marked = isMarked(foldedKey);
+    Slot slot = slots.get(marked ? stripMarker(foldedKey) : foldedKey);
+
+    if (slot == null)
+      return null;
+
+    return marked ? slot.markedTuple : slot.plainTuple;
+  }
+
+  /**
+   * Keeps a built index up to date after a tuple has been added to the mapping
+   * @param tuple Added tuple
+   */
+  void onTupleAdded(NodeTuple tuple) {
+    Map<String, Slot> slots = this.slots;
+    String foldedKey = foldKeyOf(tuple);
+
+    if (slots == null || foldedKey == null)
+      return;
+
+    boolean marked = isMarked(foldedKey);
+    Slot slot = slots.computeIfAbsent(marked ? stripMarker(foldedKey) : foldedKey, k -> new Slot());
+
+    // Whether the new tuple shadows the existing one depends on their positions, rebuild when needed
+    if ((marked ? slot.markedTuple : slot.plainTuple) != null) {
+      drop();
+      return;
+    }
+
+    if (marked)
+      slot.markedTuple = tuple;
+    else
+      slot.plainTuple = tuple;
+  }
+
+  /**
+   * Keeps a built index up to date after a tuple has been removed from the mapping
+   * @param tuple Removed tuple
+   */
+  void onTupleRemoved(NodeTuple tuple) {
+    Map<String, Slot> slots = this.slots;
+    String foldedKey = foldKeyOf(tuple);
+
+    if (slots == null || foldedKey == null)
+      return;
+
+    // A shadowed tuple may now become visible, rebuild on the next lookup
+    if (hasShadowedTuples) {
+      drop();
+      return;
+    }
+
+    boolean marked = isMarked(foldedKey);
+    String slotKey = marked ? stripMarker(foldedKey) : foldedKey;
+    Slot slot = slots.get(slotKey);
+
+    if (slot == null || (marked ? slot.markedTuple : slot.plainTuple) != tuple) {
+      drop();
+      return;
+    }
+
+    if (marked)
+      slot.markedTuple = null;
+    else
+      slot.plainTuple = null;
+
+    if (slot.plainTuple == null && slot.markedTuple == null)
+      slots.remove(slotKey);
+  }
+
+  boolean isBuilt() {
+    return slots != null;
+  }
+
+  private void drop() {
+    this.slots = null;
+    this.hasShadowedTuples = false;
+  }
+
+  private Map<String, Slot> build(List<NodeTuple> tuples) {
+    Map<String, Slot> slots = new HashMap<>(tuples.size() * 4 / 3 + 1);
+    boolean hasShadowedTuples = false;
+
+    for (NodeTuple tuple : tuples) {
+      String foldedKey = foldKeyOf(tuple);
+
+      if (foldedKey == null)
+        continue;
+
+      boolean marked = isMarked(foldedKey);
+      Slot slot = slots.computeIfAbsent(marked ? stripMarker(foldedKey) : foldedKey, k -> new Slot());
+
+      if (marked) {
+        if (slot.markedTuple == null)
+          slot.markedTuple = tuple;
+        else
+          hasShadowedTuples = true;
+        continue;
+      }
+
+      if (slot.plainTuple == null)
+        slot.plainTuple = tuple;
+      else
+        hasShadowedTuples = true;
+    }
+
+    // Concurrent lookups may build at the same time, which is harmless, as their results are equal
+    this.hasShadowedTuples = hasShadowedTuples;
+    this.slots = slots;
+    return slots;
+  }
+
+  private boolean isMarked(String foldedKey) {
+    return foldedMarkerSuffix != null && foldedKey.endsWith(foldedMarkerSuffix);
+  }
+
+  private String stripMarker(String foldedKey) {
+    return foldedKey.substring(0, foldedKey.length() - foldedMarkerSuffix.length());
+  }
+
+  private static @Nullable NodeTuple scanLinearly(List<NodeTuple> tuples, String key) {
+    for (NodeTuple tuple : tuples) {
+      Node keyNode = tuple.getKeyNode();
+
+      // Not a scalar key
+      if (!(keyNode instanceof ScalarNode))
+        continue;
+
+      // Key mismatch
+      if (!((ScalarNode) keyNode).getValue().equalsIgnoreCase(key))
+        continue;
+
+      // Merge keys should never be retrievable and thus be "hidden"
+      if (keyNode.getTag() == Tag.MERGE)
+        continue;
+
+      return tuple;
+    }
+
+    return null;
+  }
+
+  /**
+   * Case-folds the scalar key of a tuple
+   * @param tuple Tuple to fold the key of
+   * @return Folded key, null if the key is not a scalar or a merge key and can thus not be looked up
+   */
+  private static @Nullable String foldKeyOf(NodeTuple tuple) {
+    Node keyNode = tuple.getKeyNode();
+
+    if (!(keyNode instanceof ScalarNode) || keyNode.getTag() == Tag.MERGE)
+      return null;
+
+    return foldCase(((ScalarNode) keyNode).getValue());
+  }
+
+  /**
+   * Folds the case of a string, such that two strings are equal after folding if and
+   * only if they're equal as by {@link String#equalsIgnoreCase(String)}
+   * @param value String to fold
+   * @return Folded string
+   */
+  static String foldCase(String value) {
+    StringBuilder result = null;
+
+    for (int i = 0; i < value.length();) {
+      int codePoint = value.codePointAt(i);
+      int folded = Character.toLowerCase(Character.toUpperCase(codePoint));
+
+      if (folded != codePoint && result == null)
+        result = new StringBuilder(value.length()).append(value, 0, i);
+
+      if (result != null)
+        result.appendCodePoint(folded);
+
+      i += Character.charCount(codePoint);
+    }
+
+    return result == null ? value : result.toString();
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import java.util.*;
+
+/**
+ * Minimal perfect hash function over a fixed set of distinct 64-bit key hashes, which maps each
+ * of them onto a unique slot within [0;n) by the hash-and-displace scheme: keys are distributed
+ * into buckets first, and each bucket is then assigned a seed under which all of it's keys land
+ * on free slots. Buckets with a single key directly store their slot instead. Hashes which are not
+ * part of the set map onto an arbitrary slot, which is why callers have to verify their keys.
+ */
+class MinimalPerfectHash {
+
+  // Buckets of distinct hashes are placed within a few attempts, this bound only guards against endless searches
+  private static final int MAX_SEED = 1 << 24;
+
+  private final int[] seeds;
+  private final int size;
+
+  private MinimalPerfectHash(int[] seeds, int size) {
+    this.seeds = seeds;
+    this.size = size;
+  }
+
+  /**
+   * Builds a function over the provided hashes
+   * @param hashes Hashes of all keys, which have to be distinct
+   * @return Function which maps hashes[i] onto slotOf(hashes[i]), all of which are distinct
+   */
+  static MinimalPerfectHash build(long[] hashes) {
+    int size = hashes.length;
+
+    if (size == 0)
+      return new MinimalPerfectHash(new int[0], 0);
+
+    long[] sortedHashes = hashes.clone();
+    Arrays.sort(sortedHashes);
+
+    for (int i = 1; i < size; i++) {
+      if (sortedHashes[i] == sortedHashes[i - 1])
+        throw new IllegalArgumentException("Encountered the duplicate hash " + Long.toHexString(sortedHashes[i]));
+    }
+
+    List<List<Long>> buckets = new ArrayList<>(size);
+
+    for (int i = 0; i < size; i++)
+      buckets.add(new ArrayList<>(1));
+
+    for (long hash : hashes)
+      buckets.get(bucketOf(hash, size)).add(hash);
+
+    Integer[] bucketOrder = new Integer[size];
+
+    for (int i = 0; i < size; i++)
+      bucketOrder[i] = i;
+
+    // Place the largest buckets first, while most slots are still free
+    Arrays.sort(bucketOrder, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+    int[] seeds = new int[size];
+    boolean[] occupiedSlots = new boolean[size];
+    int[] bucketSlots = new int[size];
+    int orderIndex = 0;
+
+    for (; orderIndex < size; orderIndex++) {
+      List<Long> bucket = buckets.get(bucketOrder[orderIndex]);
+
+      if (bucket.size() <= 1)
+        break;
+
+      seeds[bucketOrder[orderIndex]] = findSeed(bucket, occupiedSlots, bucketSlots, size);
+    }
+
+    int freeSlot = 0;
+
+    for (; orderIndex < size; orderIndex++) {
+      List<Long> bucket = buckets.get(bucketOrder[orderIndex]);
+
+      if (bucket.isEmpty())
+        break;
+
+      while (occupiedSlots[freeSlot])
+        ++freeSlot;
+
+      occupiedSlots[freeSlot] = true;
+
+      // Negative seeds encode the slot of a single-key bucket
+      seeds[bucketOrder[orderIndex]] = -freeSlot - 1;
+    }
+
+    return new MinimalPerfectHash(seeds, size);
+  }
+
+  /**
+   * Get the slot of a hash which has been part of the set this function was built from
+   * @param hash Hash of the key
+   * @return Slot of the key, or an arbitrary slot for unknown hashes, -1 if this function is empty
+   */
+  int slotOf(long hash) {
+    if (size == 0)
+      return -1;
+
+    int seed = seeds[bucketOf(hash, size)];
+
+    if (seed < 0)
+      return -seed - 1;
+
+    return slotOf(hash, seed, size);
+  }
+
+  int size() {
+    return size;
+  }
+
+  private static int findSeed(List<Long> bucket, boolean[] occupiedSlots, int[] bucketSlots, int size) {
+    for (int seed = 1; seed < MAX_SEED; seed++) {
+      int placedKeys = 0;
+
+      for (long hash : bucket) {
+        int slot = slotOf(hash, seed, size);
+
+        if (occupiedSlots[slot])
+          break;
+
+        occupiedSlots[slot] = true;
+        bucketSlots[placedKeys++] = slot;
+      }
+
+      if (placedKeys == bucket.size())
+        return seed;
+
+      // Free all slots which have been claimed by this unsuccessful attempt
+      for (int i = 0; i < placedKeys; i++)
+        occupiedSlots[bucketSlots[i]] = false;
+    }
+
+    throw new IllegalStateException("Could not place a bucket of " + bucket.size() + " keys");
+  }
+
+  private static int bucketOf(long hash, int size) {
+    return (int) Long.remainderUnsigned(hash, size);
+  }
+
+  private static int slotOf(long hash, int seed, int size) {
+    long value = hash ^ (seed * 0x9E3779B97F4A7C15L);
+
+    // Finalizer of MurmurHash3, as the bucket already consumed the hash's lower bits
+    value ^= value >>> 33;
+    value *= 0xFF51AFD7ED558CCDL;
+    value ^= value >>> 33;
+    value *= 0xC4CEB9FE1A85EC53L;
+    value ^= value >>> 33;
+
+    return (int) Long.remainderUnsigned(value, size);
+  }
+}
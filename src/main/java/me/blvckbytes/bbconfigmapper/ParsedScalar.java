@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+/**
+ * Primitive interpretation of a scalar node's value, which is parsed only once per value and then read
+ * without boxing. Values are interpreted just like {@link YamlConfig#get(String)} would unwrap them,
+ * while values which cannot be parsed are not of any primitive type instead of causing an exception.
+ */
+class ParsedScalar {
+
+  private static final int TYPE_NONE = 0;
+  private static final int TYPE_LONG = 1;
+  private static final int TYPE_DOUBLE = 2;
+  private static final int TYPE_BOOLEAN = 3;
+
+  private final String source;
+  private final int type;
+  private final long longValue;
+  private final double doubleValue;
+  private final @Nullable String stringValue;
+
+  private ParsedScalar(String source, int type, long longValue, double doubleValue, @Nullable String stringValue) {
+    this.source = source;
+    this.type = type;
+    this.longValue = longValue;
+    this.doubleValue = doubleValue;
+    this.stringValue = stringValue;
+  }
+
+  /**
+   * Parses the value of a scalar node as by it's tag
+   * @param node Node to parse
+   * @return Parsed value
+   */
+  static ParsedScalar of(ScalarNode node) {
+    Tag tag = node.getTag();
+    String value = node.getValue();
+
+    if (tag == Tag.NULL)
+      return new ParsedScalar(value, TYPE_NONE, 0, 0, null);
+
+    try {
+      if (tag == Tag.INT) {
+        long longValue = Long.parseLong(value);
+        return new ParsedScalar(value, TYPE_LONG, longValue, 0, String.valueOf(longValue));
+      }
+
+      if (tag == Tag.FLOAT) {
+        double doubleValue = Double.parseDouble(value);
+        return new ParsedScalar(value, TYPE_DOUBLE, 0, doubleValue, String.valueOf(doubleValue));
+      }
+    } catch (NumberFormatException e) {
+      return new ParsedScalar(value, TYPE_NONE, 0, 0, value);
+    }
+
+    if (tag == Tag.BOOL) {
+      boolean booleanValue = value.equalsIgnoreCase("true");
+      return new ParsedScalar(value, TYPE_BOOLEAN, booleanValue ? 1 : 0, 0, String.valueOf(booleanValue));
+    }
+
+    return new ParsedScalar(value, TYPE_NONE, 0, 0, value);
+  }
+
+  /**
+   * Checks whether this value has been parsed from the current value of a node, which
+   * is no longer the case once the node's value has been altered in place
+   * @param node Node to check against
+   * @return True if the node still holds the parsed value
+   */
+  boolean isParsedFrom(ScalarNode node) {
+    return source.equals(node.getValue());
+  }
+
+  long getLong(long defaultValue) {
+    return type == TYPE_LONG ? longValue : defaultValue;
+  }
+
+  double getDouble(double defaultValue) {
+    if (type == TYPE_DOUBLE)
+      return doubleValue;
+
+    // Integers widen, just like within columnar tables
+    if (type == TYPE_LONG)
+      return longValue;
+
+    return defaultValue;
+  }
+
+  boolean getBoolean(boolean defaultValue) {
+    return type == TYPE_BOOLEAN ? longValue != 0 : defaultValue;
+  }
+
+  /**
+   * Get the textual value of any non-null scalar, where primitives are formatted as by their parsed value
+   */
+  @Nullable String getString(@Nullable String defaultValue) {
+    return stringValue == null ? defaultValue : stringValue;
+  }
+}
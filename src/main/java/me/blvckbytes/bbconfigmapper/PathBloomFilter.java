@@ -0,0 +1,280 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.nodes.*;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Bloom filter over all key paths of a tree, which tells paths that are definitely absent apart from
+ * those which might exist. Paths are normalized before being hashed: they're trimmed, their case is folded
+ * and an expression marker suffix at the end of any of their segments is stripped, so that all spellings
+ * a path may be resolved by share the same bits. Paths can only ever be added, which is why removed paths
+ * remain as false positives until the filter is rebuilt.
+ * Lookups may occur concurrently, while additions are only to be applied by a single writer without any readers.
+ */
+class PathBloomFilter {
+
+  // About one percent of false positives at capacity
+  private static final int BITS_PER_PATH = 10;
+  private static final int HASH_COUNT = 7;
+  private static final int MIN_CAPACITY = 64;
+
+  private final @Nullable String expressionMarkerSuffix;
+  private final long[] bits;
+  private final long bitMask;
+  private final int capacity;
+  private int insertions;
+
+  // Trees with cyclic aliases have infinitely many paths and can thus not be filtered
+  private boolean disabled;
+
+  private PathBloomFilter(@Nullable String expressionMarkerSuffix, int capacity) {
+    long bitCount = Long.highestOneBit((long) Math.max(capacity, MIN_CAPACITY) * BITS_PER_PATH - 1) << 1;
+
+    this.expressionMarkerSuffix = expressionMarkerSuffix;
+    this.bits = new long[(int) (bitCount >>> 6)];
+    this.bitMask = bitCount - 1;
+    this.capacity = Math.max(capacity, MIN_CAPACITY);
+  }
+
+  private PathBloomFilter(PathBloomFilter source) {
+    this.expressionMarkerSuffix = source.expressionMarkerSuffix;
+    this.bits = source.bits.clone();
+    this.bitMask = source.bitMask;
+    this.capacity = source.capacity;
+    this.insertions = source.insertions;
+    this.disabled = source.disabled;
+  }
+
+  /**
+   * Builds a filter containing all paths of a tree, sized to allow for as many additions later on
+   * @param root Root of the tree, null for an empty filter
+   * @param expressionMarkerSuffix Suffix which marks keys of expressions, if any
+   * @return Filter over all paths
+   */
+  static PathBloomFilter build(@Nullable MappingNode root, @Nullable String expressionMarkerSuffix) {
+    int pathCount = root == null ? 0 : countPaths(root, Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    // Cycles are signalled by a negative count
+    PathBloomFilter filter = new PathBloomFilter(expressionMarkerSuffix, Math.max(pathCount, 0) * 2);
+
+    if (pathCount < 0)
+      filter.disabled = true;
+
+    else if (root != null)
+      filter.addTree(null, root);
+
+    return filter;
+  }
+
+  /**
+   * Creates an independent copy, to be altered while the original is still being read from
+   */
+  PathBloomFilter copy() {
+    return new PathBloomFilter(this);
+  }
+
+  /**
+   * Checks whether a path might exist
+   * @param path Path to check
+   * @return False if the path definitely doesn't exist, true otherwise
+   */
+  boolean mightContain(String path) {
+    if (disabled)
+      return true;
+
+    long hash = hashPath(path, path.length());
+
+    // Malformed paths are to be rejected by a walk
+    if (hash == 0)
+      return true;
+
+    long step = mix(hash);
+
+    for (int i = 0; i < HASH_COUNT; i++) {
+      long bit = (hash + i * step) & bitMask;
+
+      if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0)
+        return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Adds a path as well as all of it's prefixes and all paths within the tree it points at
+   * @param path Path to add
+   * @param value Value node the path points at
+   */
+  void addPath(String path, Node value) {
+    for (int i = path.indexOf('.'); i >= 0; i = path.indexOf('.', i + 1))
+      add(hashPath(path, i));
+
+    add(hashPath(path, path.length()));
+
+    if (value instanceof MappingNode)
+      addTree(path, (MappingNode) value);
+  }
+
+  /**
+   * Whether more paths have been added than the filter has been sized for,
+   * which increases the rate of false positives and calls for a rebuild
+   */
+  boolean isSaturated() {
+    return insertions > capacity;
+  }
+
+  private void addTree(@Nullable String parentPath, MappingNode node) {
+    for (NodeTuple tuple : node.getValue()) {
+      if (!(tuple.getKeyNode() instanceof ScalarNode))
+        continue;
+
+      String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+      String path = parentPath == null ? key : parentPath + "." + key;
+
+      add(hashPath(path, path.length()));
+
+      if (tuple.getValueNode() instanceof MappingNode)
+        addTree(path, (MappingNode) tuple.getValueNode());
+    }
+  }
+
+  private void add(long hash) {
+    if (disabled || hash == 0)
+      return;
+
+    long step = mix(hash);
+
+    for (int i = 0; i < HASH_COUNT; i++) {
+      long bit = (hash + i * step) & bitMask;
+      bits[(int) (bit >>> 6)] |= 1L << bit;
+    }
+
+    ++insertions;
+  }
+
+  /**
+   * Counts the number of paths within a tree, where aliased nodes count once per occurrence
+   * @param node Mapping to count the paths of
+   * @param ancestors Mappings on the way from the root to the current mapping
+   * @return Number of paths, negative if the tree contains a cycle
+   */
+  private static int countPaths(MappingNode node, Set<MappingNode> ancestors) {
+    if (!ancestors.add(node))
+      return -1;
+
+    int count = 0;
+
+    for (NodeTuple tuple : node.getValue()) {
+      if (!(tuple.getKeyNode() instanceof ScalarNode))
+        continue;
+
+      ++count;
+
+      if (!(tuple.getValueNode() instanceof MappingNode))
+        continue;
+
+      int childCount = countPaths((MappingNode) tuple.getValueNode(), ancestors);
+
+      if (childCount < 0)
+        return -1;
+
+      count += childCount;
+    }
+
+    ancestors.remove(node);
+    return count;
+  }
+
+  /**
+   * Hashes the normalized form of a path's prefix without allocating it
+   * @param path Path to hash
+   * @param end End of the prefix to hash, exclusive
+   * @return 64-bit FNV-1a hash of the normalized prefix, zero if it's blank
+   */
+  private long hashPath(String path, int end) {
+    int begin = 0;
+
+    // Keys should never contain any whitespace
+    while (begin < end && Character.isWhitespace(path.charAt(begin)))
+      ++begin;
+
+    while (end > begin && Character.isWhitespace(path.charAt(end - 1)))
+      --end;
+
+    if (begin == end)
+      return 0;
+
+    long hash = 0xCBF29CE484222325L;
+
+    while (true) {
+      int segmentEnd = path.indexOf('.', begin);
+
+      if (segmentEnd < 0 || segmentEnd > end)
+        segmentEnd = end;
+
+      int hashedEnd = segmentEnd;
+
+      // Markers are compared case-insensitively, just like the keys carrying them
+      if (expressionMarkerSuffix != null) {
+        int suffixLength = expressionMarkerSuffix.length();
+
+        if (hashedEnd - begin >= suffixLength && path.regionMatches(true, hashedEnd - suffixLength, expressionMarkerSuffix, 0, suffixLength))
+          hashedEnd -= suffixLength;
+      }
+
+      for (int i = begin; i < hashedEnd;) {
+        int codePoint = path.codePointAt(i);
+        hash = (hash ^ Character.toLowerCase(Character.toUpperCase(codePoint))) * 0x100000001B3L;
+        i += Character.charCount(codePoint);
+      }
+
+      if (segmentEnd == end)
+        break;
+
+      hash = (hash ^ '.') * 0x100000001B3L;
+      begin = segmentEnd + 1;
+    }
+
+    // Zero is reserved for blank paths
+    return hash == 0 ? 1 : hash;
+  }
+
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xFF51AFD7ED558CCDL;
+    value ^= value >>> 33;
+    value *= 0xC4CEB9FE1A85EC53L;
+    value ^= value >>> 33;
+
+    // An odd step visits distinct bits for all probes
+    return value | 1;
+  }
+}
@@ -0,0 +1,405 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded cache which compares it's keys by identity and only holds them weakly, so that
+ * entries of keys which are no longer reachable elsewhere vanish with them. Values must not
+ * reference their key, as it would otherwise be kept alive. The bound applies to the sum of
+ * all entry weights, where each entry weighs one by default.
+ * <p>
+ * Entries are striped across segments by the identity hash of their key, each guarded by a
+ * lock of it's own and bounded by an equal share of the total weight, so that concurrent
+ * readers of different keys rarely contend. Evictions thereby follow the eviction policy
+ * within each segment, which only approximates it across the whole cache. Values computed
+ * on a miss are computed while holding the lock of their segment.
+ */
+class WeakIdentityCache<K, V> {
+
+  private static final int MAX_SEGMENTS = 16;
+
+  // Segments are never bounded by less than this weight, so that small caches keep an exact eviction order
+  private static final long MIN_SEGMENT_WEIGHT = 256;
+
+  private static class WeakKey<K> extends WeakReference<K> {
+
+    private final int hash;
+
+    WeakKey(K referent, ReferenceQueue<K> queue) {
+      super(referent, queue);
+      this.hash = System.identityHashCode(referent);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other)
+        return true;
+
+      // Cleared keys are only ever equal to themselves
+      Object referent = get();
+      return referent != null && other instanceof WeakKey && ((WeakKey<?>) other).get() == referent;
+    }
+  }
+
+  // Used to probe the map without allocating a reference, as the map calls equals on the probe
+  private static class ProbeKey {
+
+    private final Object referent;
+
+    ProbeKey(Object referent) {
+      this.referent = referent;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(referent);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof WeakKey && ((WeakKey<?>) other).get() == referent;
+    }
+  }
+
+  private static class Segment<K, V> {
+
+    private final ReferenceQueue<K> collectedKeys;
+    private final @Nullable ToLongFunction<V> weigher;
+    private final Map<Object, V> entries;
+    private final long maximumWeight;
+    private long totalWeight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    Segment(long maximumWeight, CacheEvictionPolicy evictionPolicy, @Nullable ToLongFunction<V> weigher) {
+      this.collectedKeys = new ReferenceQueue<>();
+      this.weigher = weigher;
+      this.entries = new LinkedHashMap<>(16, .75F, evictionPolicy == CacheEvictionPolicy.LEAST_RECENTLY_USED);
+      this.maximumWeight = maximumWeight;
+    }
+
+    synchronized V computeIfAbsentOrStale(K key, Predicate<V> isStale, Function<K, V> valueFunction) {
+      expungeCollectedKeys();
+
+      V value = entries.get(new ProbeKey(key));
+
+      if (value != null && !isStale.test(value)) {
+        ++hits;
+        return value;
+      }
+
+      ++misses;
+
+      V computedValue = valueFunction.apply(key);
+      store(key, value != null, computedValue);
+      return computedValue;
+    }
+
+    synchronized @Nullable V getUnlessStale(K key, Predicate<V> isStale) {
+      expungeCollectedKeys();
+
+      V value = entries.get(new ProbeKey(key));
+
+      if (value != null && !isStale.test(value)) {
+        ++hits;
+        return value;
+      }
+
+      ++misses;
+      return null;
+    }
+
+    synchronized void put(K key, V value) {
+      expungeCollectedKeys();
+      store(key, entries.containsKey(new ProbeKey(key)), value);
+    }
+
+    synchronized @Nullable V getIfPresent(K key) {
+      expungeCollectedKeys();
+      return entries.get(new ProbeKey(key));
+    }
+
+    synchronized void remove(K key) {
+      expungeCollectedKeys();
+      removeEntry(new ProbeKey(key));
+    }
+
+    synchronized void clear() {
+      expungeCollectedKeys();
+      entries.clear();
+      totalWeight = 0;
+    }
+
+    /**
+     * Moves all entries of keys which are still reachable into other segments, in their current order
+     * @param targetSegments Segments to move the entries into, as selected by their key
+     */
+    synchronized void drainInto(Segment<K, V>[] targetSegments) {
+      for (Map.Entry<Object, V> entry : entries.entrySet()) {
+        @SuppressWarnings("unchecked")
+        K key = ((WeakKey<K>) entry.getKey()).get();
+
+        if (key != null)
+          targetSegments[indexOf(key, targetSegments.length)].put(key, entry.getValue());
+      }
+
+      entries.clear();
+      totalWeight = 0;
+    }
+
+    synchronized void addStatistics(long[] counters) {
+      expungeCollectedKeys();
+      counters[0] += hits;
+      counters[1] += misses;
+      counters[2] += evictions;
+      counters[3] += entries.size();
+      counters[4] += totalWeight;
+    }
+
+    private void store(K key, boolean present, V value) {
+      // Present keys are replaced in place, as their weak key is still registered
+      if (present)
+        totalWeight -= weigh(entries.replace(new ProbeKey(key), value));
+      else
+        entries.put(new WeakKey<>(key, collectedKeys), value);
+
+      totalWeight += weigh(value);
+      evictExcess();
+    }
+
+    private void removeEntry(Object key) {
+      V value = entries.remove(key);
+
+      if (value != null)
+        totalWeight -= weigh(value);
+    }
+
+    private void evictExcess() {
+      Iterator<V> eldestValues = entries.values().iterator();
+
+      // Values heavier than the whole bound still evict all others, but are kept themselves
+      while (totalWeight > maximumWeight && entries.size() > 1) {
+        totalWeight -= weigh(eldestValues.next());
+        eldestValues.remove();
+        ++evictions;
+      }
+    }
+
+    private long weigh(V value) {
+      return weigher == null ? 1 : weigher.applyAsLong(value);
+    }
+
+    private void expungeCollectedKeys() {
+      Object collectedKey;
+
+      while ((collectedKey = collectedKeys.poll()) != null)
+        removeEntry(collectedKey);
+    }
+  }
+
+  private final @Nullable ToLongFunction<V> weigher;
+
+  // Replaced as a whole on reconfiguration, while the counters of retired segments are retained
+  private volatile Segment<K, V>[] segments;
+  private long maximumWeight;
+  private CacheEvictionPolicy evictionPolicy;
+  private final long[] retiredCounters;
+
+  WeakIdentityCache(int maximumSize, CacheEvictionPolicy evictionPolicy) {
+    this(maximumSize, evictionPolicy, null);
+  }
+
+  /**
+   * @param maximumWeight Maximum sum of all entry weights, at least one
+   * @param evictionPolicy Policy deciding on which entry to evict when exceeding the bound
+   * @param weigher Computes the constant, non-negative weight of a value, null to weigh each entry as one
+   */
+  WeakIdentityCache(long maximumWeight, CacheEvictionPolicy evictionPolicy, @Nullable ToLongFunction<V> weigher) {
+    if (maximumWeight < 1)
+      throw new IllegalArgumentException("The maximum size of a cache has to be at least one");
+
+    this.weigher = weigher;
+    this.maximumWeight = maximumWeight;
+    this.evictionPolicy = evictionPolicy;
+    this.retiredCounters = new long[3];
+    this.segments = makeSegments(maximumWeight, evictionPolicy);
+  }
+
+  /**
+   * Get the value of a key, or compute and store it if absent
+   * @param key Key, compared by identity
+   * @param valueFunction Computes the value of an absent key, which is invoked while holding the segment's lock
+   * @return Present or computed value
+   */
+  V computeIfAbsent(K key, Function<K, V> valueFunction) {
+    return computeIfAbsentOrStale(key, value -> false, valueFunction);
+  }
+
+  /**
+   * Get the value of a key, or compute and store it if absent or if the present value is stale
+   * @param key Key, compared by identity
+   * @param isStale Decides whether a present value is no longer to be handed out
+   * @param valueFunction Computes the value of an absent key, which is invoked while holding the segment's lock
+   * @return Present or computed value
+   */
+  V computeIfAbsentOrStale(K key, Predicate<V> isStale, Function<K, V> valueFunction) {
+    return segmentOf(key).computeIfAbsentOrStale(key, isStale, valueFunction);
+  }
+
+  /**
+   * Get the value of a key, if present and not stale, while counting the request within the statistics
+   * @param key Key, compared by identity
+   * @param isStale Decides whether a present value is no longer to be handed out
+   * @return Value if present and not stale, null otherwise
+   */
+  @Nullable V getUnlessStale(K key, Predicate<V> isStale) {
+    return segmentOf(key).getUnlessStale(key, isStale);
+  }
+
+  /**
+   * Store the value of a key, replacing any present value
+   * @param key Key, compared by identity
+   * @param value Value to store
+   */
+  void put(K key, V value) {
+    segmentOf(key).put(key, value);
+  }
+
+  /**
+   * Get the value of a key without computing it or affecting the statistics
+   * @param key Key, compared by identity
+   * @return Value if present, null otherwise
+   */
+  @Nullable V getIfPresent(K key) {
+    return segmentOf(key).getIfPresent(key);
+  }
+
+  void remove(K key) {
+    segmentOf(key).remove(key);
+  }
+
+  void clear() {
+    for (Segment<K, V> segment : segments)
+      segment.clear();
+  }
+
+  /**
+   * Changes the bound and eviction policy, while retaining as many entries as fit; entries
+   * which are stored concurrently to reconfiguring the cache may be lost
+   * @param maximumWeight Maximum sum of all entry weights, at least one
+   * @param evictionPolicy Policy deciding on which entry to evict when exceeding the bound
+   */
+  synchronized void configure(long maximumWeight, CacheEvictionPolicy evictionPolicy) {
+    if (maximumWeight < 1)
+      throw new IllegalArgumentException("The maximum size of a cache has to be at least one");
+
+    Segment<K, V>[] previousSegments = this.segments;
+    Segment<K, V>[] nextSegments = makeSegments(maximumWeight, evictionPolicy);
+
+    long[] previousCounters = new long[5];
+
+    // Re-inserting in the previous order evicts the oldest entries of each segment first
+    for (Segment<K, V> segment : previousSegments) {
+      segment.addStatistics(previousCounters);
+      segment.drainInto(nextSegments);
+    }
+
+    this.retiredCounters[0] += previousCounters[0];
+    this.retiredCounters[1] += previousCounters[1];
+    this.retiredCounters[2] += previousCounters[2];
+
+    this.maximumWeight = maximumWeight;
+    this.evictionPolicy = evictionPolicy;
+    this.segments = nextSegments;
+  }
+
+  synchronized int getMaximumSize() {
+    return (int) Math.min(Integer.MAX_VALUE, maximumWeight);
+  }
+
+  synchronized long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  synchronized CacheEvictionPolicy getEvictionPolicy() {
+    return evictionPolicy;
+  }
+
+  synchronized CacheStatistics getStatistics() {
+    long[] counters = new long[5];
+
+    for (Segment<K, V> segment : segments)
+      segment.addStatistics(counters);
+
+    return new CacheStatistics(
+      retiredCounters[0] + counters[0], retiredCounters[1] + counters[1],
+      retiredCounters[2] + counters[2], (int) counters[3], counters[4]
+    );
+  }
+
+  private Segment<K, V> segmentOf(K key) {
+    Segment<K, V>[] currentSegments = this.segments;
+    return currentSegments[indexOf(key, currentSegments.length)];
+  }
+
+  private static int indexOf(Object key, int numberOfSegments) {
+    int hash = System.identityHashCode(key);
+    return (hash ^ (hash >>> 16)) & (numberOfSegments - 1);
+  }
+
+  private Segment<K, V>[] makeSegments(long maximumWeight, CacheEvictionPolicy evictionPolicy) {
+    int numberOfSegments = 1;
+
+    while (numberOfSegments < MAX_SEGMENTS && maximumWeight / (numberOfSegments * 2L) >= MIN_SEGMENT_WEIGHT)
+      numberOfSegments *= 2;
+
+    @SuppressWarnings("unchecked")
+    Segment<K, V>[] result = new Segment[numberOfSegments];
+    long segmentWeight = (maximumWeight + numberOfSegments - 1) / numberOfSegments;
+
+    for (int i = 0; i < numberOfSegments; i++)
+      result[i] = new Segment<>(segmentWeight, evictionPolicy, weigher);
+
+    return result;
+  }
+}
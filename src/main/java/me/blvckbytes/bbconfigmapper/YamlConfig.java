@@ -27,6 +27,7 @@ package me.blvckbytes.bbconfigmapper;
 import me.blvckbytes.bbconfigmapper.logging.DebugLogSource;
 import me.blvckbytes.gpeee.IExpressionEvaluator;
 import me.blvckbytes.gpeee.Tuple;
+import me.blvckbytes.gpeee.parser.expression.AExpression;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.yaml.snakeyaml.DumperOptions;
@@ -40,11 +41,31 @@ import org.yaml.snakeyaml.nodes.*;
 import org.yaml.snakeyaml.representer.Representer;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * YAML backed configuration, which is safe to be read from concurrently while at most one writer
+ * alters it at a time: lookups and saves share a read lock, while every mutation of the tree
+ * acquires the write lock exclusively.
+ * <p>
+ * Immutable snapshots may be taken by {@link #snapshot()}, which share their tree with this instance.
+ * Once a snapshot has been taken, writers copy every mapping on the path they're about to alter
+ * instead of altering it in place, which keeps all previous snapshots valid without any locking.
+ */
 public class YamlConfig implements IConfig {
 
   private static class LocateNodeResult {
@@ -70,26 +91,289 @@ public class YamlConfig implements IConfig {
     }
   }
 
+  private static class SourceLayout {
+    private final String text;
+    private final List<String> keys;
+    private final int[] regionStarts;
+    private final int suffixStart;
+
+    private SourceLayout(String text, List<String> keys, int[] regionStarts, int suffixStart) {
+      this.text = text;
+      this.keys = keys;
+      this.regionStarts = regionStarts;
+      this.suffixStart = suffixStart;
+    }
+
+    int regionEnd(int index) {
+      return index + 1 < regionStarts.length ? regionStarts[index + 1] : suffixStart;
+    }
+  }
+
+  private static class MemoizedValue {
+    private final Object value;
+    private final boolean markedForExpressions;
+    private final long generation;
+    private final long weight;
+
+    private MemoizedValue(Object value, boolean markedForExpressions, long generation, long weight) {
+      this.value = value;
+      this.markedForExpressions = markedForExpressions;
+      this.generation = generation;
+      this.weight = weight;
+    }
+  }
+
+  private static class ParsedExpression {
+    private final String source;
+    private final AExpression expression;
+
+    private ParsedExpression(String source, AExpression expression) {
+      this.source = source;
+      this.expression = expression;
+    }
+  }
+
+  private static class CursorPosition {
+    private final @Nullable Node node;
+    private final boolean markedForExpressions;
+    private final long modCount;
+
+    private CursorPosition(@Nullable Node node, boolean markedForExpressions, long modCount) {
+      this.node = node;
+      this.markedForExpressions = markedForExpressions;
+      this.modCount = modCount;
+    }
+  }
+
+  private class Cursor implements IConfigCursor {
+    private final @Nullable String path;
+
+    // Replaced as a whole, as cursors may be used by multiple readers at once
+    private volatile CursorPosition position;
+
+    private Cursor(@Nullable String path, CursorPosition position) {
+      this.path = path;
+      this.position = position;
+    }
+
+    /**
+     * Get the current position, while holding the read lock, which is located
+     * again by it's absolute path if the config has been modified meanwhile
+     */
+    private CursorPosition position() {
+      CursorPosition position = this.position;
+      long currentModCount = YamlConfig.this.modCount;
+
+      if (position.modCount == currentModCount)
+        return position;
+
+      LocateNodeResult target = locateNode(path, false, false, false);
+      position = new CursorPosition(target.node, target.markedForExpressions, currentModCount);
+      this.position = position;
+      return position;
+    }
+
+    @Override
+    public @Nullable String getPath() {
+      return path;
+    }
+
+    @Override
+    public boolean isMarkedForExpressions() {
+      acquireReadLock();
+      try {
+        return position().markedForExpressions;
+      } finally {
+        releaseReadLock();
+      }
+    }
+
+    @Override
+    public @Nullable Object get(@Nullable String path) {
+      acquireReadLock();
+      try {
+        CursorPosition position = position();
+
+        if (position.node == null)
+          return null;
+
+        if (path == null)
+          return unwrapNode(position.node, position.markedForExpressions);
+
+        LocateNodeResult target = locateNode(position.node, position.markedForExpressions, requireValidPath(path), false, false, false);
+        return target.node == null ? null : unwrapNode(target.node, target.markedForExpressions);
+      } finally {
+        releaseReadLock();
+      }
+    }
+
+    @Override
+    public boolean exists(@Nullable String path) {
+      acquireReadLock();
+      try {
+        CursorPosition position = position();
+
+        if (position.node == null || path == null)
+          return position.node != null;
+
+        return locateNode(position.node, position.markedForExpressions, requireValidPath(path), true, false, false).node != null;
+      } finally {
+        releaseReadLock();
+      }
+    }
+
+    @Override
+    public @Nullable IConfigCursor child(String path) {
+      acquireReadLock();
+      try {
+        CursorPosition position = position();
+
+        if (position.node == null)
+          return null;
+
+        path = requireValidPath(path);
+        LocateNodeResult target = locateNode(position.node, position.markedForExpressions, path, false, false, false);
+
+        if (target.node == null)
+          return null;
+
+        return new Cursor(joinPath(path), new CursorPosition(target.node, target.markedForExpressions, position.modCount));
+      } finally {
+        releaseReadLock();
+      }
+    }
+
+    @Override
+    public void iterate(FConfigCursorConsumer consumer) {
+      List<String> keys = new ArrayList<>();
+      List<Cursor> cursors = new ArrayList<>();
+
+      acquireReadLock();
+      try {
+        CursorPosition position = position();
+
+        if (!(position.node instanceof MappingNode))
+          return;
+
+        for (NodeTuple tuple : ((MappingNode) position.node).getValue()) {
+          if (!(tuple.getKeyNode() instanceof ScalarNode) || tuple.getKeyNode().getTag() == Tag.MERGE)
+            continue;
+
+          String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+
+          // Keys containing the separator cannot be located again
+          if (key.indexOf('.') >= 0)
+            continue;
+
+          boolean marked = expressionMarkerSuffix != null && key.endsWith(expressionMarkerSuffix);
+
+          keys.add(marked ? key.substring(0, key.length() - expressionMarkerSuffix.length()) : key);
+          cursors.add(new Cursor(joinPath(key), new CursorPosition(
+            tuple.getValueNode(), position.markedForExpressions || marked, position.modCount
+          )));
+        }
+      } finally {
+        releaseReadLock();
+      }
+
+      // Consumers may modify the config, which requires the read lock to have been released
+      for (int i = 0; i < keys.size(); i++)
+        consumer.accept(keys.get(i), cursors.get(i));
+    }
+
+    private String joinPath(String relativePath) {
+      return path == null ? relativePath : path + "." + relativePath;
+    }
+
+    @Override
+    public String toString() {
+      return "Cursor{" +
+        "path='" + path + '\'' +
+        '}';
+    }
+  }
+
   /*
     TODO: Add more debug logging calls to capture all details
    */
 
-  private static final Yaml YAML;
+  private static final YamlEnginePool YAML_ENGINES;
+  private static final LoaderOptions LOADER_OPTIONS;
   private static final DumperOptions DUMPER_OPTIONS;
 
+  private static final int DEFAULT_KEY_CACHE_SIZE = 4096;
+  private static final int DEFAULT_SCALAR_CACHE_SIZE = 16384;
+  private static final int DEFAULT_EXPRESSION_CACHE_SIZE = 4096;
+
   private final @Nullable IExpressionEvaluator evaluator;
+  private final @Nullable ExpressionInternTable expressionTable;
   private final Logger logger;
   private final @Nullable String expressionMarkerSuffix;
-  private final Map<MappingNode, Map<String, @Nullable NodeTuple>> locateKeyCache;
-  private final List<MergedNodeTuple> mergedTuples;
+  private final WeakIdentityCache<MappingNode, MappingKeyIndex> locateKeyCache;
+
+  // Scalar values may be altered in place by the pre-processor, which is why parsed values as well
+  // as parsed expressions remember their source and are replaced as soon as it no longer matches
+  private final WeakIdentityCache<ScalarNode, ParsedScalar> parsedScalarCache;
+  private final WeakIdentityCache<ScalarNode, ParsedExpression> parsedExpressionCache;
+
+  // Indices which have been set up within an older generation are stale and replaced lazily on their next lookup
+  private volatile long keyIndexGeneration;
+
+  // Read-only unwrapped values of non-shared collection nodes, bounded by their estimated size in bytes,
+  // which are only memoized once a budget has been set; values of an older generation are stale
+  private final WeakIdentityCache<Node, MemoizedValue> memoizedValues;
+  private volatile boolean memoizeValues;
+  private volatile long memoizedValueGeneration;
+
+  // Filter over all paths of the tree, which is shared with snapshots until the next addition
+  private PathBloomFilter pathFilter;
+  private boolean pathFilterShared;
+  private final ReadWriteLock lock;
+
+  // Tuples which have been added to their destination by a merge key and are thus not to be saved
+  // This set is never altered once it has been populated, but rather replaced, as snapshots share it
+  private Set<NodeTuple> mergedTuples;
+
+  // Snapshots are frozen instances which share their tree with the instance they've been taken of
+  private final boolean frozen;
+
+  // Nodes which have been created since the last snapshot and may thus be altered in
+  // place, where null means that no snapshot shares any node of the current tree
+  private @Nullable Set<Node> ownedNodes;
+
+  // Non-scalar nodes which are referenced from multiple places within the tree, as anchors are
+  // resolved to the very same node instance, as well as their unwrapped values by expression marking
+  // Nodes compare by identity, which is why they're safe to be used as keys of concurrent maps
+  // The set of shared nodes is replaced on load, as snapshots keep on referencing their version
+  private Set<Node> sharedNodes;
+  private final Map<Node, Object> sharedPlainValues;
+  private final Map<Node, Object> sharedExpressionValues;
+  private final Set<Object> sharedValues;
 
   private MappingNode rootNode;
   private String header;
 
+  // Number of modifications of the tree, which is only ever incremented while holding the write lock
+  private volatile long modCount;
+
+  // State of the last save to a file, which decides whether the next one can be skipped
+  private final Object fileSaveLock = new Object();
+  private @Nullable Path savedPath;
+  private long savedModCount;
+  private @Nullable byte[] savedDigest;
+
+  private final List<FConfigChangeListener> changeListeners;
+
+  // Text of the last load and the regions of it's root-level keys, which allows to only re-render the
+  // keys which changed since then; null if incremental saving is disabled or the root has been replaced
+  private volatile boolean incrementalSave;
+  private @Nullable SourceLayout sourceLayout;
+  private final Set<String> changedRootKeys;
+
   static {
-    LoaderOptions loaderOptions = new LoaderOptions();
-    loaderOptions.setProcessComments(true);
-    loaderOptions.setAllowDuplicateKeys(true);
+    LOADER_OPTIONS = new LoaderOptions();
+    LOADER_OPTIONS.setProcessComments(true);
+    LOADER_OPTIONS.setAllowDuplicateKeys(true);
 
     DUMPER_OPTIONS = new DumperOptions();
     DUMPER_OPTIONS.setProcessComments(true);
@@ -97,15 +381,144 @@ public class YamlConfig implements IConfig {
     DUMPER_OPTIONS.setAnchorGenerator(Node::getAnchor);
     DUMPER_OPTIONS.setSplitLines(false);
 
-    YAML = new Yaml(new Constructor(loaderOptions), new Representer(DUMPER_OPTIONS), DUMPER_OPTIONS, loaderOptions);
+    // Options are only ever read from, which is why all engines may share them
+    YAML_ENGINES = new YamlEnginePool(
+      () -> new Yaml(new Constructor(LOADER_OPTIONS), new Representer(DUMPER_OPTIONS), DUMPER_OPTIONS, LOADER_OPTIONS),
+      Runtime.getRuntime().availableProcessors()
+    );
   }
 
   public YamlConfig(@Nullable IExpressionEvaluator evaluator, Logger logger, @Nullable String expressionMarkerSuffix) {
     this.evaluator = evaluator;
+    this.expressionTable = evaluator == null ? null : ExpressionInternTable.of(evaluator);
     this.logger = logger;
     this.expressionMarkerSuffix = expressionMarkerSuffix;
-    this.locateKeyCache = new HashMap<>();
-    this.mergedTuples = new ArrayList<>();
+    this.locateKeyCache = new WeakIdentityCache<>(DEFAULT_KEY_CACHE_SIZE, CacheEvictionPolicy.LEAST_RECENTLY_USED);
+    this.parsedScalarCache = new WeakIdentityCache<>(DEFAULT_SCALAR_CACHE_SIZE, CacheEvictionPolicy.LEAST_RECENTLY_USED);
+    this.parsedExpressionCache = new WeakIdentityCache<>(DEFAULT_EXPRESSION_CACHE_SIZE, CacheEvictionPolicy.LEAST_RECENTLY_USED);
+    this.memoizedValues = new WeakIdentityCache<>(1, CacheEvictionPolicy.LEAST_RECENTLY_USED, value -> value.weight);
+    this.mergedTuples = Collections.newSetFromMap(new IdentityHashMap<>());
+    this.lock = new ReentrantReadWriteLock();
+    this.frozen = false;
+    this.sharedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+    this.sharedPlainValues = new ConcurrentHashMap<>();
+    this.sharedExpressionValues = new ConcurrentHashMap<>();
+    this.sharedValues = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    this.changeListeners = new CopyOnWriteArrayList<>();
+    this.changedRootKeys = new HashSet<>();
+    this.pathFilter = PathBloomFilter.build(null, expressionMarkerSuffix);
+  }
+
+  /**
+   * Creates a frozen snapshot of the current state of the provided config, sharing it's tree
+   * @param source Config to take a snapshot of, which has to hold it's write lock
+   */
+  private YamlConfig(YamlConfig source) {
+    this.evaluator = source.evaluator;
+    this.expressionTable = source.expressionTable;
+    this.logger = source.logger;
+    this.expressionMarkerSuffix = source.expressionMarkerSuffix;
+    this.locateKeyCache = new WeakIdentityCache<>(source.locateKeyCache.getMaximumSize(), source.locateKeyCache.getEvictionPolicy());
+    // Parsed values are validated against their node on every read, which is why snapshots share them
+    this.parsedScalarCache = source.parsedScalarCache;
+    this.parsedExpressionCache = source.parsedExpressionCache;
+    // Memoized values are invalidated by generations of the source, which is why snapshots start out empty
+    this.memoizedValues = new WeakIdentityCache<>(source.memoizedValues.getMaximumWeight(), CacheEvictionPolicy.LEAST_RECENTLY_USED, value -> value.weight);
+    this.memoizeValues = source.memoizeValues;
+    this.mergedTuples = source.mergedTuples;
+    this.lock = new ReentrantReadWriteLock();
+    this.frozen = true;
+    this.sharedNodes = source.sharedNodes;
+    this.sharedPlainValues = new ConcurrentHashMap<>();
+    this.sharedExpressionValues = new ConcurrentHashMap<>();
+    this.sharedValues = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    this.rootNode = source.rootNode;
+    this.header = source.header;
+    this.changeListeners = new CopyOnWriteArrayList<>();
+    this.changedRootKeys = new HashSet<>();
+    this.pathFilter = source.pathFilter;
+    source.pathFilterShared = true;
+  }
+
+  /**
+   * Takes an immutable snapshot of the current state of this config in constant time, as the snapshot
+   * shares it's tree with this instance. All subsequent changes of this instance are applied by copying
+   * the altered paths, so that the snapshot remains unaffected. Trees containing aliases are copied as a whole on
+   * the first change instead, as their aliased nodes are reachable by further paths. Snapshots can be read from without
+   * locking, while all of their mutating operations throw an {@link UnsupportedOperationException}.
+   * Note that nodes altered by directly accessing {@link #getRootNode()} are not subject to copying.
+   * @return Immutable snapshot of this config
+   */
+  public YamlConfig snapshot() {
+    if (frozen)
+      return this;
+
+    lock.writeLock().lock();
+    try {
+      logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Taking a snapshot of the current tree");
+
+      // All nodes of the current tree are now shared with the snapshot
+      this.ownedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+      return new YamlConfig(this);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Freezes the current state of this config into an immutable, read-only view, which resolves every path by a
+   * single hash lookup instead of walking the tree. All resolvable paths are flattened into a perfect-hash table
+   * of values which have been unwrapped ahead of time, so that each call hands out the very same unmodifiable
+   * instance. Freezing takes time and memory proportional to the number of paths, while the frozen view is
+   * safe to share across threads. Subsequent changes of this instance do not affect the view.
+   * @return Immutable view of the current state
+   */
+  public IConfig freeze() {
+    YamlConfig snapshot = snapshot();
+    FrozenYamlConfig frozenConfig = FrozenYamlConfig.of(snapshot);
+
+    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Froze the current tree into " + frozenConfig.getPathCount() + " paths");
+
+    return frozenConfig;
+  }
+
+  /**
+   * Register a listener which is notified about every modification made by {@link #set},
+   * {@link #remove}, {@link #attachComment} and {@link #extendMissingKeys}, but not by loading
+   * @param listener Listener to register
+   */
+  public void addChangeListener(FConfigChangeListener listener) {
+    changeListeners.add(listener);
+  }
+
+  public void removeChangeListener(FConfigChangeListener listener) {
+    changeListeners.remove(listener);
+  }
+
+  private void notifyChangeListeners(@Nullable String path) {
+    for (FConfigChangeListener listener : changeListeners)
+      listener.onChange(this, path);
+  }
+
+  public boolean isSnapshot() {
+    return frozen;
+  }
+
+  private void requireMutable() {
+    if (frozen)
+      throw new UnsupportedOperationException("Snapshots of a config are immutable");
+  }
+
+  // Snapshots are never written to, so there's no need to coordinate their readers
+
+  private void acquireReadLock() {
+    if (!frozen)
+      lock.readLock().lock();
+  }
+
+  private void releaseReadLock() {
+    if (!frozen)
+      lock.readLock().unlock();
   }
 
   public @Nullable String getExpressionMarkerSuffix() {
@@ -121,28 +534,463 @@ public class YamlConfig implements IConfig {
   }
 
   public void clearKeyCache() {
-    this.locateKeyCache.clear();
+    requireMutable();
+
+    lock.writeLock().lock();
+    try {
+      ++this.keyIndexGeneration;
+      ++this.memoizedValueGeneration;
+      rebuildPathFilter();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Bounds the number of mapping nodes which retain an index of their keys. Nodes are only referenced
+   * weakly, so that indices of nodes which have been replaced or unloaded vanish with them, while the
+   * bound limits the memory spent on nodes which remain part of the tree.
+   * @param maximumSize Maximum number of indexed nodes, at least one
+   * @param evictionPolicy Policy deciding on which index to drop when exceeding the bound
+   */
+  public void configureKeyCache(int maximumSize, CacheEvictionPolicy evictionPolicy) {
+    this.locateKeyCache.configure(maximumSize, evictionPolicy);
+  }
+
+  /**
+   * Get the counters of the key cache, where each hit is a lookup within
+   * an already known node and each miss had to set up a new index
+   */
+  public CacheStatistics getKeyCacheStatistics() {
+    return this.locateKeyCache.getStatistics();
+  }
+
+  /**
+   * Bounds the number of scalar nodes which retain their parsed value for the typed getters
+   * @param maximumSize Maximum number of parsed scalars, at least one
+   * @param evictionPolicy Policy deciding on which value to drop when exceeding the bound
+   */
+  public void configureScalarCache(int maximumSize, CacheEvictionPolicy evictionPolicy) {
+    this.parsedScalarCache.configure(maximumSize, evictionPolicy);
+  }
+
+  public CacheStatistics getScalarCacheStatistics() {
+    return this.parsedScalarCache.getStatistics();
+  }
+
+  /**
+   * Bounds the number of scalar nodes which retain their parsed and optimized expression, so
+   * that repeated reads of expression-marked values don't have to invoke the evaluator again
+   * @param maximumSize Maximum number of parsed expressions, at least one
+   * @param evictionPolicy Policy deciding on which expression to drop when exceeding the bound
+   */
+  public void configureExpressionCache(int maximumSize, CacheEvictionPolicy evictionPolicy) {
+    this.parsedExpressionCache.configure(maximumSize, evictionPolicy);
+  }
+
+  public CacheStatistics getExpressionCacheStatistics() {
+    return this.parsedExpressionCache.getStatistics();
+  }
+
+  /**
+   * Enables memoizing the unwrapped values of maps and lists, so that repeated reads of unaltered subtrees
+   * hand out the very same value instead of unwrapping it again. Memoized values are read-only, which is
+   * why all maps and lists handed out by {@link #get} are unmodifiable while enabled. A value is dropped as
+   * soon as it's subtree is altered by setting, removing or extending missing keys, as well as on loading.
+   * The budget is compared against an estimate of the memory held by the values, where values exceeding
+   * it evict the least recently read ones. Modifications applied by directly accessing {@link #getRootNode()}
+   * require a call to {@link #clearKeyCache()}, as for indices.
+   * @param maximumBytes Estimated number of bytes to spend on memoized values at most, zero to disable
+   */
+  public void setValueCacheBudget(long maximumBytes) {
+    if (maximumBytes < 0)
+      throw new IllegalArgumentException("The value cache budget cannot be negative");
+
+    lock.writeLock().lock();
+    try {
+      logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Setting the value cache budget to " + maximumBytes + " bytes");
+
+      this.memoizeValues = maximumBytes > 0;
+
+      if (maximumBytes == 0) {
+        this.memoizedValues.clear();
+        return;
+      }
+
+      this.memoizedValues.configure(maximumBytes, CacheEvictionPolicy.LEAST_RECENTLY_USED);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Get the counters of the value cache, where the weight is the estimated number of bytes held
+   */
+  public CacheStatistics getValueCacheStatistics() {
+    return this.memoizedValues.getStatistics();
+  }
+
+  /**
+   * Enables or disables incremental saving, which takes effect as of the next load. When enabled,
+   * the loaded text is retained, and saving only re-renders root-level keys which have been modified
+   * since, while copying all other regions of the text as they were, including their formatting.
+   * Whenever the set or order of root-level keys changed, or the tree contains aliases or merge keys,
+   * the whole tree is rendered as usual. Modifications applied by directly accessing {@link #getRootNode()}
+   * are not detected and thus not saved incrementally.
+   * @param enabled Whether to save incrementally
+   */
+  public void setIncrementalSave(boolean enabled) {
+    this.incrementalSave = enabled;
   }
 
   public void load(Reader reader) {
-    Iterator<Node> nodes = YAML.composeAll(reader).iterator();
+    load(reader, null);
+  }
+
+  /**
+   * Loads a config file, while skipping parsing entirely if the cache file holds the tree which
+   * has been composed from the very same content before. Otherwise, the file is parsed as usual
+   * and the resulting tree is written to the cache file, which is keyed by the content's hash.
+   * The cache is bypassed while incremental saving is enabled, as it doesn't hold the text.
+   * @param source Path of the config file
+   * @param cacheFile Path of the cache file, which doesn't need to exist yet
+   * @throws IOException If the config file could not be read
+   */
+  public void load(Path source, Path cacheFile) throws IOException {
+    requireMutable();
+
+    byte[] content = Files.readAllBytes(source);
+    boolean useCache = !incrementalSave;
+    byte[] contentHash = makeContentDigest(content);
+
+    if (useCache) {
+      ComposedTreeCache.CachedTree cachedTree = null;
+
+      try {
+        cachedTree = ComposedTreeCache.read(cacheFile, contentHash);
+      } catch (IOException e) {
+        logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Could not read the cache file " + cacheFile + ": " + e);
+      }
+
+      if (cachedTree != null) {
+        logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Loaded the tree of " + source + " from the cache file " + cacheFile);
+
+        lock.writeLock().lock();
+        try {
+          this.rootNode = cachedTree.root;
+          this.mergedTuples = cachedTree.mergedTuples;
+          this.header = cachedTree.header;
+          onRootReplaced(null);
+        } finally {
+          lock.writeLock().unlock();
+        }
+
+        return;
+      }
+    }
+
+    byte[] encodedTree = load(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8), useCache ? contentHash : null);
+
+    if (encodedTree == null)
+      return;
+
+    // The cache is only an optimization, which is why failing to write it doesn't fail loading
+    try {
+      writeAtomically(cacheFile, encodedTree);
+    } catch (IOException e) {
+      logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Could not write the cache file " + cacheFile + ": " + e);
+    }
+  }
+
+  /**
+   * Parses the provided text and replaces the current tree by the result
+   * @param reader Reader of the text
+   * @param cacheHash Hash of the text if the resulting tree is to be encoded for caching, null otherwise
+   * @return Encoded tree, if requested
+   */
+  private @Nullable byte[] load(Reader reader, @Nullable byte[] cacheHash) {
+    requireMutable();
+
+    // The text is only retained if needed, as it doubles the memory footprint of the config
+    String text = null;
+
+    if (incrementalSave) {
+      try {
+        text = readFully(reader);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
 
-    Node root = nodes.hasNext() ? nodes.next() : createNewMappingNode(null);
+      reader = new StringReader(text);
+    }
+
+    // Composing doesn't touch this instance's state, so there's no need to block readers meanwhile
+    Node root;
+    Yaml engine = YAML_ENGINES.borrow();
+
+    // Nodes are composed lazily while iterating, so the engine is only released after
+    try {
+      Iterator<Node> nodes = engine.composeAll(reader).iterator();
+
+      root = nodes.hasNext() ? nodes.next() : createNewMappingNode(null);
 
-    if (nodes.hasNext())
-      throw new IllegalStateException("Encountered multiple nodes");
+      if (nodes.hasNext())
+        throw new IllegalStateException("Encountered multiple nodes");
+    } finally {
+      YAML_ENGINES.release(engine);
+    }
 
     if (!(root instanceof MappingNode))
       throw new IllegalStateException("The top level of a config has to be a map.");
 
     logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Successfully loaded the YAML root node using the provided reader");
 
-    // Swap out root node and execute standard loading routines
-    this.rootNode = (MappingNode) root;
-    this.mergedTuples.clear();
-    extractHeader();
-    processMergeKeys(this.rootNode);
-    this.locateKeyCache.clear();
+    lock.writeLock().lock();
+    try {
+      // Swap out root node and execute standard loading routines
+      this.rootNode = (MappingNode) root;
+      this.mergedTuples = Collections.newSetFromMap(new IdentityHashMap<>());
+      extractHeader();
+      processMergeKeys(this.rootNode);
+      onRootReplaced(text);
+
+      // Encoded while still holding the lock, as the cached tree has to match the text exactly
+      return cacheHash == null ? null : ComposedTreeCache.encode(cacheHash, this.rootNode, this.header, this.mergedTuples);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Resets all state which depends on the tree after a new root has been loaded, while holding the write lock
+   * @param text Text the root has been composed from, if retained for incremental saving
+   */
+  private void onRootReplaced(@Nullable String text) {
+    this.ownedNodes = null;
+    ++this.keyIndexGeneration;
+    ++this.memoizedValueGeneration;
+    rebuildPathFilter();
+    this.sharedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+    collectSharedNodes(this.rootNode, Collections.newSetFromMap(new IdentityHashMap<>()));
+    invalidateSharedValues();
+    this.sourceLayout = text == null ? null : makeSourceLayout(text);
+    this.changedRootKeys.clear();
+    ++this.modCount;
+  }
+
+  private static String readFully(Reader reader) throws IOException {
+    StringBuilder result = new StringBuilder();
+    char[] buffer = new char[8192];
+    int length;
+
+    while ((length = reader.read(buffer)) >= 0)
+      result.append(buffer, 0, length);
+
+    return result.toString();
+  }
+
+  /**
+   * Determine the region of text which each root-level key occupies, where a region starts at the
+   * line of the key's first block comment and ends where the next region starts. The trailing
+   * comments of the document as well as the header are kept apart from these regions.
+   * @param text Text the current root node has been composed from
+   * @return Layout of the text, null if it's regions could not be determined unambiguously
+   */
+  private @Nullable SourceLayout makeSourceLayout(String text) {
+    List<NodeTuple> tuples = this.rootNode.getValue();
+
+    if (tuples.isEmpty())
+      return null;
+
+    // Marks count code points, which only differ from char indices if there are surrogate pairs
+    boolean hasSurrogates = text.length() != text.codePointCount(0, text.length());
+
+    List<String> keys = new ArrayList<>(tuples.size());
+    int[] regionStarts = new int[tuples.size()];
+
+    for (int i = 0; i < tuples.size(); i++) {
+      Node key = tuples.get(i).getKeyNode();
+
+      if (!(key instanceof ScalarNode))
+        return null;
+
+      int start = key.getStartMark().getIndex();
+      List<CommentLine> blockComments = key.getBlockComments();
+
+      if (blockComments != null) {
+        for (CommentLine comment : blockComments) {
+          if (comment.getStartMark() != null)
+            start = Math.min(start, comment.getStartMark().getIndex());
+        }
+      }
+
+      start = lineStartOf(text, hasSurrogates ? text.offsetByCodePoints(0, start) : start);
+
+      if (i > 0 && start <= regionStarts[i - 1])
+        return null;
+
+      keys.add(((ScalarNode) key).getValue());
+      regionStarts[i] = start;
+    }
+
+    int suffixStart = text.length();
+    List<CommentLine> endComments = this.rootNode.getEndComments();
+
+    if (endComments != null) {
+      for (CommentLine comment : endComments) {
+        if (comment.getStartMark() == null)
+          continue;
+
+        int index = comment.getStartMark().getIndex();
+        suffixStart = Math.min(suffixStart, lineStartOf(text, hasSurrogates ? text.offsetByCodePoints(0, index) : index));
+      }
+    }
+
+    if (suffixStart <= regionStarts[regionStarts.length - 1])
+      return null;
+
+    return new SourceLayout(text, keys, regionStarts, suffixStart);
+  }
+
+  private static int lineStartOf(String text, int index) {
+    return text.lastIndexOf('\n', index - 1) + 1;
+  }
+
+  /**
+   * Remember a modification of the tree for incremental saving
+   * @param path Modified path, null if the whole tree has been affected
+   */
+  private void trackChangedPath(@Nullable String path) {
+    if (this.sourceLayout == null)
+      return;
+
+    if (path == null) {
+      this.sourceLayout = null;
+      return;
+    }
+
+    String trimmedPath = path.trim();
+    int dotIndex = trimmedPath.indexOf('.');
+
+    this.changedRootKeys.add(foldRootKey(dotIndex < 0 ? trimmedPath : trimmedPath.substring(0, dotIndex)));
+  }
+
+  /**
+   * Folds a root-level key just like lookups do, as paths may address keys in any case
+   * @param key Root-level key, either as written within a path or as loaded
+   * @return Folded key without it's expression marker
+   */
+  private String foldRootKey(String key) {
+    String foldedKey = MappingKeyIndex.foldCase(key);
+
+    if (expressionMarkerSuffix == null)
+      return foldedKey;
+
+    String foldedSuffix = MappingKeyIndex.foldCase(expressionMarkerSuffix);
+
+    if (foldedKey.endsWith(foldedSuffix))
+      return foldedKey.substring(0, foldedKey.length() - foldedSuffix.length());
+
+    return foldedKey;
+  }
+
+  /**
+   * Renders the tree by copying the loaded text of each unchanged root-level key and only
+   * re-rendering the changed keys, while holding the read lock
+   * @param layout Layout of the loaded text
+   * @return Rendered text, null if the tree cannot be rendered incrementally
+   */
+  private @Nullable String renderIncrementally(SourceLayout layout) {
+    if (!sharedNodes.isEmpty() || !mergedTuples.isEmpty())
+      return null;
+
+    List<NodeTuple> tuples = this.rootNode.getValue();
+
+    if (tuples.size() != layout.keys.size())
+      return null;
+
+    for (int i = 0; i < tuples.size(); i++) {
+      Node key = tuples.get(i).getKeyNode();
+
+      if (!(key instanceof ScalarNode) || !((ScalarNode) key).getValue().equals(layout.keys.get(i)))
+        return null;
+    }
+
+    StringBuilder result = new StringBuilder(layout.text.length());
+    result.append(layout.text, 0, layout.regionStarts[0]);
+
+    for (int i = 0; i < tuples.size(); i++) {
+      if (!changedRootKeys.contains(foldRootKey(layout.keys.get(i)))) {
+        result.append(layout.text, layout.regionStarts[i], layout.regionEnd(i));
+        continue;
+      }
+
+      List<NodeTuple> singleTuple = new ArrayList<>(1);
+      singleTuple.add(tuples.get(i));
+
+      result.append(render(createNewMappingNode(singleTuple)));
+    }
+
+    result.append(layout.text, layout.suffixStart, layout.text.length());
+    return result.toString();
+  }
+
+  /**
+   * Collect all non-scalar nodes which are reachable by more than one path, which occurs
+   * when anchors are aliased or when merge keys add a source's value to a destination
+   * @param node Node to start collecting at
+   * @param visitedNodes Nodes which have already been visited
+   */
+  private void collectSharedNodes(Node node, Set<Node> visitedNodes) {
+    if (node instanceof ScalarNode)
+      return;
+
+    // Already visited, which means that this node is shared; there's
+    // no need to visit it's children, as they have already been collected
+    if (!visitedNodes.add(node)) {
+      sharedNodes.add(node);
+      return;
+    }
+
+    if (node instanceof MappingNode) {
+      for (NodeTuple tuple : ((MappingNode) node).getValue())
+        collectSharedNodes(tuple.getValueNode(), visitedNodes);
+      return;
+    }
+
+    if (node instanceof SequenceNode) {
+      for (Node item : ((SequenceNode) node).getValue())
+        collectSharedNodes(item, visitedNodes);
+    }
+  }
+
+  /**
+   * Invalidate all previously unwrapped values of shared nodes, which needs
+   * to be called whenever the tree has been altered in any way
+   */
+  private void invalidateSharedValues() {
+    this.sharedPlainValues.clear();
+    this.sharedExpressionValues.clear();
+    this.sharedValues.clear();
+  }
+
+  /**
+   * Drops the memoized values of all mappings on the way to a just altered path, while holding the write lock
+   * @param path Altered path, null if the altered paths are unknown
+   */
+  private void invalidateMemoizedValues(@Nullable String path) {
+    if (!memoizeValues)
+      return;
+
+    // Aliased and merged nodes are reachable by multiple paths, which makes their ancestors unknown
+    if (path == null || !sharedNodes.isEmpty() || !mergedTuples.isEmpty()) {
+      ++this.memoizedValueGeneration;
+      return;
+    }
+
+    // Mappings altered in place are still on the way, while claimed copies have never been memoized
+    for (MappingNode container : locateNode(path, false, false, false).containerStack)
+      memoizedValues.remove(container);
   }
 
   private void processMergeKeys(MappingNode node) {
@@ -209,16 +1057,10 @@ public class YamlConfig implements IConfig {
 
       if (valueAbsent) {
         NodeTuple tuple = new NodeTuple(sourceKey, sourceValue);
-        MergedNodeTuple mergedTuple = new MergedNodeTuple(
-          tuple,
-          () -> destinationTuples.add(tuple),
-          () -> destinationTuples.remove(tuple)
-        );
 
-        mergedTuples.add(mergedTuple);
-
-        // Initially call the add routine
-        mergedTuple.addRoutine.run();
+        // Merging only occurs while loading, before the set of merged tuples is shared with any snapshot
+        mergedTuples.add(tuple);
+        destinationTuples.add(tuple);
       }
     }
   }
@@ -285,32 +1127,262 @@ public class YamlConfig implements IConfig {
   public void save(Writer writer) throws IOException {
     logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Serializing the YAML root node to the provided writer");
 
-    if (this.rootNode == null || this.rootNode.getValue().size() == 0) {
-      writer.write("");
+    // Merged tuples are filtered out on a copy, so the tree remains untouched while saving
+    acquireReadLock();
+    try {
+      if (this.rootNode == null || this.rootNode.getValue().size() == 0) {
+        writer.write("");
+        return;
+      }
+
+      SourceLayout layout = this.sourceLayout;
+      String incrementalText = layout == null ? null : renderIncrementally(layout);
+
+      if (incrementalText != null) {
+        logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Re-rendered " + changedRootKeys.size() + " changed root keys");
+        writer.write(incrementalText);
+        return;
+      }
+
+      writer.write(this.header);
+      writer.write(render(this.rootNode));
+    } finally {
+      releaseReadLock();
+    }
+  }
+
+  /**
+   * Saves this config to a file, but only if it has been modified since the last save to the same
+   * file and the serialized content differs from what has been written previously. The content is
+   * written to a temporary file within the same directory, which is synced to disk and then moved
+   * into place atomically, so that the target never holds a partially written config.
+   * @param path Path of the file to save to
+   * @return True if the file has been written, false if the write was skipped
+   */
+  public boolean save(Path path) throws IOException {
+    Path target = path.toAbsolutePath().normalize();
+
+    synchronized (fileSaveLock) {
+      boolean isSameTarget = target.equals(savedPath) && Files.isRegularFile(target);
+
+      // Capture the number of modifications before serializing, as to not miss out on concurrent ones
+      long currentModCount = this.modCount;
+
+      if (isSameTarget && currentModCount == savedModCount) {
+        logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Skipped saving to " + target + ", as nothing changed");
+        return false;
+      }
+
+      StringWriter writer = new StringWriter();
+      save(writer);
+
+      byte[] content = writer.toString().getBytes(StandardCharsets.UTF_8);
+      byte[] digest = makeContentDigest(content);
+
+      if (isSameTarget && Arrays.equals(digest, savedDigest)) {
+        logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Skipped saving to " + target + ", as the content didn't change");
+        this.savedModCount = currentModCount;
+        return false;
+      }
+
+      writeAtomically(target, content);
+
+      this.savedPath = target;
+      this.savedModCount = currentModCount;
+      this.savedDigest = digest;
+
+      logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Saved " + content.length + " bytes to " + target);
+      return true;
+    }
+  }
+
+  /**
+   * Checks whether this config has been modified since it's last save to a file
+   */
+  public boolean isDirty() {
+    synchronized (fileSaveLock) {
+      return savedPath == null || modCount != savedModCount;
+    }
+  }
+
+  private static byte[] makeContentDigest(byte[] content) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(content);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Could not access the SHA-256 algorithm", e);
+    }
+  }
+
+  /**
+   * Writes content to a temporary file next to the target, syncs it to disk and then
+   * replaces the target by it, atomically whenever the file system supports it
+   * @param target Target file
+   * @param content Content to write
+   */
+  private static void writeAtomically(Path target, byte[] content) throws IOException {
+    boolean targetExists = Files.exists(target);
+
+    // Moving onto a link would replace the link itself, rather than the file it points to
+    if (targetExists)
+      target = target.toRealPath();
+
+    // Bare relative targets lack a parent, while the temporary file has to reside on the same file system
+    Path directory = target.toAbsolutePath().getParent();
+
+    if (directory != null)
+      Files.createDirectories(directory);
+
+    Path temporaryFile = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+
+    try {
+      // Temporary files are only accessible by their owner, which would otherwise replace the target's permissions
+      if (targetExists)
+        copyPermissions(target, temporaryFile);
+
+      try (
+        FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+      ) {
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+
+        while (buffer.hasRemaining())
+          channel.write(buffer);
+
+        channel.force(true);
+      }
+
+      try {
+        Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+  }
+
+  /**
+   * Copies the POSIX permissions of a file onto another file, if the file system supports them
+   * @param source File to read the permissions of
+   * @param target File to apply the permissions to
+   */
+  private static void copyPermissions(Path source, Path target) throws IOException {
+    PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+
+    if (sourceView == null)
       return;
+
+    Files.setPosixFilePermissions(target, sourceView.readAttributes().permissions());
+  }
+
+  /**
+   * Renders a tree without it's merged tuples, by the purpose-built emitter if it supports the tree,
+   * and by SnakeYAML otherwise, while holding the read lock
+   * @param root Root node of the tree
+   * @return Rendered text
+   */
+  private String render(MappingNode root) {
+    String emittedText = YamlNodeEmitter.emit(root, mergedTuples);
+
+    if (emittedText != null)
+      return emittedText;
+
+    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Falling back to SnakeYAML, as the tree is not supported by the emitter");
+
+    StringWriter writer = new StringWriter();
+    Yaml engine = YAML_ENGINES.borrow();
+
+    try {
+      engine.serialize(copyWithoutMergedTuples(root, new IdentityHashMap<>()), writer);
+    } finally {
+      YAML_ENGINES.release(engine);
     }
 
-    writer.write(this.header);
-    executeWhileMergedTuplesAbsent(() -> YAML.serialize(this.rootNode, writer));
+    return writer.toString();
   }
 
-  private void executeWhileMergedTuplesAbsent(Runnable executable) {
-    synchronized (this.mergedTuples) {
-      for (Iterator<MergedNodeTuple> mergedTuplesIterator = this.mergedTuples.iterator(); mergedTuplesIterator.hasNext();) {
-        MergedNodeTuple mergedTuple = mergedTuplesIterator.next();
+  /**
+   * Creates a view of a node for serialization, which lacks all merged tuples. Only nodes which
+   * contain merged tuples within their subtree are copied, while all other nodes are reused.
+   * @param node Node to create a view of
+   * @param copies Views of previously visited nodes, which preserves aliases of the same node
+   * @return Either the node itself or a copy of it, if it's subtree contained merged tuples
+   */
+  private Node copyWithoutMergedTuples(Node node, Map<Node, Node> copies) {
+    if (node instanceof ScalarNode)
+      return node;
+
+    Node previousCopy = copies.get(node);
+
+    if (previousCopy != null)
+      return previousCopy;
 
-        // If the remove routine yielded false, the element has no longer been in the list
-        // This means that somebody else removed it, and it thus should also not be added back later on
-        // Thus, remove it from the merged tuples list
-        if (!mergedTuple.removeRoutine.get())
-          mergedTuplesIterator.remove();
+    // Recursive aliases refer back to the node itself
+    copies.put(node, node);
+
+    Node result = node;
+
+    if (node instanceof MappingNode) {
+      MappingNode mapping = (MappingNode) node;
+      List<NodeTuple> tuples = mapping.getValue();
+      List<NodeTuple> copiedTuples = null;
+
+      for (int i = 0; i < tuples.size(); i++) {
+        NodeTuple tuple = tuples.get(i);
+        boolean isMerged = mergedTuples.contains(tuple);
+
+        Node key = isMerged ? null : copyWithoutMergedTuples(tuple.getKeyNode(), copies);
+        Node value = isMerged ? null : copyWithoutMergedTuples(tuple.getValueNode(), copies);
+        boolean isUnchanged = !isMerged && key == tuple.getKeyNode() && value == tuple.getValueNode();
+
+        // Only start to copy tuples as soon as the first deviation occurred
+        if (copiedTuples == null) {
+          if (isUnchanged)
+            continue;
+
+          copiedTuples = new ArrayList<>(tuples.subList(0, i));
+        }
+
+        if (isUnchanged)
+          copiedTuples.add(tuple);
+        else if (!isMerged)
+          copiedTuples.add(new NodeTuple(key, value));
       }
 
-      executable.run();
+      if (copiedTuples != null) {
+        MappingNode copy = new MappingNode(mapping.getTag(), true, copiedTuples, mapping.getStartMark(), mapping.getEndMark(), mapping.getFlowStyle());
+        copyCommentsAndAnchor(mapping, copy);
+        result = copy;
+      }
+    }
+
+    else if (node instanceof SequenceNode) {
+      SequenceNode sequence = (SequenceNode) node;
+      List<Node> items = sequence.getValue();
+      List<Node> copiedItems = null;
 
-      for (MergedNodeTuple mergedTuple : this.mergedTuples)
-        mergedTuple.addRoutine.run();
+      for (int i = 0; i < items.size(); i++) {
+        Node item = items.get(i);
+        Node copiedItem = copyWithoutMergedTuples(item, copies);
+
+        if (copiedItems == null) {
+          if (copiedItem == item)
+            continue;
+
+          copiedItems = new ArrayList<>(items.subList(0, i));
+        }
+
+        copiedItems.add(copiedItem);
+      }
+
+      if (copiedItems != null) {
+        SequenceNode copy = new SequenceNode(sequence.getTag(), true, copiedItems, sequence.getStartMark(), sequence.getEndMark(), sequence.getFlowStyle());
+        copyCommentsAndAnchor(sequence, copy);
+        result = copy;
+      }
     }
+
+    copies.put(node, result);
+    return result;
   }
 
   private @Nullable NodeTuple findTupleNodeRecursively(
@@ -400,33 +1472,76 @@ public class YamlConfig implements IConfig {
    * @return Number of updated keys
    */
   public int extendMissingKeys(YamlConfig other) {
+    requireMutable();
+
+    // A config cannot lack any of it's own keys
+    if (other == this)
+      return 0;
+
+    // The other config is only read from, but has to remain unaltered throughout; acquire both
+    // locks in a globally consistent order, as to not deadlock with a concurrent inverse extension
+    boolean otherFirst = System.identityHashCode(other) < System.identityHashCode(this);
+
+    if (otherFirst)
+      other.lock.readLock().lock();
+
+    lock.writeLock().lock();
+
+    if (!otherFirst)
+      other.lock.readLock().lock();
+
+    int updatedKeys;
+
+    try {
+      updatedKeys = extendMissingKeysLocked(other);
+
+      if (updatedKeys > 0) {
+        ++this.modCount;
+        trackChangedPath(null);
+      }
+    } finally {
+      other.lock.readLock().unlock();
+      lock.writeLock().unlock();
+    }
+
+    if (updatedKeys > 0)
+      notifyChangeListeners(null);
+
+    return updatedKeys;
+  }
+
+  private int extendMissingKeysLocked(YamlConfig other) {
     if (other.rootNode == null)
       throw new IllegalStateException("Other config has not yet been loaded");
 
+    invalidateSharedValues();
+    invalidateMemoizedValues(null);
+
     return forEachKeyPathRecursively(other.rootNode, null, (tuple, pathOfTuple, indexOfTuple) -> {
       if (this.exists(pathOfTuple))
         return false;
 
       String key = ((ScalarNode) tuple.getKeyNode()).getValue();
-      LocateNodeResult locateResult = locateNode(pathOfTuple, true, false);
+      LocateNodeResult locateResult = locateNode(pathOfTuple, true, false, false);
       Node parentNode = locateResult.getLastContainer();
 
       if (parentNode != null && isKeyCommentedOut(key, parentNode))
         return false;
 
       MappingNode container = locateContainerNode(pathOfTuple, true).a;
+
       List<NodeTuple> containerTuples = container.getValue();
 
       // The new key is at an index which doesn't yet exist, add to the end of the tuple list
-      if (indexOfTuple >= containerTuples.size()) {
+      if (indexOfTuple >= containerTuples.size())
         containerTuples.add(tuple);
-        invalidateLocateKeyCacheFor(container, key);
-        return true;
-      }
 
       // Insert the new tuple at the right index
-      containerTuples.add(indexOfTuple, tuple);
-      invalidateLocateKeyCacheFor(container, key);
+      else
+        containerTuples.add(indexOfTuple, tuple);
+
+      reindexTuple(container, null, tuple);
+      addToPathFilter(pathOfTuple, tuple.getValueNode());
       return true;
     });
   }
@@ -465,50 +1580,221 @@ public class YamlConfig implements IConfig {
     return updatedKeys;
   }
 
-  @Override
-  public @Nullable Object get(@Nullable String path) {
-    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Object at path=" + path + " has been requested");
+  @Override
+  public @Nullable Object get(@Nullable String path) {
+    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Object at path=" + path + " has been requested");
+
+    Object value;
+
+    acquireReadLock();
+    try {
+      // Paths which definitely don't exist need not be walked
+      if (path != null && !pathFilter.mightContain(path))
+        value = null;
+
+      else {
+        LocateNodeResult target = locateNode(path, false, false, false);
+        value = target.node == null ? null : unwrapNode(target.node, target.markedForExpressions);
+      }
+    } finally {
+      releaseReadLock();
+    }
+
+    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Returning content of path=" + path + " with value=" + value);
+
+    return value;
+  }
+
+  @Override
+  public long getLong(@Nullable String path, long defaultValue) {
+    ParsedScalar scalar = locateParsedScalar(path);
+    return scalar == null ? defaultValue : scalar.getLong(defaultValue);
+  }
+
+  @Override
+  public int getInt(@Nullable String path, int defaultValue) {
+    ParsedScalar scalar = locateParsedScalar(path);
+
+    if (scalar == null)
+      return defaultValue;
+
+    long value = scalar.getLong(defaultValue);
+
+    // Truncating would yield an unrelated number, so values beyond 32 bits are treated as mismatching
+    return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? defaultValue : (int) value;
+  }
+
+  @Override
+  public double getDouble(@Nullable String path, double defaultValue) {
+    ParsedScalar scalar = locateParsedScalar(path);
+    return scalar == null ? defaultValue : scalar.getDouble(defaultValue);
+  }
+
+  @Override
+  public boolean getBoolean(@Nullable String path, boolean defaultValue) {
+    ParsedScalar scalar = locateParsedScalar(path);
+    return scalar == null ? defaultValue : scalar.getBoolean(defaultValue);
+  }
+
+  @Override
+  public @Nullable String getString(@Nullable String path, @Nullable String defaultValue) {
+    ParsedScalar scalar = locateParsedScalar(path);
+    return scalar == null ? defaultValue : scalar.getString(defaultValue);
+  }
+
+  /**
+   * Locates a scalar by it's path and parses it once, without unwrapping any surrounding nodes
+   * @param path Path to identify the scalar
+   * @return Parsed scalar, null if the path is absent, not a scalar or marked for expressions
+   */
+  private @Nullable ParsedScalar locateParsedScalar(@Nullable String path) {
+    acquireReadLock();
+    try {
+      // The root is never a scalar
+      if (path == null || !pathFilter.mightContain(path))
+        return null;
+
+      LocateNodeResult target = locateNode(path, false, false, false);
+
+      if (!(target.node instanceof ScalarNode) || target.markedForExpressions)
+        return null;
+
+      ScalarNode node = (ScalarNode) target.node;
+      return parsedScalarCache.computeIfAbsentOrStale(node, scalar -> !scalar.isParsedFrom(node), ParsedScalar::of);
+    } finally {
+      releaseReadLock();
+    }
+  }
+
+  /**
+   * Reads the items of a sequence as the rows of a table, where each column is looked up within every row by
+   * the same rules as a path segment, so that the rows don't have to be unwrapped into maps of their own
+   * @param path Path of the sequence
+   * @param columnNames Keys to look up within every row
+   * @return Cells by column and then by row, null if the path is absent or not a sequence
+   * @throws IllegalArgumentException If an item of the sequence is not a map
+   */
+  @Nullable Object[][] readColumns(String path, String[] columnNames) {
+    String[] markedColumnNames = new String[columnNames.length];
+
+    for (int column = 0; column < columnNames.length; column++) {
+      if (expressionMarkerSuffix != null && !columnNames[column].endsWith(expressionMarkerSuffix))
+        markedColumnNames[column] = columnNames[column] + expressionMarkerSuffix;
+    }
+
+    acquireReadLock();
+    try {
+      if (!pathFilter.mightContain(path))
+        return null;
+
+      LocateNodeResult target = locateNode(path, false, false, false);
+
+      if (!(target.node instanceof SequenceNode))
+        return null;
+
+      List<Node> items = ((SequenceNode) target.node).getValue();
+      Object[][] cells = new Object[columnNames.length][items.size()];
+
+      for (int row = 0; row < items.size(); row++) {
+        if (!(items.get(row) instanceof MappingNode))
+          throw new IllegalArgumentException("Item " + row + " is not a map");
+
+        MappingNode item = (MappingNode) items.get(row);
+
+        for (int column = 0; column < columnNames.length; column++) {
+          NodeTuple cell = locateKey(item, columnNames[column]);
 
-    LocateNodeResult target = locateNode(path, false, false);
-    Object value = target.node == null ? null : unwrapNode(target.node, target.markedForExpressions);
+          // Column names which carry the marker themselves have no marked variant
+          boolean markedForExpressions = target.markedForExpressions || (expressionMarkerSuffix != null && markedColumnNames[column] == null);
 
-    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Returning content of path=" + path + " with value=" + value);
+          // Just like path segments, keys which lack their marker are looked up again with it
+          if (cell == null && markedColumnNames[column] != null) {
+            cell = locateKey(item, markedColumnNames[column]);
+            markedForExpressions = true;
+          }
 
-    return value;
+          if (cell != null)
+            cells[column][row] = unwrapNode(cell.getValueNode(), markedForExpressions);
+        }
+      }
+
+      return cells;
+    } finally {
+      releaseReadLock();
+    }
   }
 
   @Override
   public void set(@Nullable String path, @Nullable Object value) {
+    requireMutable();
+
     logger.log(Level.FINEST, () -> DebugLogSource.YAML + "An update of value=" + value + " at path=" + path + " has been requested");
 
     Node wrappedValue = wrapValue(value);
 
-    if (path == null) {
-      if (!(wrappedValue instanceof MappingNode))
-        throw new IllegalArgumentException("Cannot exchange the root-node for a non-map node");
+    if (path == null && !(wrappedValue instanceof MappingNode))
+      throw new IllegalArgumentException("Cannot exchange the root-node for a non-map node");
 
-      logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Swapped out the root node");
+    lock.writeLock().lock();
+    try {
+      invalidateSharedValues();
+      ++this.modCount;
+      trackChangedPath(path);
 
-      rootNode = (MappingNode) wrappedValue;
-      extractHeader();
-      return;
+      if (path == null) {
+        logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Swapped out the root node");
+
+        rootNode = (MappingNode) wrappedValue;
+        markOwned(rootNode);
+        clearMergedTuples();
+        extractHeader();
+        rebuildPathFilter();
+      }
+
+      else {
+        updatePathValue(path, wrappedValue, true);
+
+        if (wrappedValue != null)
+          addToPathFilter(path, wrappedValue);
+      }
+
+      invalidateMemoizedValues(path);
+    } finally {
+      lock.writeLock().unlock();
     }
 
-    updatePathValue(path, wrappedValue, true);
+    notifyChangeListeners(path);
   }
 
   @Override
   public void remove(@Nullable String path) {
+    requireMutable();
+
     logger.log(Level.FINEST, () -> DebugLogSource.YAML + "The removal of path=" + path + " has been requested");
 
-    if (path == null) {
-      logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Reset the root node");
+    lock.writeLock().lock();
+    try {
+      invalidateSharedValues();
+      ++this.modCount;
+      trackChangedPath(path);
 
-      rootNode = createNewMappingNode(null);
-      return;
+      if (path == null) {
+        logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Reset the root node");
+
+        rootNode = createNewMappingNode(null);
+        markOwned(rootNode);
+        clearMergedTuples();
+      }
+
+      else
+        updatePathValue(path, null, false);
+
+      invalidateMemoizedValues(path);
+    } finally {
+      lock.writeLock().unlock();
     }
 
-    updatePathValue(path, null, false);
+    notifyChangeListeners(path);
   }
 
   private MappingNode createNewMappingNode(@Nullable List<NodeTuple> items) {
@@ -517,13 +1803,25 @@ public class YamlConfig implements IConfig {
     return new MappingNode(Tag.MAP, true, items, null, null, DUMPER_OPTIONS.getDefaultFlowStyle());
   }
 
+  @Override
+  public boolean isSharedValue(Object value) {
+    return sharedValues.contains(value);
+  }
+
   @Override
   public boolean exists(@Nullable String path) {
     logger.log(Level.FINEST, () -> DebugLogSource.YAML + "An existence check of path=" + path + " has been requested");
 
-    // For a key to exist, it's path has to exist within the
-    // config, even if it points at a null value
-    boolean exists = locateNode(path, true, false).node != null;
+    boolean exists;
+
+    acquireReadLock();
+    try {
+      // For a key to exist, it's path has to exist within the
+      // config, even if it points at a null value
+      exists = (path == null || pathFilter.mightContain(path)) && locateNode(path, true, false, false).node != null;
+    } finally {
+      releaseReadLock();
+    }
 
     logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Returning existence value for path=" + path + " of exists=" + exists);
 
@@ -532,12 +1830,9 @@ public class YamlConfig implements IConfig {
 
   @Override
   public void attachComment(@Nullable String path, List<String> lines, boolean self) {
-    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Attaching a comment to path=" + path + " (self=" + self + ") of lines=" + lines + " has been requested");
+    requireMutable();
 
-    Node target = locateNode(path, self, false).node;
-
-    if (target == null)
-      throw new IllegalStateException("Cannot attach a comment to a non-existing path");
+    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Attaching a comment to path=" + path + " (self=" + self + ") of lines=" + lines + " has been requested");
 
     List<CommentLine> comments = new ArrayList<>();
 
@@ -546,28 +1841,51 @@ public class YamlConfig implements IConfig {
       comments.add(new CommentLine(null, null, line, type));
     }
 
-    target.setBlockComments(comments);
+    lock.writeLock().lock();
+    try {
+      Node target = locateNode(path, self, false, false).node;
+
+      if (target == null)
+        throw new IllegalStateException("Cannot attach a comment to a non-existing path");
+
+      if (!isOwned(target))
+        target = claimNode(path, self);
+
+      target.setBlockComments(comments);
+      ++this.modCount;
+      trackChangedPath(path);
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    notifyChangeListeners(path);
   }
 
   @Override
   public @Nullable List<String> readComment(@Nullable String path, boolean self) {
     logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Reading the comment at path=" + path + " (self=" + self + ") has been requested");
 
-    Node target = locateNode(path, self, false).node;
+    List<String> comments = new ArrayList<>();
 
-    if (target == null)
-      return null;
+    acquireReadLock();
+    try {
+      Node target = locateNode(path, self, false, false).node;
 
-    List<String> comments = new ArrayList<>();
-    List<CommentLine> targetComments = target.getBlockComments();
+      if (target == null)
+        return null;
 
-    for (CommentLine comment : targetComments) {
-      if (comment.getCommentType() == CommentType.BLANK_LINE) {
-        comments.add("\n");
-        continue;
-      }
+      List<CommentLine> targetComments = target.getBlockComments();
+
+      for (CommentLine comment : targetComments) {
+        if (comment.getCommentType() == CommentType.BLANK_LINE) {
+          comments.add("\n");
+          continue;
+        }
 
-      comments.add(comment.getValue());
+        comments.add(comment.getValue());
+      }
+    } finally {
+      releaseReadLock();
     }
 
     logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Returning comments for path=" + path + " comments=" + comments);
@@ -575,6 +1893,30 @@ public class YamlConfig implements IConfig {
     return comments;
   }
 
+  @Override
+  public @Nullable IConfigCursor cursor(@Nullable String path) {
+    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "A cursor at path=" + path + " has been requested");
+
+    acquireReadLock();
+    try {
+      long currentModCount = this.modCount;
+      LocateNodeResult target = locateNode(path, false, false, false);
+
+      if (target.node == null)
+        return null;
+
+      return new Cursor(path == null ? null : path.trim(), new CursorPosition(target.node, target.markedForExpressions, currentModCount));
+    } finally {
+      releaseReadLock();
+    }
+  }
+
+  /**
+   * Locates the mapping which contains the key a given path points to, while claiming all mappings on the way
+   * @param keyPath Path of the key
+   * @param forceCreateMappings Whether to create missing mappings on the way
+   * @return A tuple of the owned container as well as the last key of the path
+   */
   private Tuple<MappingNode, String> locateContainerNode(String keyPath, boolean forceCreateMappings) {
     int lastDotIndex = keyPath.lastIndexOf('.');
     String keyPart;
@@ -582,7 +1924,7 @@ public class YamlConfig implements IConfig {
 
     // No dot in the path, the container is root and the key-part is just the path value
     if (lastDotIndex < 0) {
-      container = rootNode;
+      container = claimRoot();
       keyPart = keyPath;
     }
 
@@ -590,7 +1932,8 @@ public class YamlConfig implements IConfig {
     // Look up the container by the path provided before the last dot (in force mapping creation mode)
     else {
       keyPart = keyPath.substring(lastDotIndex + 1);
-      container = (MappingNode) locateNode(keyPath.substring(0, lastDotIndex), false, forceCreateMappings).node;
+      Node containerNode = locateNode(keyPath.substring(0, lastDotIndex), false, forceCreateMappings, true).node;
+      container = containerNode instanceof MappingNode ? (MappingNode) containerNode : null;
     }
 
     if (container == null || StringUtils.isBlank(keyPart))
@@ -617,22 +1960,15 @@ public class YamlConfig implements IConfig {
     Node existingKey = null;
     int existingIndex = -1;
 
-    invalidateLocateKeyCacheFor(container, keyPart);
-
     // Remove an existing tuple from the map
     if (existingTuple != null) {
       existingKey = existingTuple.getKeyNode();
       existingIndex = container.getValue().indexOf(existingTuple);
       container.getValue().remove(existingIndex);
+      reindexTuple(container, existingTuple, null);
 
-      // If the just removed tuple held a mapping node as it#s value, invalidate
-      // all children mappings within that tuple recursively
-      Node valueNode = existingTuple.getValueNode();
-      if (valueNode instanceof MappingNode) {
-        forAllMappingsRecursively((MappingNode) valueNode, (currentContainer, currentKey, currentValue) -> {
-          this.invalidateLocateKeyCacheFor(currentValue, currentKey.getValue());
-        });
-      }
+      // The indices of a just removed subtree remain valid, as they're keyed by node identity and
+      // unaltered nodes still hold the same keys; they're released as soon as the subtree is collected
     }
 
     // Create a new tuple for this value, if provided
@@ -644,33 +1980,79 @@ public class YamlConfig implements IConfig {
         container.getValue().add(existingIndex, newTuple);
       else
         container.getValue().add(newTuple);
+
+      reindexTuple(container, null, newTuple);
     }
   }
 
   /**
-   * Invalidate a {@link #locateKey(MappingNode, String)} request cache entry for
-   * a specific node targeting a specific key lookup
-   * @param node Target node
-   * @param key Target key
+   * Keep the {@link #locateKey(MappingNode, String)} index of a mapping up to date after
+   * it's list of tuples has been altered, if that mapping has already been indexed
+   * @param node Altered mapping
+   * @param removedTuple Tuple which has been removed, if any
+   * @param addedTuple Tuple which has been added, if any
    */
-  private void invalidateLocateKeyCacheFor(MappingNode node, String key) {
-    Map<String, @Nullable NodeTuple> containerCache = this.locateKeyCache.get(node);
+  private void reindexTuple(MappingNode node, @Nullable NodeTuple removedTuple, @Nullable NodeTuple addedTuple) {
+    MappingKeyIndex index = this.locateKeyCache.getIfPresent(node);
 
-    if (containerCache != null) {
-      containerCache.remove(key);
+    if (index == null || index.getGeneration() != this.keyIndexGeneration)
+      return;
 
-      // If there's an expression marker suffix used with this configuration
-      if (expressionMarkerSuffix != null) {
+    if (removedTuple != null)
+      index.onTupleRemoved(removedTuple);
 
-        // It's appended, also remove the cache entry for the non-suffixed version
-        if (key.endsWith(expressionMarkerSuffix))
-          containerCache.remove(key.substring(0, key.length() - 1));
+    if (addedTuple != null)
+      index.onTupleAdded(addedTuple);
+  }
 
-        // It's not appended, also remove the cache entry for the suffixed version
-        else
-          containerCache.remove(key + expressionMarkerSuffix);
-      }
+  /**
+   * Rebuilds the filter of paths from the current tree, while holding the write lock
+   */
+  private void rebuildPathFilter() {
+    this.pathFilter = PathBloomFilter.build(this.rootNode, expressionMarkerSuffix);
+    this.pathFilterShared = false;
+
+    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Rebuilt the filter of paths");
+  }
+
+  /**
+   * Adds a path which has just been set to the filter of paths, while holding the write lock
+   * @param path Path which has been set, including all containers it might have created
+   * @param value Value which has been set at the path
+   */
+  private void addToPathFilter(String path, Node value) {
+    // Aliased containers are also reachable by further paths, which are only known by walking the whole tree
+    if (isWithinSharedNode(path)) {
+      rebuildPathFilter();
+      return;
+    }
+
+    if (this.pathFilterShared) {
+      this.pathFilter = this.pathFilter.copy();
+      this.pathFilterShared = false;
+    }
+
+    this.pathFilter.addPath(path, value);
+
+    if (this.pathFilter.isSaturated())
+      rebuildPathFilter();
+  }
+
+  /**
+   * Checks whether any container on the way to a path is reachable by multiple paths, while holding a lock
+   * @param path Path to check the containers of
+   * @return True if at least one container is shared
+   */
+  private boolean isWithinSharedNode(String path) {
+    if (sharedNodes.isEmpty())
+      return false;
+
+    for (MappingNode container : locateNode(path, false, false, false).containerStack) {
+      if (sharedNodes.contains(container))
+        return true;
     }
+
+    return false;
   }
 
   /**
@@ -723,21 +2105,46 @@ public class YamlConfig implements IConfig {
    * Locates a target node by it's identifying path
    * @param path Path to search for, null means root
    * @param self Whether to locate the containing key or the value (self means the key)
+   * @param forceCreateMappings Whether to create missing mappings on the way
+   * @param claimMappings Whether to claim all mapping values on the way, as they're about to be altered
    * @return A tuple of the target node or null if the target node didn't exist
    *         as well as a boolean marking whether this path was marked for expressions
    */
-  private @NotNull LocateNodeResult locateNode(@Nullable String path, boolean self, boolean forceCreateMappings) {
+  private @NotNull LocateNodeResult locateNode(@Nullable String path, boolean self, boolean forceCreateMappings, boolean claimMappings) {
     if (path == null)
-      return new LocateNodeResult(rootNode, false, null);
+      return new LocateNodeResult(claimMappings ? claimRoot() : rootNode, false, null);
 
+    path = requireValidPath(path);
+    return locateNode(claimMappings ? claimRoot() : rootNode, false, path, self, forceCreateMappings, claimMappings);
+  }
+
+  private static String requireValidPath(String path) {
     // Keys should never contain any whitespace
     path = path.trim();
 
     if (StringUtils.isBlank(path))
       throw new IllegalArgumentException("Invalid path specified: " + path);
 
-    Node node = rootNode;
-    boolean markedForExpressions = false;
+    return path;
+  }
+
+  /**
+   * Locates a target node by it's path relative to a starting node
+   * @param start Node to start walking at
+   * @param startMarkedForExpressions Whether the starting node has been marked for expressions already
+   * @param path Trimmed, non-blank path to walk
+   * @param self Whether to locate the containing key or the value (self means the key)
+   * @param forceCreateMappings Whether to create missing mappings on the way
+   * @param claimMappings Whether to claim all mapping values on the way, as they're about to be altered
+   * @return A tuple of the target node or null if the target node didn't exist
+   *         as well as a boolean marking whether this path was marked for expressions
+   */
+  private @NotNull LocateNodeResult locateNode(
+    @Nullable Node start, boolean startMarkedForExpressions, String path,
+    boolean self, boolean forceCreateMappings, boolean claimMappings
+  ) {
+    Node node = start;
+    boolean markedForExpressions = startMarkedForExpressions;
     Stack<MappingNode> containerStack = new Stack<>();
 
     int endIndex = path.indexOf('.'), beginIndex = 0;
@@ -780,12 +2187,18 @@ public class YamlConfig implements IConfig {
         Node tupleKey = keyValueTuple == null ? null : keyValueTuple.getKeyNode();
 
         List<NodeTuple> mappingTuples = mapping.getValue();
-        mappingTuples.remove(keyValueTuple);
-        keyValueTuple = createNewTuple(tupleKey, pathPart, createNewMappingNode(null));
+        MappingNode newMapping = createNewMappingNode(null);
+
+        if (keyValueTuple != null)
+          forgetMergedTuple(keyValueTuple);
+
+        NodeTuple replacedTuple = keyValueTuple;
+        mappingTuples.remove(replacedTuple);
+        keyValueTuple = createNewTuple(tupleKey, pathPart, newMapping);
         mappingTuples.add(keyValueTuple);
+        markOwned(newMapping);
 
-        // Invalidate the (null) cache for this newly added tuple
-        invalidateLocateKeyCacheFor(mapping, pathPart);
+        reindexTuple(mapping, replacedTuple, keyValueTuple);
       }
 
       // Current path-part does not exist
@@ -795,6 +2208,8 @@ public class YamlConfig implements IConfig {
       // On the last iteration and the key itself has been requested
       if (endIndex == path.length() && self)
         node = keyValueTuple.getKeyNode();
+      else if (claimMappings && keyValueTuple.getValueNode() instanceof MappingNode)
+        node = claimValue(mapping, keyValueTuple);
       else
         node = keyValueTuple.getValueNode();
 
@@ -813,44 +2228,251 @@ public class YamlConfig implements IConfig {
     return new LocateNodeResult(node, markedForExpressions, containerStack);
   }
 
+  private boolean isOwned(@Nullable Node node) {
+    return ownedNodes == null || ownedNodes.contains(node);
+  }
+
+  private void markOwned(Node node) {
+    if (ownedNodes != null)
+      ownedNodes.add(node);
+  }
+
   /**
-   * Locates a target key's containing node tuple within a mapping node's list of tuples
-   * @param node Node to search in
-   * @param key Target key
-   * @return Target tuple if found, null on absent key
+   * Get the root node in a state which may be altered in place, by copying it if it's shared with a snapshot
+   * @return Owned root node
    */
-  private @Nullable NodeTuple locateKey(MappingNode node, String key) {
-    Map<String, @Nullable NodeTuple> nodeCache = locateKeyCache.computeIfAbsent(node, k -> new HashMap<>());
+  private MappingNode claimRoot() {
+    if (isOwned(rootNode))
+      return rootNode;
 
-    // Check cache before going through linear search
-    if (nodeCache.containsKey(key))
-      return nodeCache.get(key);
+    // Copying single paths would detach aliased nodes from all of their other occurrences
+    if (!sharedNodes.isEmpty())
+      claimTree();
+    else
+      rootNode = copyMappingNode(rootNode);
 
-    // Loop all mappings of this key
-    List<NodeTuple> entries = node.getValue();
-    for (NodeTuple entry : entries) {
-      Node keyNode = entry.getKeyNode();
+    return rootNode;
+  }
 
-      // Not a scalar key
-      if (!(keyNode instanceof ScalarNode))
-        continue;
+  /**
+   * Copies all mappings and sequences of the tree at once, while copying nodes which are reachable by multiple
+   * paths only once, so that every occurrence of an aliased node keeps referring to the very same (owned) copy
+   */
+  private void claimTree() {
+    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Copying the whole tree, as it contains aliased nodes");
 
-      // Key mismatch
-      if (!((ScalarNode) keyNode).getValue().equalsIgnoreCase(key))
-        continue;
+    Map<Node, Node> copies = new IdentityHashMap<>();
+    Set<NodeTuple> copiedMergedTuples = Collections.newSetFromMap(new IdentityHashMap<>());
 
-      // Merge keys should never be retrievable and thus be "hidden"
-      if (entry.getKeyNode().getTag() == Tag.MERGE)
-        continue;
+    rootNode = (MappingNode) copyNodeRecursively(rootNode, copies, copiedMergedTuples);
+
+    // Snapshots share the previous sets, which are thus never altered in place
+    Set<Node> copiedSharedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    for (Node sharedNode : sharedNodes)
+      copiedSharedNodes.add(copies.getOrDefault(sharedNode, sharedNode));
+
+    sharedNodes = copiedSharedNodes;
+    mergedTuples = copiedMergedTuples;
+
+    invalidateSharedValues();
+  }
+
+  /**
+   * Creates an owned copy of a mapping or sequence as well as of all of it's descendants, while scalars are
+   * shared, as they're copied whenever being claimed anyways
+   * @param node Node to copy
+   * @param copies Copies by their original node, used to copy each node exactly once
+   * @param copiedMergedTuples Set to collect the copies of merged tuples into
+   * @return Copied node
+   */
+  private Node copyNodeRecursively(Node node, Map<Node, Node> copies, Set<NodeTuple> copiedMergedTuples) {
+    if (node instanceof ScalarNode)
+      return node;
+
+    Node copy = copies.get(node);
+
+    if (copy != null)
+      return copy;
+
+    copy = copyNode(node);
 
-      // Remember this call's yielded entry
-      nodeCache.put(key, entry);
-      return entry;
+    // Registered before visiting the children, as the tree may be cyclic
+    copies.put(node, copy);
+
+    if (copy instanceof MappingNode) {
+      List<NodeTuple> tuples = ((MappingNode) copy).getValue();
+
+      for (int i = 0; i < tuples.size(); i++) {
+        NodeTuple tuple = tuples.get(i);
+        NodeTuple copiedTuple = new NodeTuple(tuple.getKeyNode(), copyNodeRecursively(tuple.getValueNode(), copies, copiedMergedTuples));
+
+        if (mergedTuples.contains(tuple))
+          copiedMergedTuples.add(copiedTuple);
+
+        tuples.set(i, copiedTuple);
+      }
     }
 
-    // Also remember failed lookups
-    nodeCache.put(key, null);
-    return null;
+    else if (copy instanceof SequenceNode) {
+      List<Node> items = ((SequenceNode) copy).getValue();
+
+      for (int i = 0; i < items.size(); i++)
+        items.set(i, copyNodeRecursively(items.get(i), copies, copiedMergedTuples));
+    }
+
+    return copy;
+  }
+
+  /**
+   * Get the mapping value of a tuple in a state which may be altered in place, by copying it if
+   * it's shared with a snapshot and replacing the tuple within it's (owned) container with a new tuple
+   * @param container Owned mapping which contains the tuple
+   * @param tuple Tuple holding the mapping value
+   * @return Owned mapping value
+   */
+  private MappingNode claimValue(MappingNode container, NodeTuple tuple) {
+    MappingNode value = (MappingNode) tuple.getValueNode();
+
+    if (isOwned(value))
+      return value;
+
+    MappingNode copy = copyMappingNode(value);
+    replaceTuple(container, tuple, new NodeTuple(tuple.getKeyNode(), copy));
+    return copy;
+  }
+
+  /**
+   * Get the key or value node a path points to in a state which may be altered in place, by copying it
+   * as well as all of it's containing mappings if they're shared with a snapshot
+   * @param path Path of the target, null means root
+   * @param self Whether to claim the key or the value (self means the key)
+   * @return Owned target node
+   */
+  private Node claimNode(@Nullable String path, boolean self) {
+    if (path == null)
+      return claimRoot();
+
+    Tuple<MappingNode, String> containerAndKeyPart = locateContainerNode(path.trim(), false);
+    MappingNode container = containerAndKeyPart.a;
+    NodeTuple tuple = locateKey(container, containerAndKeyPart.b);
+
+    if (tuple == null && expressionMarkerSuffix != null)
+      tuple = locateKey(container, containerAndKeyPart.b + expressionMarkerSuffix);
+
+    if (tuple == null)
+      throw new IllegalStateException("Could not locate the node at path: " + path);
+
+    if (!self && tuple.getValueNode() instanceof MappingNode)
+      return claimValue(container, tuple);
+
+    Node keyNode = self ? copyNode(tuple.getKeyNode()) : tuple.getKeyNode();
+    Node valueNode = self ? tuple.getValueNode() : copyNode(tuple.getValueNode());
+
+    replaceTuple(container, tuple, new NodeTuple(keyNode, valueNode));
+    return self ? keyNode : valueNode;
+  }
+
+  /**
+   * Replaces a tuple of an owned mapping node in place. Merged tuples turn into plain tuples
+   * of their destination when being replaced, as the source they stem from remains unaltered.
+   * @param container Owned mapping which contains the tuple
+   * @param tuple Tuple to replace
+   * @param replacement Tuple to replace with
+   */
+  private void replaceTuple(MappingNode container, NodeTuple tuple, NodeTuple replacement) {
+    List<NodeTuple> tuples = container.getValue();
+    int index = tuples.indexOf(tuple);
+
+    if (index < 0)
+      throw new IllegalStateException("Could not locate the tuple to replace");
+
+    tuples.set(index, replacement);
+    forgetMergedTuple(tuple);
+    reindexTuple(container, tuple, replacement);
+  }
+
+  private void forgetMergedTuple(NodeTuple tuple) {
+    if (!mergedTuples.contains(tuple))
+      return;
+
+    // Snapshots may share the current set, which is thus never altered in place
+    Set<NodeTuple> remainingTuples = Collections.newSetFromMap(new IdentityHashMap<>());
+    remainingTuples.addAll(mergedTuples);
+    remainingTuples.remove(tuple);
+    mergedTuples = remainingTuples;
+  }
+
+  private void clearMergedTuples() {
+    mergedTuples = Collections.newSetFromMap(new IdentityHashMap<>());
+  }
+
+  /**
+   * Creates a shallow copy of a mapping node, which is owned
+   * @param node Node to copy
+   * @return Copied node
+   */
+  private MappingNode copyMappingNode(MappingNode node) {
+    MappingNode copy = new MappingNode(node.getTag(), true, new ArrayList<>(node.getValue()), node.getStartMark(), node.getEndMark(), node.getFlowStyle());
+    copy.setMerged(node.isMerged());
+    copyNodeProperties(node, copy);
+    return copy;
+  }
+
+  /**
+   * Creates a shallow copy of any node, which is owned
+   * @param node Node to copy
+   * @return Copied node
+   */
+  private Node copyNode(Node node) {
+    if (node instanceof MappingNode)
+      return copyMappingNode((MappingNode) node);
+
+    Node copy;
+
+    if (node instanceof SequenceNode) {
+      SequenceNode sequence = (SequenceNode) node;
+      copy = new SequenceNode(node.getTag(), true, new ArrayList<>(sequence.getValue()), node.getStartMark(), node.getEndMark(), sequence.getFlowStyle());
+    }
+
+    else if (node instanceof ScalarNode) {
+      ScalarNode scalar = (ScalarNode) node;
+      copy = new ScalarNode(node.getTag(), true, scalar.getValue(), node.getStartMark(), node.getEndMark(), scalar.getScalarStyle());
+    }
+
+    else
+      throw new IllegalStateException("Cannot copy a node of type " + node.getNodeId());
+
+    copyNodeProperties(node, copy);
+    return copy;
+  }
+
+  private void copyNodeProperties(Node node, Node copy) {
+    copyCommentsAndAnchor(node, copy);
+    markOwned(copy);
+  }
+
+  private void copyCommentsAndAnchor(Node node, Node copy) {
+    copy.setAnchor(node.getAnchor());
+    copy.setBlockComments(node.getBlockComments());
+    copy.setInLineComments(node.getInLineComments());
+    copy.setEndComments(node.getEndComments());
+  }
+
+  /**
+   * Locates a target key's containing node tuple within a mapping node's list of tuples
+   * @param node Node to search in
+   * @param key Target key
+   * @return Target tuple if found, null on absent key
+   */
+  private @Nullable NodeTuple locateKey(MappingNode node, String key) {
+    long generation = this.keyIndexGeneration;
+
+    return locateKeyCache.computeIfAbsentOrStale(
+      node,
+      index -> index.getGeneration() != generation,
+      k -> new MappingKeyIndex(expressionMarkerSuffix, generation)
+    ).lookup(node, key);
   }
 
   /**
@@ -861,16 +2483,122 @@ public class YamlConfig implements IConfig {
    * @return Unwrapped node as a Java value
    */
   private @Nullable Object unwrapNode(Node node, boolean markedForExpressions) {
+    return unwrapNode(node, markedForExpressions, false);
+  }
+
+  /**
+   * Unwraps any given node by unwrapping scalar values first, then - if applicable - collecting them
+   * into maps or lists, as by the node's tag. Null tags will result in null values. Shared nodes are
+   * only unwrapped once and then handed out as the same, read-only value on every further occurrence.
+   * @param node Node to unwrap
+   * @param markedForExpressions Whether expressions should be parsed
+   * @param readOnly Whether to wrap collections as unmodifiable
+   * @return Unwrapped node as a Java value
+   */
+  private @Nullable Object unwrapNode(Node node, boolean markedForExpressions, boolean readOnly) {
     if (node instanceof ScalarNode)
       return unwrapScalarNode((ScalarNode) node, markedForExpressions);
 
+    if (sharedNodes.contains(node)) {
+      Map<Node, Object> valueCache = markedForExpressions ? sharedExpressionValues : sharedPlainValues;
+      Object value = valueCache.get(node);
+
+      if (value == null) {
+        logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Unwrapping shared node at " + node.getStartMark());
+
+        value = unwrapCollectionNode(node, markedForExpressions, true);
+
+        // Concurrent readers may have unwrapped the same node meanwhile, only ever hand out the first value
+        Object existingValue = valueCache.putIfAbsent(node, value);
+
+        if (existingValue != null)
+          return existingValue;
+
+        sharedValues.add(value);
+      }
+
+      return value;
+    }
+
+    if (memoizeValues)
+      return unwrapMemoizedNode(node, markedForExpressions);
+
+    return unwrapCollectionNode(node, markedForExpressions, readOnly);
+  }
+
+  /**
+   * Unwraps a non-shared collection node as read-only, or hands out it's memoized value of the current generation
+   * @param node Node to unwrap
+   * @param markedForExpressions Whether expressions should be parsed
+   * @return Unwrapped node as a Java value
+   */
+  private Object unwrapMemoizedNode(Node node, boolean markedForExpressions) {
+    long generation = this.memoizedValueGeneration;
+
+    MemoizedValue memoizedValue = memoizedValues.getUnlessStale(
+      node, value -> value.generation != generation || value.markedForExpressions != markedForExpressions
+    );
+
+    if (memoizedValue != null)
+      return memoizedValue.value;
+
+    // Memoized children are reused as they are, which is why altering a node has to drop all of it's ancestors
+    Object value = unwrapCollectionNode(node, markedForExpressions, true);
+    memoizedValues.put(node, new MemoizedValue(value, markedForExpressions, generation, estimateWeight(value)));
+    return value;
+  }
+
+  /**
+   * Roughly estimates the number of bytes held by an unwrapped value, including it's children
+   * @param value Unwrapped value
+   * @return Estimated number of bytes
+   */
+  private static long estimateWeight(@Nullable Object value) {
+    if (value == null)
+      return 0;
+
+    if (value instanceof String)
+      return 40 + 2L * ((String) value).length();
+
+    if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      long weight = 56 + 8L * list.size();
+
+      for (Object item : list)
+        weight += estimateWeight(item);
+
+      return weight;
+    }
+
+    if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      long weight = 72 + 48L * map.size();
+
+      for (Map.Entry<?, ?> entry : map.entrySet())
+        weight += estimateWeight(entry.getKey()) + estimateWeight(entry.getValue());
+
+      return weight;
+    }
+
+    // Boxed scalars and parsed expressions
+    return 16;
+  }
+
+  /**
+   * Unwraps a non-scalar node by unwrapping all of it's children and collecting them into a map or a list
+   * @param node Node to unwrap
+   * @param markedForExpressions Whether expressions should be parsed
+   * @param readOnly Whether to wrap collections as unmodifiable
+   * @return Unwrapped node as a Java value
+   */
+  private Object unwrapCollectionNode(Node node, boolean markedForExpressions, boolean readOnly) {
     if (node instanceof SequenceNode) {
       List<Object> values = new ArrayList<>();
 
       for (Node item : ((SequenceNode) node).getValue())
-        values.add(unwrapNode(item, markedForExpressions));
+        values.add(unwrapNode(item, markedForExpressions, readOnly));
 
-      return values;
+      return readOnly ? Collections.unmodifiableList(values) : values;
     }
 
     if (node instanceof MappingNode) {
@@ -893,10 +2621,10 @@ public class YamlConfig implements IConfig {
           }
         }
 
-        values.put(key, unwrapNode(item.getValueNode(), isItemMarkedForExpressions));
+        values.put(key, unwrapNode(item.getValueNode(), isItemMarkedForExpressions, readOnly));
       }
 
-      return values;
+      return readOnly ? Collections.unmodifiableMap(values) : values;
     }
 
     throw new IllegalStateException("Encountered unknown node type >" + node.getType().getName() + "<");
@@ -945,7 +2673,7 @@ public class YamlConfig implements IConfig {
    * @param markedForExpressions Whether expressions should be parsed
    * @return Unwrapped java value
    */
-  private @Nullable Object unwrapScalarNode(ScalarNode node, boolean markedForExpressions) {
+  @Nullable Object unwrapScalarNode(ScalarNode node, boolean markedForExpressions) {
     Tag tag = node.getTag();
 
     if (tag == Tag.NULL)
@@ -954,7 +2682,7 @@ public class YamlConfig implements IConfig {
     // If a node is marked for expression either itself or by a parent node, it
     // will be parsed as such, no matter it's tag, as it's a user-choice
     if (evaluator != null && markedForExpressions)
-      return evaluator.optimizeExpression(evaluator.parseString(node.getValue()));
+      return parseExpression(node);
 
     if (tag == Tag.STR)
       return node.getValue();
@@ -971,6 +2699,25 @@ public class YamlConfig implements IConfig {
     throw new IllegalStateException("Encountered unknown scalar node type >" + tag + "<");
   }
 
+  /**
+   * Parses and optimizes the value of a scalar node as an expression, or hands out the
+   * expression which has previously been parsed from the node's current value
+   * @param node Node to parse the value of, while an evaluator is present
+   * @return Optimized expression, shared with all equal values of configs using the same evaluator
+   */
+  private AExpression parseExpression(ScalarNode node) {
+    String source = node.getValue();
+    ParsedExpression parsedExpression = parsedExpressionCache.getUnlessStale(node, parsed -> !parsed.source.equals(source));
+
+    if (parsedExpression != null)
+      return parsedExpression.expression;
+
+    // Nodes of equal values look up the same interned expression, which spares parsing it again
+    AExpression expression = expressionTable.intern(evaluator, source);
+    parsedExpressionCache.put(node, new ParsedExpression(source, expression));
+    return expression;
+  }
+
   /**
    * Wraps a Java object into a suited containing {@link ScalarNode}, if possible
    * @param value Value to wrap
@@ -0,0 +1,225 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Saves a config to a file in the background whenever it has been modified. Bursts of modifications
+ * are coalesced into a single save, which takes place once no further modification occurred within
+ * the debounce window, but no later than the maximum delay after the first unsaved modification.
+ * Saves are executed one after the other on a single thread, and at most one further save is queued
+ * while another one is running, no matter how many modifications occur meanwhile. Failed saves are
+ * retried while the config remains dirty, with a delay starting at the debounce window which doubles
+ * on every consecutive failure, up to a minute.
+ */
+public class YamlConfigAutoSaver implements FConfigChangeListener, AutoCloseable {
+
+  private static final long MIN_RETRY_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final YamlConfig config;
+  private final Path path;
+  private final Logger logger;
+  private final long debounceNanos;
+  private final long maxDelayNanos;
+  private final ScheduledExecutorService executor;
+
+  // Most recently scheduled save, which may already have started or completed
+  private @Nullable ScheduledFuture<?> pendingSave;
+
+  // Time of the first modification which has not yet been picked up by a save, -1 if there's none
+  private long firstPendingChange;
+
+  private @Nullable IOException lastFailure;
+  private int consecutiveFailures;
+  private boolean closed;
+
+  /**
+   * Create a new auto-saver and register it as a listener of the provided config
+   * @param config Config to save whenever it's been modified
+   * @param path Path of the file to save to
+   * @param logger Logger to use for logging events
+   * @param debounceMillis Duration without modifications after which a save takes place
+   * @param maxDelayMillis Maximum duration between the first unsaved modification and it's save
+   */
+  public YamlConfigAutoSaver(YamlConfig config, Path path, Logger logger, long debounceMillis, long maxDelayMillis) {
+    if (config.isSnapshot())
+      throw new IllegalArgumentException("Snapshots cannot be modified and thus don't need to be saved");
+
+    if (debounceMillis < 0)
+      throw new IllegalArgumentException("The debounce window cannot be negative");
+
+    if (maxDelayMillis < debounceMillis)
+      throw new IllegalArgumentException("The maximum delay cannot be shorter than the debounce window");
+
+    this.config = config;
+    this.path = path;
+    this.logger = logger;
+    this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    this.firstPendingChange = -1;
+
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "YamlConfig-AutoSaver");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    config.addChangeListener(this);
+  }
+
+  @Override
+  public synchronized void onChange(YamlConfig config, @Nullable String path) {
+    if (closed)
+      return;
+
+    long now = System.nanoTime();
+
+    if (firstPendingChange < 0)
+      firstPendingChange = now;
+
+    long delay = Math.min(now + debounceNanos, firstPendingChange + maxDelayNanos) - now;
+
+    // Postpone the pending save; if it already started, the new one is queued up behind it
+    if (pendingSave != null)
+      pendingSave.cancel(false);
+
+    pendingSave = executor.schedule(this::saveInBackground, Math.max(0, delay), TimeUnit.NANOSECONDS);
+  }
+
+  private void saveInBackground() {
+    // All modifications up until now will be captured by this save; the pending save is left
+    // in place, as it may already refer to the next save which has been queued up meanwhile
+    synchronized (this) {
+      firstPendingChange = -1;
+    }
+
+    try {
+      config.save(path);
+
+      synchronized (this) {
+        consecutiveFailures = 0;
+      }
+    } catch (IOException e) {
+      boolean dirty = config.isDirty();
+
+      synchronized (this) {
+        lastFailure = e;
+        ++consecutiveFailures;
+
+        // Modifications which occurred meanwhile already scheduled another save
+        if (closed || !dirty || firstPendingChange >= 0) {
+          logger.log(Level.WARNING, "Could not save to " + path + " in the background", e);
+          return;
+        }
+
+        long retryDelay = Math.max(debounceNanos, MIN_RETRY_DELAY_NANOS);
+
+        for (int i = 1; i < consecutiveFailures && retryDelay < MAX_RETRY_DELAY_NANOS; i++)
+          retryDelay *= 2;
+
+        retryDelay = Math.min(retryDelay, MAX_RETRY_DELAY_NANOS);
+
+        logger.log(Level.WARNING, "Could not save to " + path + " in the background, retrying in " + TimeUnit.NANOSECONDS.toMillis(retryDelay) + "ms", e);
+        pendingSave = executor.schedule(this::saveInBackground, retryDelay, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  /**
+   * Immediately saves all pending modifications, while blocking until a save which is
+   * currently running in the background as well as the flushing save have completed
+   * @return True if the file has been written, false if there was nothing to save
+   * @throws IOException If the file could not be written
+   * @throws InterruptedException If interrupted while waiting for the save to complete
+   */
+  public boolean flush() throws IOException, InterruptedException {
+    Future<Boolean> flushingSave;
+
+    synchronized (this) {
+      if (pendingSave != null) {
+        pendingSave.cancel(false);
+        pendingSave = null;
+      }
+
+      firstPendingChange = -1;
+
+      // Saves always run on the executor, which keeps them in order
+      flushingSave = closed ? null : executor.submit(() -> config.save(path));
+    }
+
+    if (flushingSave == null)
+      return config.save(path);
+
+    try {
+      return flushingSave.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+
+      if (cause instanceof IOException)
+        throw (IOException) cause;
+
+      if (cause instanceof RuntimeException)
+        throw (RuntimeException) cause;
+
+      throw new IllegalStateException("Could not flush the config", cause);
+    }
+  }
+
+  /**
+   * Get the error of the last background save which failed, if any
+   */
+  public synchronized @Nullable IOException getLastFailure() {
+    return lastFailure;
+  }
+
+  /**
+   * Stops listening to modifications and flushes all pending modifications
+   * @throws IOException If the file could not be written
+   */
+  @Override
+  public void close() throws IOException {
+    config.removeChangeListener(this);
+
+    try {
+      flush();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      synchronized (this) {
+        closed = true;
+      }
+
+      executor.shutdown();
+    }
+  }
+}
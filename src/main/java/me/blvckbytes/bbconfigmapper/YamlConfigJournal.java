@@ -0,0 +1,646 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import me.blvckbytes.bbconfigmapper.logging.DebugLogSource;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of a config, which persists each {@link #set} and {@link #remove} by appending
+ * a compact binary record to the journal file, instead of saving the whole document. Loading reads the
+ * base file and replays all journaled records on top of it. As soon as the journal grows past it's
+ * compaction threshold, it's rotated away and a snapshot of the config is saved as the new base file
+ * in the background, after which the rotated records are discarded.
+ * <p>
+ * Records are appended and synced to disk before the config is modified, and taken back again if the
+ * config rejects the modification. Syncing may be disabled, trading durability against a crash of the
+ * operating system for throughput. Records are framed by their length and a checksum, so that a record
+ * which has been torn by a crash is detected and cut off. Replaying records is idempotent, as every record assigns or removes a whole
+ * path: replaying records which already made it into the base file yields the very same tree again.
+ * Modifications which bypass the journal, like comments, are only persisted by the next compaction.
+ */
+public class YamlConfigJournal implements AutoCloseable {
+
+  private static final byte OP_SET = 1;
+  private static final byte OP_REMOVE = 2;
+
+  private static final byte TAG_NULL = 0;
+  private static final byte TAG_BOOLEAN = 1;
+  private static final byte TAG_LONG = 2;
+  private static final byte TAG_DOUBLE = 3;
+  private static final byte TAG_FLOAT = 4;
+  private static final byte TAG_STRING = 5;
+  private static final byte TAG_LIST = 6;
+  private static final byte TAG_MAP = 7;
+
+  // Length and checksum of the payload
+  private static final int RECORD_HEADER_SIZE = 8;
+
+  private final YamlConfig config;
+  private final Path basePath;
+  private final Path journalPath;
+  private final Path rotatedPath;
+  private final Logger logger;
+  private final long compactionThreshold;
+  private final ExecutorService executor;
+
+  private @Nullable FileChannel channel;
+  private @Nullable Future<?> compaction;
+  private boolean compacting;
+  private boolean syncOnAppend;
+
+  /**
+   * Create a new journal, which is only ready to accept modifications after it has been loaded
+   * @param config Config to load into and to apply modifications to
+   * @param basePath Path of the base file, which holds the last compacted state
+   * @param journalPath Path of the journal file, which holds all records since
+   * @param logger Logger to use for logging events
+   * @param compactionThreshold Size of the journal in bytes at which it's compacted, zero to never compact automatically
+   */
+  public YamlConfigJournal(YamlConfig config, Path basePath, Path journalPath, Logger logger, long compactionThreshold) {
+    if (config.isSnapshot())
+      throw new IllegalArgumentException("Snapshots cannot be modified and thus cannot be journaled");
+
+    if (compactionThreshold < 0)
+      throw new IllegalArgumentException("The compaction threshold cannot be negative");
+
+    this.config = config;
+    this.basePath = basePath;
+    this.journalPath = journalPath;
+    this.rotatedPath = journalPath.resolveSibling(journalPath.getFileName() + ".compacting");
+    this.logger = logger;
+    this.compactionThreshold = compactionThreshold;
+    this.syncOnAppend = true;
+
+    this.executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "YamlConfig-Journal-Compactor");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Loads the base file into the config and replays all journaled records on top of it, where
+   * a missing base file is treated as an empty config. Torn records at the end of the journal
+   * are cut off, so that subsequent records are appended right after the last intact one.
+   * @throws IOException If any of the files could not be read
+   * @throws InterruptedException If interrupted while waiting for a running compaction
+   */
+  public void load() throws IOException, InterruptedException {
+    awaitCompaction();
+
+    synchronized (this) {
+      closeChannel();
+
+      if (Files.exists(basePath)) {
+        try (
+          Reader reader = Files.newBufferedReader(basePath, StandardCharsets.UTF_8)
+        ) {
+          config.load(reader);
+        }
+      }
+
+      else
+        config.load(new StringReader(""));
+
+      // Records of a compaction which didn't complete precede the current records
+      if (Files.exists(rotatedPath))
+        replay(rotatedPath);
+
+      if (Files.exists(journalPath)) {
+        long validLength = replay(journalPath);
+
+        if (validLength < Files.size(journalPath)) {
+          logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Cutting off a torn record at position " + validLength + " of " + journalPath);
+
+          try (
+            FileChannel truncatedChannel = FileChannel.open(journalPath, StandardOpenOption.WRITE)
+          ) {
+            truncatedChannel.truncate(validLength);
+          }
+        }
+      }
+
+      this.channel = openJournal();
+    }
+  }
+
+  /**
+   * Sets a value within the config and appends the modification to the journal
+   * @param path Path to set the value at
+   * @param value Value to set, of any type supported by {@link YamlConfig#set}
+   * @throws IOException If the journal could not be written
+   */
+  public synchronized void set(@Nullable String path, @Nullable Object value) throws IOException {
+    FileChannel journal = requireLoaded();
+
+    // Encoding validates the value's type before the record is appended
+    byte[] record = encodeRecord(OP_SET, path, value);
+    long recordStart = append(journal, record);
+
+    try {
+      config.set(path, value);
+    } catch (RuntimeException e) {
+      revokeRecord(journal, recordStart, e);
+      throw e;
+    }
+
+    compactIfExceeded(journal);
+  }
+
+  /**
+   * Removes a path from the config and appends the modification to the journal
+   * @param path Path to remove
+   * @throws IOException If the journal could not be written
+   */
+  public synchronized void remove(@Nullable String path) throws IOException {
+    FileChannel journal = requireLoaded();
+    byte[] record = encodeRecord(OP_REMOVE, path, null);
+    long recordStart = append(journal, record);
+
+    try {
+      config.remove(path);
+    } catch (RuntimeException e) {
+      revokeRecord(journal, recordStart, e);
+      throw e;
+    }
+
+    compactIfExceeded(journal);
+  }
+
+  /**
+   * Decides whether every appended record is synced to disk before the config is modified, which
+   * is the default; without syncing, records only survive a crash of the process, not of the system
+   * @param syncOnAppend Whether to sync every record
+   */
+  public synchronized void setSyncOnAppend(boolean syncOnAppend) {
+    this.syncOnAppend = syncOnAppend;
+  }
+
+  /**
+   * Compacts the journal into the base file right away, after a running compaction completed
+   * @throws IOException If the base file could not be written
+   * @throws InterruptedException If interrupted while waiting for a running compaction
+   */
+  public void compact() throws IOException, InterruptedException {
+    Future<?> requestedCompaction;
+
+    while (true) {
+      awaitCompaction();
+
+      synchronized (this) {
+        FileChannel journal = requireLoaded();
+
+        if (!compacting) {
+          requestedCompaction = scheduleCompaction(journal);
+          break;
+        }
+      }
+    }
+
+    try {
+      requestedCompaction.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+
+      if (cause instanceof UncheckedIOException)
+        throw ((UncheckedIOException) cause).getCause();
+
+      if (cause instanceof RuntimeException)
+        throw (RuntimeException) cause;
+
+      throw new IllegalStateException("Could not compact the journal", cause);
+    }
+  }
+
+  /**
+   * Waits for a running compaction to complete and closes the journal
+   * @throws IOException If the journal could not be closed
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      awaitCompaction();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      synchronized (this) {
+        closeChannel();
+      }
+
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Appends a record to the journal and syncs it, if enabled, while a partially written record is cut off again
+   * @param journal Current journal channel
+   * @param record Encoded record
+   * @return Position of the record within the journal
+   */
+  private long append(FileChannel journal, byte[] record) throws IOException {
+    long recordStart = journal.size();
+    ByteBuffer buffer = ByteBuffer.wrap(record);
+
+    try {
+      while (buffer.hasRemaining())
+        journal.write(buffer);
+
+      if (syncOnAppend)
+        journal.force(false);
+    } catch (IOException e) {
+      revokeRecord(journal, recordStart, e);
+      throw e;
+    }
+
+    return recordStart;
+  }
+
+  /**
+   * Cuts off the last record of the journal, so that subsequent records are appended right after the previous one
+   * @param journal Current journal channel
+   * @param recordStart Position of the record within the journal
+   * @param cause Error which caused the record to be revoked, which receives failures of revoking as suppressed
+   */
+  private void revokeRecord(FileChannel journal, long recordStart, Exception cause) {
+    try {
+      journal.truncate(recordStart);
+
+      if (syncOnAppend)
+        journal.force(false);
+    } catch (IOException e) {
+      cause.addSuppressed(e);
+    }
+  }
+
+  private void compactIfExceeded(FileChannel journal) throws IOException {
+    if (compactionThreshold == 0 || compacting || journal.size() < compactionThreshold)
+      return;
+
+    scheduleCompaction(journal).exceptionally(e -> {
+      // The rotated records are kept and will be compacted along with the next rotation
+      logger.log(Level.WARNING, "Could not compact " + journalPath + " in the background", e);
+      return null;
+    });
+  }
+
+  /**
+   * Rotates the journal and saves a snapshot of the config as the new base file on the background
+   * thread, which all callers wait for; the caller is required to hold this instance's monitor
+   * @param journal Current journal channel, which is closed by rotating
+   * @return Future of the compaction
+   */
+  private CompletableFuture<Void> scheduleCompaction(FileChannel journal) throws IOException {
+    YamlConfig snapshot = beginCompaction(journal);
+
+    CompletableFuture<Void> result = CompletableFuture.runAsync(() -> {
+      try {
+        completeCompaction(snapshot);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, executor);
+
+    compaction = result;
+    return result;
+  }
+
+  /**
+   * Moves all current records to the rotated journal and takes a snapshot of the config, which
+   * reflects exactly those records; the caller is required to hold this instance's monitor
+   * @param journal Current journal channel
+   * @return Snapshot to save as the new base file
+   */
+  private YamlConfig beginCompaction(FileChannel journal) throws IOException {
+    journal.close();
+    this.channel = null;
+
+    // A previous compaction failed, so the current records are appended to it's records
+    if (Files.exists(rotatedPath)) {
+      try (
+        FileChannel source = FileChannel.open(journalPath, StandardOpenOption.READ);
+        FileChannel target = FileChannel.open(rotatedPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+      ) {
+        long size = source.size();
+        long position = 0;
+
+        while (position < size)
+          position += source.transferTo(position, size - position, target);
+
+        target.force(true);
+      }
+
+      Files.delete(journalPath);
+    }
+
+    else {
+      try {
+        Files.move(journalPath, rotatedPath, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(journalPath, rotatedPath);
+      }
+    }
+
+    this.channel = openJournal();
+    this.compacting = true;
+
+    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Rotated " + journalPath + " for compaction");
+
+    return config.snapshot();
+  }
+
+  private void completeCompaction(YamlConfig snapshot) throws IOException {
+    try {
+      snapshot.save(basePath);
+
+      synchronized (this) {
+        Files.deleteIfExists(rotatedPath);
+      }
+
+      logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Compacted " + journalPath + " into " + basePath);
+    } finally {
+      synchronized (this) {
+        compacting = false;
+      }
+    }
+  }
+
+  private void awaitCompaction() throws InterruptedException {
+    Future<?> runningCompaction;
+
+    synchronized (this) {
+      runningCompaction = compacting ? compaction : null;
+    }
+
+    if (runningCompaction == null)
+      return;
+
+    try {
+      runningCompaction.get();
+    } catch (ExecutionException e) {
+      // Failures are logged by the compaction itself
+    }
+  }
+
+  private FileChannel requireLoaded() {
+    if (channel == null)
+      throw new IllegalStateException("The journal has not yet been loaded or has already been closed");
+
+    return channel;
+  }
+
+  private FileChannel openJournal() throws IOException {
+    return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  private void closeChannel() throws IOException {
+    if (channel == null)
+      return;
+
+    channel.close();
+    channel = null;
+  }
+
+  /**
+   * Replays all intact records of a journal file onto the config
+   * @param path Path of the journal file
+   * @return Length of the journal up until the first torn record
+   */
+  private long replay(Path path) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+    CRC32 checksum = new CRC32();
+    int numberOfRecords = 0;
+
+    while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+      int recordStart = buffer.position();
+      int length = buffer.getInt();
+      int expectedChecksum = buffer.getInt();
+
+      if (length < 0 || length > buffer.remaining()) {
+        buffer.position(recordStart);
+        break;
+      }
+
+      byte[] payload = new byte[length];
+      buffer.get(payload);
+
+      checksum.reset();
+      checksum.update(payload);
+
+      if ((int) checksum.getValue() != expectedChecksum) {
+        buffer.position(recordStart);
+        break;
+      }
+
+      applyRecord(payload);
+      ++numberOfRecords;
+    }
+
+    int replayedRecords = numberOfRecords;
+    logger.log(Level.FINEST, () -> DebugLogSource.YAML + "Replayed " + replayedRecords + " records of " + path);
+
+    return buffer.position();
+  }
+
+  private void applyRecord(byte[] payload) throws IOException {
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+    byte operation = input.readByte();
+    String path = input.readBoolean() ? readString(input) : null;
+
+    if (operation == OP_SET) {
+      config.set(path, readValue(input));
+      return;
+    }
+
+    if (operation == OP_REMOVE) {
+      config.remove(path);
+      return;
+    }
+
+    throw new IllegalStateException("Encountered unknown journal operation " + operation);
+  }
+
+  private byte[] encodeRecord(byte operation, @Nullable String path, @Nullable Object value) {
+    try {
+      ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+      DataOutputStream payload = new DataOutputStream(payloadBytes);
+
+      payload.writeByte(operation);
+      payload.writeBoolean(path != null);
+
+      if (path != null)
+        writeString(payload, path);
+
+      if (operation == OP_SET)
+        writeValue(payload, value);
+
+      byte[] payloadArray = payloadBytes.toByteArray();
+
+      CRC32 checksum = new CRC32();
+      checksum.update(payloadArray);
+
+      return ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadArray.length)
+        .putInt(payloadArray.length)
+        .putInt((int) checksum.getValue())
+        .put(payloadArray)
+        .array();
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not encode a journal record", e);
+    }
+  }
+
+  private void writeValue(DataOutputStream output, @Nullable Object value) throws IOException {
+    if (value == null) {
+      output.writeByte(TAG_NULL);
+      return;
+    }
+
+    if (value instanceof Boolean) {
+      output.writeByte(TAG_BOOLEAN);
+      output.writeBoolean((Boolean) value);
+      return;
+    }
+
+    if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      output.writeByte(TAG_LONG);
+      output.writeLong(((Number) value).longValue());
+      return;
+    }
+
+    // Floats are kept as such, as their string representation differs from the widened double's
+    if (value instanceof Float) {
+      output.writeByte(TAG_FLOAT);
+      output.writeFloat((Float) value);
+      return;
+    }
+
+    if (value instanceof Double) {
+      output.writeByte(TAG_DOUBLE);
+      output.writeDouble((Double) value);
+      return;
+    }
+
+    if (value instanceof String) {
+      output.writeByte(TAG_STRING);
+      writeString(output, (String) value);
+      return;
+    }
+
+    if (value instanceof Collection) {
+      Collection<?> items = (Collection<?>) value;
+      output.writeByte(TAG_LIST);
+      output.writeInt(items.size());
+
+      for (Object item : items)
+        writeValue(output, item);
+
+      return;
+    }
+
+    if (value instanceof Map) {
+      Map<?, ?> entries = (Map<?, ?>) value;
+      output.writeByte(TAG_MAP);
+      output.writeInt(entries.size());
+
+      for (Map.Entry<?, ?> entry : entries.entrySet()) {
+        writeString(output, String.valueOf(entry.getKey()));
+        writeValue(output, entry.getValue());
+      }
+
+      return;
+    }
+
+    throw new IllegalArgumentException("Cannot store a value of type " + value.getClass());
+  }
+
+  private @Nullable Object readValue(DataInputStream input) throws IOException {
+    byte tag = input.readByte();
+
+    if (tag == TAG_NULL)
+      return null;
+
+    if (tag == TAG_BOOLEAN)
+      return input.readBoolean();
+
+    if (tag == TAG_LONG)
+      return input.readLong();
+
+    if (tag == TAG_FLOAT)
+      return input.readFloat();
+
+    if (tag == TAG_DOUBLE)
+      return input.readDouble();
+
+    if (tag == TAG_STRING)
+      return readString(input);
+
+    if (tag == TAG_LIST) {
+      int size = input.readInt();
+      List<Object> items = new ArrayList<>(size);
+
+      for (int i = 0; i < size; i++)
+        items.add(readValue(input));
+
+      return items;
+    }
+
+    if (tag == TAG_MAP) {
+      int size = input.readInt();
+      Map<String, Object> entries = new LinkedHashMap<>();
+
+      for (int i = 0; i < size; i++)
+        entries.put(readString(input), readValue(input));
+
+      return entries;
+    }
+
+    throw new IllegalStateException("Encountered unknown journal value tag " + tag);
+  }
+
+  // DataOutput#writeUTF is limited to 64K bytes, which long strings may exceed
+
+  private void writeString(DataOutputStream output, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private String readString(DataInputStream input) throws IOException {
+    byte[] bytes = new byte[input.readInt()];
+    input.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
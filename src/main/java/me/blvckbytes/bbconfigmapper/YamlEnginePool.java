@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool of SnakeYAML engines, as a single {@link Yaml} instance must not be used by multiple threads
+ * at once. Engines are created on demand whenever there's no idle engine available, so the number
+ * of engines grows with the number of concurrent users, while at most a bounded number of engines
+ * is retained while idle. Other than thread-locals, pooled engines are not pinned to the threads
+ * which used them, and thus don't keep a class loader alive when being used by short-lived threads.
+ */
+public class YamlEnginePool {
+
+  private final Supplier<Yaml> engineFactory;
+  private final int maxIdleEngines;
+  private final Queue<Yaml> idleEngines;
+  private final AtomicInteger idleEngineCount;
+
+  /**
+   * Create a new pool of engines
+   * @param engineFactory Factory of new engines, which all have to be configured equally
+   * @param maxIdleEngines Maximum number of engines to retain while they're idle
+   */
+  public YamlEnginePool(Supplier<Yaml> engineFactory, int maxIdleEngines) {
+    if (maxIdleEngines < 1)
+      throw new IllegalArgumentException("At least one idle engine has to be retained");
+
+    this.engineFactory = engineFactory;
+    this.maxIdleEngines = maxIdleEngines;
+    this.idleEngines = new ConcurrentLinkedQueue<>();
+    this.idleEngineCount = new AtomicInteger();
+  }
+
+  /**
+   * Borrow an engine for exclusive use, which has to be handed back by {@link #release} as soon as the
+   * operation completed, including the consumption of all lazily evaluated results the engine produced
+   * @return Idle or newly created engine
+   */
+  public Yaml borrow() {
+    Yaml engine = idleEngines.poll();
+
+    if (engine == null)
+      return engineFactory.get();
+
+    idleEngineCount.decrementAndGet();
+    return engine;
+  }
+
+  /**
+   * Hand back an engine which has previously been borrowed, which must not be used anymore afterwards
+   * @param engine Engine to hand back
+   */
+  public void release(Yaml engine) {
+    // Drop engines which exceed the limit, as they've only been required by a temporary spike
+    if (idleEngineCount.incrementAndGet() > maxIdleEngines) {
+      idleEngineCount.decrementAndGet();
+      return;
+    }
+
+    idleEngines.offer(engine);
+  }
+
+  /**
+   * Get the number of engines which are currently idle
+   */
+  public int getIdleEngineCount() {
+    return idleEngineCount.get();
+  }
+}
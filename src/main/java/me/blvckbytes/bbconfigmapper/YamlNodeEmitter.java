@@ -0,0 +1,417 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.comments.CommentLine;
+import org.yaml.snakeyaml.comments.CommentType;
+import org.yaml.snakeyaml.nodes.*;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Emits a node tree in block style by walking it directly, without the event objects and anchor
+ * bookkeeping of SnakeYAML's serializer and emitter. The output is the very same as SnakeYAML's for
+ * the dumper options used by {@link YamlConfig}, but only a well understood subset of trees is
+ * supported: those without anchors, flow collections or unusual comment placements, and with scalars
+ * whose style can be decided without a full analysis. Emitting returns null for all other trees, which
+ * are then to be serialized by SnakeYAML, so that there's never any deviation in the output.
+ */
+class YamlNodeEmitter {
+
+  private static final Resolver RESOLVER = new Resolver();
+
+  // Longer keys are emitted as complex keys by SnakeYAML
+  private static final int MAX_SIMPLE_KEY_LENGTH = 100;
+
+  private final Set<NodeTuple> excludedTuples;
+  private final Set<Node> visitedNodes;
+  private final StringBuilder output;
+
+  private YamlNodeEmitter(Set<NodeTuple> excludedTuples) {
+    this.excludedTuples = excludedTuples;
+    this.visitedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+    this.output = new StringBuilder();
+  }
+
+  /**
+   * Emits a tree in block style
+   * @param root Root node of the tree
+   * @param excludedTuples Tuples which are to be left out, compared by identity
+   * @return Emitted text, null if the tree is not supported and has to be serialized by SnakeYAML
+   */
+  static @Nullable String emit(MappingNode root, Set<NodeTuple> excludedTuples) {
+    if (hasComments(root.getBlockComments()) || hasComments(root.getInLineComments()))
+      return null;
+
+    YamlNodeEmitter emitter = new YamlNodeEmitter(excludedTuples);
+
+    if (!emitter.emitMapping(root, 0, false))
+      return null;
+
+    List<CommentLine> endComments = root.getEndComments();
+
+    if (endComments != null && !emitter.emitBlockComments(endComments, 0))
+      return null;
+
+    return emitter.output.toString();
+  }
+
+  /**
+   * Emits a non-empty block mapping, one key per line
+   * @param mapping Mapping to emit
+   * @param indent Indentation of all keys
+   * @param firstKeyInline Whether the first key continues the current line, as it follows a sequence indicator
+   * @return False if the mapping is not supported
+   */
+  private boolean emitMapping(MappingNode mapping, int indent, boolean firstKeyInline) {
+    if (!visitNode(mapping))
+      return false;
+
+    boolean isFirstKey = true;
+
+    for (NodeTuple tuple : mapping.getValue()) {
+      if (excludedTuples.contains(tuple))
+        continue;
+
+      if (!(tuple.getKeyNode() instanceof ScalarNode))
+        return false;
+
+      ScalarNode key = (ScalarNode) tuple.getKeyNode();
+      Node value = tuple.getValueNode();
+      boolean isInline = isFirstKey && firstKeyInline;
+
+      List<CommentLine> keyComments = key.getBlockComments();
+
+      if (hasComments(keyComments)) {
+        if (isInline || !emitBlockComments(keyComments, indent))
+          return false;
+      }
+
+      if (!isInline)
+        appendIndent(indent);
+
+      if (key.getValue().isEmpty() || key.getValue().length() > MAX_SIMPLE_KEY_LENGTH || hasComments(key.getEndComments()) || !emitScalar(key))
+        return false;
+
+      output.append(':');
+
+      if (value instanceof ScalarNode) {
+        if (hasComments(key.getInLineComments()) || !emitScalarValue((ScalarNode) value))
+          return false;
+      }
+
+      else if (!emitCollectionValue(value, indent, key.getInLineComments(), false))
+        return false;
+
+      isFirstKey = false;
+    }
+
+    // Only non-empty mappings are emitted in block style
+    return !isFirstKey;
+  }
+
+  /**
+   * Emits a non-empty block sequence, one item per line
+   * @param sequence Sequence to emit
+   * @param indent Indentation of all indicators
+   * @param firstItemInline Whether the first item continues the current line, as it follows a sequence indicator
+   * @return False if the sequence is not supported
+   */
+  private boolean emitSequence(SequenceNode sequence, int indent, boolean firstItemInline) {
+    if (!visitNode(sequence))
+      return false;
+
+    List<Node> items = sequence.getValue();
+
+    if (items.isEmpty())
+      return false;
+
+    for (int i = 0; i < items.size(); i++) {
+      Node item = items.get(i);
+
+      // Comments above items are placed behind their indicator by SnakeYAML
+      if (hasComments(item.getBlockComments()))
+        return false;
+
+      if (i > 0 || !firstItemInline)
+        appendIndent(indent);
+
+      output.append('-');
+
+      if (item instanceof ScalarNode) {
+        if (!emitScalarValue((ScalarNode) item))
+          return false;
+
+        continue;
+      }
+
+      if (!emitCollectionValue(item, indent, null, true))
+        return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Emits a collection which follows either a key or a sequence indicator
+   * @param value Collection to emit
+   * @param indent Indentation of the key or the indicator
+   * @param keyComments In-line comments of the key, which precede the collection
+   * @param isSequenceItem Whether the collection follows a sequence indicator
+   * @return False if the collection is not supported
+   */
+  private boolean emitCollectionValue(Node value, int indent, @Nullable List<CommentLine> keyComments, boolean isSequenceItem) {
+    if (
+      value.getAnchor() != null ||
+      hasComments(value.getBlockComments()) ||
+      hasComments(value.getInLineComments()) ||
+      hasComments(value.getEndComments())
+    )
+      return false;
+
+    boolean isEmpty;
+
+    if (value instanceof MappingNode)
+      isEmpty = ((MappingNode) value).getValue().stream().allMatch(excludedTuples::contains);
+    else if (value instanceof SequenceNode)
+      isEmpty = ((SequenceNode) value).getValue().isEmpty();
+    else
+      return false;
+
+    // Empty collections are always emitted in flow style
+    if (isEmpty) {
+      if (hasComments(keyComments) || !visitNode(value))
+        return false;
+
+      output.append(value instanceof MappingNode ? " {}" : " []").append('\n');
+      return true;
+    }
+
+    if (((CollectionNode<?>) value).getFlowStyle() == DumperOptions.FlowStyle.FLOW)
+      return false;
+
+    if (isSequenceItem) {
+      output.append(' ');
+
+      if (value instanceof MappingNode)
+        return emitMapping((MappingNode) value, indent + 2, true);
+
+      return emitSequence((SequenceNode) value, indent + 2, true);
+    }
+
+    if (value instanceof MappingNode) {
+      if (keyComments != null && !emitInLineComments(keyComments))
+        return false;
+
+      output.append('\n');
+      return emitMapping((MappingNode) value, indent + 2, false);
+    }
+
+    if (hasComments(keyComments))
+      return false;
+
+    // Sequences within mappings are not indented any further than their key
+    output.append('\n');
+    return emitSequence((SequenceNode) value, indent, false);
+  }
+
+  /**
+   * Emits a scalar which follows either a key or a sequence indicator, including it's in-line comments
+   * @param value Scalar to emit
+   * @return False if the scalar is not supported
+   */
+  private boolean emitScalarValue(ScalarNode value) {
+    if (hasComments(value.getBlockComments()) || hasComments(value.getEndComments()))
+      return false;
+
+    // Empty plain scalars are left out entirely, including their separator
+    if (!value.getValue().isEmpty())
+      output.append(' ');
+
+    if (!emitScalar(value))
+      return false;
+
+    List<CommentLine> inLineComments = value.getInLineComments();
+
+    if (inLineComments != null && !emitInLineComments(inLineComments))
+      return false;
+
+    output.append('\n');
+    return true;
+  }
+
+  /**
+   * Emits a scalar in the style SnakeYAML would choose for it
+   * @param scalar Scalar to emit
+   * @return False if the style cannot be decided without a full analysis
+   */
+  private boolean emitScalar(ScalarNode scalar) {
+    if (scalar.getAnchor() != null)
+      return false;
+
+    String value = scalar.getValue();
+    Tag tag = scalar.getTag();
+    DumperOptions.ScalarStyle style = scalar.getScalarStyle();
+
+    if (style == DumperOptions.ScalarStyle.PLAIN) {
+      boolean resolvesImplicitly = RESOLVER.resolve(NodeId.scalar, value, true).equals(tag);
+
+      if (resolvesImplicitly && (value.isEmpty() ? tag == Tag.NULL : isSafePlain(value))) {
+        output.append(value);
+        return true;
+      }
+
+      // Plain scalars which resolve to another tag are single quoted; all others would require an analysis
+      if (resolvesImplicitly || tag != Tag.STR || !isSafeQuoted(value, '\''))
+        return false;
+
+      output.append('\'').append(value).append('\'');
+      return true;
+    }
+
+    if (tag != Tag.STR)
+      return false;
+
+    if (style == DumperOptions.ScalarStyle.DOUBLE_QUOTED && isSafeQuoted(value, '"')) {
+      output.append('"').append(value).append('"');
+      return true;
+    }
+
+    if (style == DumperOptions.ScalarStyle.SINGLE_QUOTED && isSafeQuoted(value, '\'')) {
+      output.append('\'').append(value).append('\'');
+      return true;
+    }
+
+    return false;
+  }
+
+  private boolean emitBlockComments(List<CommentLine> comments, int indent) {
+    for (CommentLine comment : comments) {
+      if (comment.getCommentType() == CommentType.BLANK_LINE) {
+        output.append('\n');
+        continue;
+      }
+
+      if (comment.getCommentType() != CommentType.BLOCK)
+        return false;
+
+      appendIndent(indent);
+      output.append('#').append(comment.getValue()).append('\n');
+    }
+
+    return true;
+  }
+
+  private boolean emitInLineComments(List<CommentLine> comments) {
+    for (CommentLine comment : comments) {
+      if (comment.getCommentType() != CommentType.IN_LINE)
+        return false;
+
+      output.append(" #").append(comment.getValue());
+    }
+
+    return true;
+  }
+
+  /**
+   * Remembers a collection as visited, as collections which are reachable by multiple
+   * paths would have to be emitted as an anchor and it's aliases
+   * @param node Collection to visit
+   * @return False if the collection has already been visited
+   */
+  private boolean visitNode(Node node) {
+    return node.getAnchor() == null && visitedNodes.add(node);
+  }
+
+  private void appendIndent(int indent) {
+    for (int i = 0; i < indent; i++)
+      output.append(' ');
+  }
+
+  private static boolean hasComments(@Nullable List<CommentLine> comments) {
+    return comments != null && !comments.isEmpty();
+  }
+
+  /**
+   * Checks whether a value is certainly emitted as a plain scalar, which is the
+   * case for words made up of alphanumeric characters and a few harmless symbols
+   * @param value Value to check
+   * @return True if the value can be emitted plainly
+   */
+  private static boolean isSafePlain(String value) {
+    char firstChar = value.charAt(0);
+
+    if (firstChar == '-') {
+      if (value.length() == 1 || value.charAt(1) == ' ')
+        return false;
+    }
+
+    else if (!isAlphanumeric(firstChar) && firstChar != '_')
+      return false;
+
+    if (value.charAt(value.length() - 1) == ' ')
+      return false;
+
+    for (int i = 1; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      if (!isAlphanumeric(c) && "_-+. /()$".indexOf(c) < 0)
+        return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Checks whether a value is certainly emitted unchanged between quotes, which is the case for
+   * printable ASCII characters except for the quote itself, escapes and surrounding whitespace
+   * @param value Value to check
+   * @param quote Quote to be surrounded by
+   * @return True if the value can be emitted between quotes
+   */
+  private static boolean isSafeQuoted(String value, char quote) {
+    if (value.isEmpty() || value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ')
+      return false;
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      if (c < 0x20 || c > 0x7E || c == quote || c == '\\')
+        return false;
+    }
+
+    return true;
+  }
+
+  private static boolean isAlphanumeric(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+  }
+}
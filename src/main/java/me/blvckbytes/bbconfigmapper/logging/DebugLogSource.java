@@ -26,5 +26,6 @@ package me.blvckbytes.bbconfigmapper.logging;
 
 public enum DebugLogSource {
   MAPPER,
+  REPOSITORY,
   YAML
 }
@@ -112,10 +112,20 @@ public class PreProcessor {
     return result;
   }
 
+  /**
+   * Calls the handler on all scalar values of a config, which may alter them in place. The config's
+   * key indices and memoized values are dropped afterwards, as both may reflect the previous values.
+   */
   public void forEachScalarValue(YamlConfig config, ScalarNodeHandler handler) throws Exception {
     forEachScalarValue(config.getRootNode(), null, config.getExpressionMarkerSuffix(), handler);
+    config.clearKeyCache();
   }
 
+  /**
+   * Alters the value of a scalar node in place, which is immutable otherwise. Scalars and expressions
+   * parsed by a config remember their source and are thus parsed again on their next read, while maps
+   * and lists memoized by the config are only unwrapped again after {@link YamlConfig#clearKeyCache()}.
+   */
   public void setScalarValue(ScalarNode node, String value) throws Exception {
     this.scalarNodeValueField.set(node, value);
   }
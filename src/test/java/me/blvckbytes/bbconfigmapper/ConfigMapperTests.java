@@ -28,6 +28,10 @@ import me.blvckbytes.bbconfigmapper.sections.*;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ConfigMapperTests {
@@ -333,6 +337,173 @@ public class ConfigMapperTests {
     assertEquals("Hello, world", section.getCustomObject().value);
   }
 
+  @Test
+  public void shouldMapSectionWithColumnarTable() throws Exception {
+    IConfigMapper mapper = helper.makeMapper("columnar_table.yml");
+    BlockValueTableSection section = mapper.mapSection(null, BlockValueTableSection.class);
+
+    assertEquals("block values", section.getName());
+
+    ColumnarTable<BlockValueSection> table = section.getValues();
+    assertEquals(3, table.size());
+    assertEquals(5, table.getColumnCount());
+
+    ColumnarRow row = table.view();
+    assertEquals("STONE", row.getString("material"));
+    assertEquals(12L, row.getLong("value"));
+    assertEquals(1.5, row.getDouble("multiplier"));
+    assertTrue(row.getBoolean("enabled"));
+    assertEquals(64, row.getInt("max-stack"));
+
+    row.moveTo(1);
+    assertEquals("DIAMOND_ORE", row.getString("material"));
+    assertEquals(250L, row.getLong("value"));
+    assertEquals(2.0, row.getDouble("multiplier"));
+    assertFalse(row.getBoolean("enabled"));
+    assertEquals(16, row.getInt("max-stack"));
+
+    assertFalse(row.isNull("value"));
+    assertFalse(row.isNull("enabled"));
+
+    // Absent keys leave their cells at the column type's default value, while being marked as null
+    row.moveTo(2);
+    assertEquals("DIRT", row.getString("material"));
+    assertEquals(0L, row.getLong("value"));
+    assertEquals(0.0, row.getDouble("multiplier"));
+    assertFalse(row.getBoolean("enabled"));
+    assertTrue(row.isNull("value"));
+    assertTrue(row.isNull("multiplier"));
+    assertTrue(row.isNull("enabled"));
+    assertFalse(row.isNull("material"));
+    assertFalse(row.isNull("max-stack"));
+
+    int valueColumn = table.columnIndexOf("value");
+    long[] valueSum = { 0 };
+    table.forEachRow(currentRow -> valueSum[0] += currentRow.getLong(valueColumn));
+    assertEquals(262L, valueSum[0]);
+
+    assertThrows(IllegalArgumentException.class, () -> table.view().getString("value"));
+    assertThrows(IndexOutOfBoundsException.class, () -> table.view().moveTo(3));
+  }
+
+  @Test
+  public void shouldMapColumnarTableCellsIgnoringCase() throws Exception {
+    YamlConfig config = helper.makeConfig("columnar_table_mixed_case.yml");
+
+    for (IConfig source : List.of(config, config.freeze())) {
+      IConfigMapper mapper = helper.makeMapper(source);
+      ColumnarTable<BlockValueSection> table = mapper.mapSection(null, BlockValueTableSection.class).getValues();
+
+      ColumnarRow row = table.view();
+      assertEquals("STONE", row.getString("material"));
+      assertEquals(12L, row.getLong("value"));
+      assertEquals(64, row.getInt("max-stack"));
+
+      row.moveTo(1);
+      assertEquals("DIRT", row.getString("material"));
+      assertEquals(1L, row.getLong("value"));
+    }
+  }
+
+  @Test
+  public void shouldThrowOnColumnarTableRowsWhichAreNotMaps() throws Exception {
+    YamlConfig config = helper.makeConfig("columnar_table_malformed.yml");
+
+    for (IConfig source : List.of(config, config.freeze())) {
+      IConfigMapper mapper = helper.makeMapper(source);
+      helper.assertThrowsWithMsg(IllegalStateException.class, () -> mapper.mapSection(null, BlockValueTableSection.class), "Item 1 is not a map (within a columnar table) (at path 'values')");
+    }
+  }
+
+  @Test
+  public void shouldReuseSectionsMappedFromAliasedNodes() throws Exception {
+    IConfigMapper mapper = helper.makeMapper("aliases.yml");
+    AliasedPotionSection section = mapper.mapSection(null, AliasedPotionSection.class);
+
+    assertEquals("damage", section.getFirst().getEffect());
+    assertEquals("120", section.getFirst().getDuration());
+    assertSame(section.getFirst(), section.getSecond());
+    assertSame(section.getFirst(), section.getEffects().get(0));
+    assertSame(section.getFirst(), section.getEffects().get(1));
+
+    assertEquals("healing", section.getEffects().get(2).getEffect());
+    assertNotSame(section.getFirst(), section.getEffects().get(2));
+
+    // Sections are only shared within the very same mapping request
+    assertNotSame(section.getFirst(), mapper.mapSection(null, AliasedPotionSection.class).getFirst());
+  }
+
+  @Test
+  public void shouldMapSectionInSlicesUsingAMappingJob() throws Exception {
+    IConfigMapper mapper = helper.makeMapper("aliases.yml");
+    IMappingJob<AliasedPotionSection> job = mapper.createMappingJob(null, AliasedPotionSection.class, 1, 0);
+
+    assertFalse(job.isDone());
+    assertThrows(IllegalStateException.class, job::getResult);
+
+    int steps = 0;
+    while (!job.step())
+      ++steps;
+
+    assertTrue(steps > 5);
+    assertTrue(job.isDone());
+    assertTrue(job.step());
+
+    AliasedPotionSection section = job.getResult();
+
+    assertEquals("damage", section.getFirst().getEffect());
+    assertEquals("120", section.getFirst().getDuration());
+    assertSame(section.getFirst(), section.getSecond());
+    assertSame(section.getFirst(), section.getEffects().get(0));
+    assertSame(section.getFirst(), section.getEffects().get(1));
+    assertEquals("healing", section.getEffects().get(2).getEffect());
+  }
+
+  @Test
+  public void shouldNotResumeAFailedMappingJob() throws Exception {
+    IMappingJob<EnumSection> job = helper.makeMapper("enum_section_with_invalid.yml").createMappingJob(null, EnumSection.class, 0, 0);
+
+    helper.assertThrowsWithMsg(IllegalStateException.class, job::step, "(at path 'customEnumInvalid')");
+    helper.assertThrowsWithMsg(IllegalStateException.class, job::step, "previously failed");
+    assertFalse(job.isDone());
+  }
+
+  @Test
+  public void shouldInternEqualLeafValuesIfEnabled() throws Exception {
+    InternedValuesSection section = helper.makeMapper("interning.yml", true).mapSection(null, InternedValuesSection.class);
+
+    assertEquals("damage", section.getFirst().getEffect());
+    assertSame(section.getFirst().getEffect(), section.getSecond().getEffect());
+    assertSame(section.getFirst().getDuration(), section.getSecond().getDuration());
+
+    assertEquals(helper.list("Line one", "Line two"), section.getLoreA().asList(ScalarType.STRING, helper.getEnv()));
+    assertSame(section.getLoreA(), section.getLoreB());
+    assertNotSame(section.getLoreA(), section.getLoreC());
+    assertThrows(UnsupportedOperationException.class, () -> ((List<?>) section.getLoreA().asRawObject(helper.getEnv())).clear());
+  }
+
+  @Test
+  public void shouldNotInternEqualMapsOfDifferentOrder() throws Exception {
+    InternedValuesSection section = helper.makeMapper("interning.yml", true).mapSection(null, InternedValuesSection.class);
+
+    Map<?, ?> mapA = (Map<?, ?>) section.getMapA().asRawObject(helper.getEnv());
+    Map<?, ?> mapB = (Map<?, ?>) section.getMapB().asRawObject(helper.getEnv());
+
+    assertEquals(List.of("a", "b"), new ArrayList<>(mapA.keySet()));
+    assertEquals(List.of("b", "a"), new ArrayList<>(mapB.keySet()));
+    assertNotSame(section.getMapA(), section.getMapB());
+    assertSame(section.getMapA(), section.getMapC());
+  }
+
+  @Test
+  public void shouldNotInternLeafValuesByDefault() throws Exception {
+    InternedValuesSection section = helper.makeMapper("interning.yml", false).mapSection(null, InternedValuesSection.class);
+
+    assertEquals(section.getFirst().getEffect(), section.getSecond().getEffect());
+    assertNotSame(section.getFirst().getEffect(), section.getSecond().getEffect());
+    assertNotSame(section.getLoreA(), section.getLoreB());
+  }
+
   private IValueConverterRegistry getCustomObjectConverterRegistry() {
     return new IValueConverterRegistry() {
 
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import me.blvckbytes.bbconfigmapper.sections.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigRepositoryTests {
+
+  private final TestHelper helper = new TestHelper();
+
+  @Test
+  public void shouldLoadAndMapAllRegisteredFiles() throws Exception {
+    ConfigRepository repository = helper.makeRepository(4)
+      .register("database_section.yml", null, DatabaseSectionStrings.class)
+      .register("database_section.yml", "connection", DatabaseSectionEvaluables.class)
+      .register("potion_simple_section.yml", null, PotionSimpleSection.class)
+      .register("enum_section.yml", null, EnumSection.class);
+
+    Set<String> preProcessedFiles = ConcurrentHashMap.newKeySet();
+    repository.loadAll((fileName, config) -> preProcessedFiles.add(fileName));
+
+    assertEquals(Set.of("database_section.yml", "potion_simple_section.yml", "enum_section.yml"), preProcessedFiles);
+
+    DatabaseSectionStrings database = repository.getSection("database_section.yml", DatabaseSectionStrings.class);
+    assertNotNull(database);
+    assertEquals("localhost", database.getHost());
+
+    DatabaseSectionEvaluables connection = repository.getSection("database_section.yml", DatabaseSectionEvaluables.class);
+    assertNotNull(connection);
+    assertEquals("localhost", connection.getHost().asScalar(ScalarType.STRING, helper.getEnv()));
+
+    PotionSimpleSection potion = repository.getSection("potion_simple_section.yml", PotionSimpleSection.class);
+    assertNotNull(potion);
+    assertEquals("damage", potion.getMainEffect().getEffect());
+
+    EnumSection enumSection = repository.getSection("enum_section.yml", EnumSection.class);
+    assertNotNull(enumSection);
+    assertEquals(ECustomEnum.HELLO, enumSection.getCustomEnumA());
+
+    assertNotNull(repository.getConfig("enum_section.yml"));
+    assertNull(repository.getConfig("unknown.yml"));
+  }
+
+  @Test
+  public void shouldReportErrorsPerFile() throws Exception {
+    ConfigRepository repository = helper.makeRepository(2)
+      .register("enum_section.yml", null, EnumSection.class);
+
+    repository.loadAll(null);
+    EnumSection previousSection = repository.getSection("enum_section.yml", EnumSection.class);
+
+    repository
+      .register("enum_section_with_invalid.yml", null, EnumSection.class)
+      .register("does_not_exist.yml", null, EnumSection.class)
+      .register("database_section.yml", null, DatabaseSectionStrings.class);
+
+    ConfigRepositoryException exception = assertThrows(ConfigRepositoryException.class, () -> repository.loadAll(null));
+
+    assertEquals(Set.of("enum_section_with_invalid.yml", "does_not_exist.yml"), exception.getErrors().keySet());
+    assertTrue(exception.getErrors().get("enum_section_with_invalid.yml") instanceof IllegalStateException);
+
+    // Results of the previous load remain in place
+    assertSame(previousSection, repository.getSection("enum_section.yml", EnumSection.class));
+    assertNull(repository.getSection("database_section.yml", DatabaseSectionStrings.class));
+  }
+
+  @Test
+  public void shouldNotRegisterASectionTwicePerFile() {
+    ConfigRepository repository = helper.makeRepository(1).register("enum_section.yml", null, EnumSection.class);
+    assertThrows(IllegalArgumentException.class, () -> repository.register("enum_section.yml", "other", EnumSection.class));
+  }
+}
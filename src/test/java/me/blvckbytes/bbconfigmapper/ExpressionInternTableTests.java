@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import me.blvckbytes.gpeee.GPEEE;
+import me.blvckbytes.gpeee.parser.expression.AExpression;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.lang.ref.WeakReference;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionInternTableTests {
+
+  private static final String INPUT = (
+    "en:\n" +
+    "  greeting$: '\"hello \" & name'\n" +
+    "  farewell$: '\"bye \" & name'\n" +
+    "de:\n" +
+    "  greeting$: '\"hello \" & name'\n"
+  );
+
+  private final TestHelper helper = new TestHelper();
+
+  @Test
+  public void shouldShareExpressionsOfEqualText() throws Exception {
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader(INPUT));
+
+    YamlConfig otherConfig = helper.makeConfig(null);
+    otherConfig.load(new StringReader(INPUT));
+
+    Object greeting = config.get("en.greeting");
+
+    assertTrue(greeting instanceof AExpression);
+    assertSame(greeting, config.get("de.greeting"));
+    assertSame(greeting, otherConfig.get("en.greeting"));
+    assertSame(greeting, otherConfig.freeze().get("de.greeting"));
+    assertNotSame(greeting, config.get("en.farewell"));
+
+    // Configs of other evaluators parse on their own
+    YamlConfig foreignConfig = new TestHelper().makeConfig(null);
+    foreignConfig.load(new StringReader(INPUT));
+    assertNotSame(greeting, foreignConfig.get("en.greeting"));
+  }
+
+  @Test
+  public void shouldDropCollectedExpressions() throws Exception {
+    GPEEE evaluator = new GPEEE(Logger.getAnonymousLogger());
+    ExpressionInternTable table = ExpressionInternTable.of(evaluator);
+    AExpression retained = table.intern(evaluator, "1 + 1");
+
+    for (int i = 0; i < 8; i++)
+      table.intern(evaluator, "1 + " + (i + 2));
+
+    assertSame(retained, table.intern(evaluator, "1 + 1"));
+
+    long deadline = System.currentTimeMillis() + 5000;
+
+    while (table.size() > 1 && System.currentTimeMillis() < deadline) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    assertEquals(1, table.size());
+    assertSame(retained, table.intern(evaluator, "1 + 1"));
+  }
+
+  @Test
+  public void shouldDropTablesOfUnusedEvaluators() throws Exception {
+    GPEEE evaluator = new GPEEE(Logger.getAnonymousLogger());
+    ExpressionInternTable table = ExpressionInternTable.of(evaluator);
+    AExpression expression = table.intern(evaluator, "1 + 1");
+
+    assertSame(table, ExpressionInternTable.of(evaluator));
+
+    WeakReference<ExpressionInternTable> tableReference = new WeakReference<>(table);
+    WeakReference<GPEEE> evaluatorReference = new WeakReference<>(evaluator);
+
+    // Interned expressions don't keep their table alive either
+    evaluator = null;
+    table = null;
+
+    GPEEE otherEvaluator = new GPEEE(Logger.getAnonymousLogger());
+    long deadline = System.currentTimeMillis() + 5000;
+
+    while (tableReference.get() != null && System.currentTimeMillis() < deadline) {
+      System.gc();
+      Thread.sleep(10);
+
+      // Entries of collected evaluators are only expunged when accessing the tables
+      ExpressionInternTable.of(otherEvaluator);
+    }
+
+    assertNull(evaluatorReference.get());
+    assertNull(tableReference.get());
+    assertNotNull(expression);
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import me.blvckbytes.gpeee.parser.expression.AExpression;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.nodes.*;
+
+import java.io.FileReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrozenYamlConfigTests {
+
+  private final TestHelper helper = new TestHelper();
+
+  @Test
+  public void shouldResolveTheSameAsTheTreeForAllFiles() throws Exception {
+    List<Path> files;
+
+    try (Stream<Path> paths = Files.list(Paths.get("src/test/resources"))) {
+      files = paths.filter(path -> path.toString().endsWith(".yml")).collect(Collectors.toList());
+    }
+
+    int frozenFiles = 0;
+
+    for (Path file : files) {
+      // Expressions are compared by identity, which is why they're not parsed here
+      YamlConfig config = new YamlConfig(null, Logger.getGlobal(), "$");
+
+      try (FileReader reader = new FileReader(file.toFile())) {
+        config.load(reader);
+      } catch (IllegalStateException e) {
+        continue;
+      }
+
+      IConfig frozenConfig = config.freeze();
+      Set<String> paths = new LinkedHashSet<>();
+      collectPathVariants(config.getRootNode(), null, paths);
+
+      for (String path : paths) {
+        assertEquals(config.exists(path), frozenConfig.exists(path), file + ": " + path);
+        assertSameResult(() -> config.get(path), () -> frozenConfig.get(path), file + ": " + path);
+      }
+
+      assertSameResult(() -> config.get(null), () -> frozenConfig.get(null), file + ": root");
+      ++frozenFiles;
+    }
+
+    assertTrue(frozenFiles > 20);
+  }
+
+  @Test
+  public void shouldResolveExpressionMarkerVariants() throws Exception {
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader(
+      "plain: 1\n" +
+      "marked$: '1 + 1'\n" +
+      "both: 2\n" +
+      "both$: '2 + 2'\n" +
+      "section$:\n" +
+      "  inner: '3 + 3'\n"
+    ));
+
+    IConfig frozenConfig = config.freeze();
+
+    assertEquals(1L, frozenConfig.get("PLAIN"));
+    assertTrue(frozenConfig.get("marked") instanceof AExpression);
+    assertSame(frozenConfig.get("marked"), frozenConfig.get("Marked$"));
+    assertEquals(2L, frozenConfig.get("both"));
+    assertTrue(frozenConfig.get("both$") instanceof AExpression);
+    assertTrue(frozenConfig.get("section.inner") instanceof AExpression);
+    assertTrue(frozenConfig.get("section$.inner") instanceof AExpression);
+    assertFalse(frozenConfig.exists("plain$"));
+    assertFalse(frozenConfig.exists("section.absent"));
+    assertNull(frozenConfig.get("section.inner.deeper"));
+  }
+
+  @Test
+  public void shouldBeImmutableAndUnaffectedByChanges() throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    IConfig frozenConfig = config.freeze();
+    Object rootValue = frozenConfig.get(null);
+
+    assertSame(rootValue, frozenConfig.get(null));
+    assertThrows(UnsupportedOperationException.class, () -> ((Map<?, ?>) rootValue).clear());
+    assertThrows(UnsupportedOperationException.class, () -> frozenConfig.set("a", 1));
+    assertThrows(UnsupportedOperationException.class, () -> frozenConfig.remove("a"));
+    assertThrows(IllegalArgumentException.class, () -> frozenConfig.get(" "));
+
+    config.set("added", 5);
+    config.remove(((Map<?, ?>) rootValue).keySet().iterator().next().toString());
+
+    assertFalse(frozenConfig.exists("added"));
+    assertEquals(rootValue, frozenConfig.get(null));
+  }
+
+  @Test
+  public void shouldShareValuesOfAliasedNodes() throws Exception {
+    IConfig frozenConfig = helper.makeConfig("aliases.yml").freeze();
+    Object rootValue = frozenConfig.get(null);
+
+    assertFalse(frozenConfig.isSharedValue(rootValue));
+    assertTrue(((Map<?, ?>) rootValue).values().stream().anyMatch(frozenConfig::isSharedValue));
+  }
+
+  @Test
+  public void shouldBuildAMinimalPerfectHash() {
+    Random random = new Random(42);
+    Set<Long> distinctHashes = new HashSet<>();
+
+    while (distinctHashes.size() < 10000)
+      distinctHashes.add(random.nextLong());
+
+    long[] hashes = distinctHashes.stream().mapToLong(Long::longValue).toArray();
+    MinimalPerfectHash hash = MinimalPerfectHash.build(hashes);
+    boolean[] takenSlots = new boolean[hashes.length];
+
+    for (long value : hashes) {
+      int slot = hash.slotOf(value);
+      assertFalse(takenSlots[slot]);
+      takenSlots[slot] = true;
+    }
+
+    assertEquals(-1, MinimalPerfectHash.build(new long[0]).slotOf(1));
+    assertThrows(IllegalArgumentException.class, () -> MinimalPerfectHash.build(new long[] { 1, 2, 1 }));
+  }
+
+  private void collectPathVariants(MappingNode node, @Nullable String parentPath, Set<String> paths) {
+    for (NodeTuple tuple : node.getValue()) {
+      if (!(tuple.getKeyNode() instanceof ScalarNode))
+        continue;
+
+      String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+      String path = parentPath == null ? key : parentPath + "." + key;
+      String strippedPath = path.endsWith("$") ? path.substring(0, path.length() - 1) : path + "$";
+
+      paths.add(path);
+      paths.add(path.toUpperCase());
+      paths.add(strippedPath);
+      paths.add(path + ".absent");
+
+      if (tuple.getValueNode() instanceof MappingNode) {
+        collectPathVariants((MappingNode) tuple.getValueNode(), path, paths);
+        collectPathVariants((MappingNode) tuple.getValueNode(), strippedPath, paths);
+      }
+    }
+  }
+
+  private void assertSameResult(FValueSupplier expected, FValueSupplier actual, String message) {
+    Object expectedValue, actualValue;
+
+    try {
+      expectedValue = expected.get();
+    } catch (RuntimeException e) {
+      assertThrows(e.getClass(), actual::get, message);
+      return;
+    }
+
+    actualValue = assertDoesNotThrow(actual::get, message);
+    assertEquals(expectedValue, actualValue, message);
+  }
+
+  private interface FValueSupplier {
+    Object get();
+  }
+}
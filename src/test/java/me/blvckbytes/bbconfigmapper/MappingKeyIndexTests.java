@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.nodes.*;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappingKeyIndexTests {
+
+  private final TestHelper helper = new TestHelper();
+
+  @Test
+  public void shouldFoldCaseLikeEqualsIgnoreCase() {
+    String[] values = { "key", "KEY", "Key", "straße", "STRASSE", "İ", "i", "ı", "I", "ǅ", "ǆ", "Ǆ", "𐐀", "𐐨", "key$", "KEY$" };
+
+    for (String a : values) {
+      for (String b : values)
+        assertEquals(a.equalsIgnoreCase(b), MappingKeyIndex.foldCase(a).equals(MappingKeyIndex.foldCase(b)), a + " vs " + b);
+    }
+  }
+
+  @Test
+  public void shouldResolveTheSameAsALinearScan() {
+    List<NodeTuple> tuples = new ArrayList<>();
+
+    for (int i = 0; i < MappingKeyIndex.SIZE_THRESHOLD * 2; i++) {
+      tuples.add(makeTuple("key" + i, Tag.STR));
+      tuples.add(makeTuple("Key" + i + "$", Tag.STR));
+    }
+
+    // Shadowed duplicates as well as merge keys are never to be resolved
+    tuples.add(makeTuple("KEY3", Tag.STR));
+    tuples.add(1, makeTuple("<<", Tag.MERGE));
+
+    MappingNode node = new MappingNode(Tag.MAP, tuples, DumperOptions.FlowStyle.BLOCK);
+    MappingKeyIndex index = new MappingKeyIndex("$", 0);
+
+    assertSame(tuples.get(0), index.lookup(node, "KEY0"));
+    assertTrue(index.isBuilt());
+
+    assertSame(tuples.get(2), index.lookup(node, "key0$"));
+    assertSame(tuples.get(7), index.lookup(node, "kEy3"));
+    assertSame(tuples.get(8), index.lookup(node, "key3$"));
+    assertNull(index.lookup(node, "key" + MappingKeyIndex.SIZE_THRESHOLD * 2));
+    assertNull(index.lookup(node, "<<"));
+    assertNull(index.lookup(node, "key0$$"));
+  }
+
+  @Test
+  public void shouldOnlyIndexSmallMappingsAfterRepeatedLookups() {
+    List<NodeTuple> tuples = new ArrayList<>();
+    tuples.add(makeTuple("a", Tag.STR));
+    tuples.add(makeTuple("b$", Tag.STR));
+
+    MappingNode node = new MappingNode(Tag.MAP, tuples, DumperOptions.FlowStyle.BLOCK);
+    MappingKeyIndex index = new MappingKeyIndex("$", 0);
+
+    for (int i = 1; i < MappingKeyIndex.LOOKUP_THRESHOLD; i++) {
+      assertSame(tuples.get(0), index.lookup(node, "A"));
+      assertFalse(index.isBuilt());
+    }
+
+    assertSame(tuples.get(1), index.lookup(node, "B$"));
+    assertTrue(index.isBuilt());
+    assertNull(index.lookup(node, "b"));
+  }
+
+  @Test
+  public void shouldKeepTheIndexUpToDateWhenAlteringLargeMappings() throws Exception {
+    StringBuilder input = new StringBuilder();
+
+    for (int i = 0; i < MappingKeyIndex.SIZE_THRESHOLD * 2; i++)
+      input.append("key").append(i).append(": ").append(i).append('\n');
+
+    input.append("expr$: '1 + 1'\n");
+
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader(input.toString()));
+
+    assertEquals(5L, config.get("KEY5"));
+    assertTrue(config.exists("EXPR"));
+
+    config.set("key5", 50);
+    config.remove("key6");
+    config.set("added", "value");
+    config.set("nested.inner", true);
+    config.remove("expr$");
+
+    assertEquals(50L, config.get("Key5"));
+    assertFalse(config.exists("key6"));
+    assertEquals("value", config.get("ADDED"));
+    assertEquals(true, config.get("Nested.Inner"));
+    assertFalse(config.exists("expr"));
+    assertEquals(7L, config.get("key7"));
+
+    config.set("key6", 60);
+    config.set("nested", 1);
+
+    assertEquals(60L, config.get("key6"));
+    assertEquals(1L, config.get("nested"));
+    assertFalse(config.exists("nested.inner"));
+  }
+
+  @Test
+  public void shouldLazilyReplaceIndicesOfAnOlderGeneration() throws Exception {
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader("a: 1\nb: 2\n"));
+
+    for (int i = 0; i < MappingKeyIndex.LOOKUP_THRESHOLD; i++)
+      assertEquals(1L, config.get("a"));
+
+    // Alter the tree behind the config's back, which requires the cache to be cleared
+    config.getRootNode().getValue().add(makeTuple("c", Tag.STR));
+    config.clearKeyCache();
+
+    long missesBefore = config.getKeyCacheStatistics().getMisses();
+
+    assertEquals("value", config.get("c"));
+    assertEquals(missesBefore + 1, config.getKeyCacheStatistics().getMisses());
+  }
+
+  @Test
+  public void shouldNotResolveKeysOfAReplacedSubtree() throws Exception {
+    StringBuilder input = new StringBuilder("section:\n");
+
+    for (int i = 0; i < MappingKeyIndex.SIZE_THRESHOLD * 2; i++)
+      input.append("  key").append(i).append(": ").append(i).append('\n');
+
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader(input.toString()));
+
+    assertEquals(3L, config.get("section.key3"));
+
+    config.set("section", Map.of("other", 1));
+
+    assertFalse(config.exists("section.key3"));
+    assertEquals(1L, config.get("section.other"));
+  }
+
+  private NodeTuple makeTuple(String key, Tag keyTag) {
+    ScalarNode keyNode = new ScalarNode(keyTag, key, null, null, DumperOptions.ScalarStyle.PLAIN);
+    ScalarNode valueNode = new ScalarNode(Tag.STR, "value", null, null, DumperOptions.ScalarStyle.PLAIN);
+    return new NodeTuple(keyNode, valueNode);
+  }
+}
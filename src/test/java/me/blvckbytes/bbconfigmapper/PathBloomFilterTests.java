@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import java.io.FileReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathBloomFilterTests {
+
+  private final TestHelper helper = new TestHelper();
+
+  @Test
+  public void shouldNeverRejectExistingPaths() throws Exception {
+    List<Path> files;
+
+    try (Stream<Path> paths = Files.list(Paths.get("src/test/resources"))) {
+      files = paths.filter(path -> path.toString().endsWith(".yml")).collect(Collectors.toList());
+    }
+
+    for (Path file : files) {
+      YamlConfig config = new YamlConfig(null, Logger.getGlobal(), "$");
+
+      try (FileReader reader = new FileReader(file.toFile())) {
+        config.load(reader);
+      } catch (IllegalStateException e) {
+        continue;
+      }
+
+      // Frozen configs resolve paths without consulting the filter
+      IConfig frozenConfig = config.freeze();
+      PathBloomFilter filter = PathBloomFilter.build(config.getRootNode(), "$");
+      Set<String> paths = new LinkedHashSet<>();
+      collectPathVariants(config.getRootNode(), null, paths);
+
+      for (String path : paths) {
+        if (frozenConfig.exists(path))
+          assertTrue(filter.mightContain(path), file + ": " + path);
+      }
+    }
+  }
+
+  @Test
+  public void shouldRejectMostAbsentPaths() throws Exception {
+    StringBuilder input = new StringBuilder();
+
+    for (int i = 0; i < 1000; i++) {
+      if (i % 100 == 0)
+        input.append("section").append(i / 100).append(":\n");
+
+      input.append("  key").append(i).append(": ").append(i).append('\n');
+    }
+
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader(input.toString()));
+
+    PathBloomFilter filter = PathBloomFilter.build(config.getRootNode(), "$");
+    int falsePositives = 0;
+
+    for (int i = 0; i < 10000; i++) {
+      if (filter.mightContain("section" + (i / 1000) + ".absent" + i))
+        ++falsePositives;
+    }
+
+    assertTrue(falsePositives < 100, "false positives: " + falsePositives);
+    assertTrue(filter.mightContain(" SECTION3.Key303$ "));
+  }
+
+  @Test
+  public void shouldKnowAboutSetPaths() throws Exception {
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader("a: 1\n"));
+
+    YamlConfig snapshot = config.snapshot();
+
+    for (int i = 0; i < 500; i++)
+      config.set("section.nested" + i + ".key$", Map.of("inner", i));
+
+    for (int i = 0; i < 500; i++) {
+      assertTrue(config.exists("section.nested" + i + ".key.inner"));
+      assertTrue(config.exists("Section.Nested" + i));
+      assertFalse(config.exists("section.nested" + i + ".absent"));
+    }
+
+    assertTrue(config.exists("a"));
+    assertFalse(snapshot.exists("section"));
+
+    config.remove("a");
+    assertFalse(config.exists("a"));
+    assertTrue(snapshot.exists("a"));
+  }
+
+  @Test
+  public void shouldKnowAboutPathsSetThroughAliases() throws Exception {
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader("a: &x\n  k: 1\nb: *x\n"));
+
+    config.set("a.n", 2);
+    assertTrue(config.exists("b.n"));
+    assertEquals(2L, config.get("b.n"));
+
+    config.set("b.m", 3);
+    assertTrue(config.exists("a.m"));
+    assertEquals(3L, config.get("a.m"));
+  }
+
+  @Test
+  public void shouldAcceptAllPathsOfCyclicTrees() {
+    MappingNode root = new MappingNode(Tag.MAP, new ArrayList<>(), DumperOptions.FlowStyle.BLOCK);
+    ScalarNode key = new ScalarNode(Tag.STR, "self", null, null, DumperOptions.ScalarStyle.PLAIN);
+    root.getValue().add(new NodeTuple(key, root));
+
+    PathBloomFilter filter = PathBloomFilter.build(root, "$");
+    assertTrue(filter.mightContain("self.self.self"));
+  }
+
+  private void collectPathVariants(MappingNode node, @Nullable String parentPath, Set<String> paths) {
+    for (NodeTuple tuple : node.getValue()) {
+      if (!(tuple.getKeyNode() instanceof ScalarNode))
+        continue;
+
+      String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+      String path = parentPath == null ? key : parentPath + "." + key;
+      String strippedPath = path.endsWith("$") ? path.substring(0, path.length() - 1) : path + "$";
+
+      paths.add(path);
+      paths.add(path.toUpperCase());
+      paths.add(strippedPath);
+
+      if (tuple.getValueNode() instanceof MappingNode) {
+        collectPathVariants((MappingNode) tuple.getValueNode(), path, paths);
+        collectPathVariants((MappingNode) tuple.getValueNode(), strippedPath, paths);
+      }
+    }
+  }
+}
@@ -74,6 +74,15 @@ public class TestHelper {
     return config;
   }
 
+  /**
+   * Create a new mapper instance on top of an existing configuration instance
+   * @param config Configuration instance to operate on
+   * @return Mapper instance, operating on the configuration instance
+   */
+  public IConfigMapper makeMapper(IConfig config) {
+    return new ConfigMapper(config, this.logger, this.evaluator, null);
+  }
+
   /**
    * Create a new config instance on the provided path and then create a
    * new mapper instance on top of that configuration instance
@@ -96,6 +105,27 @@ public class TestHelper {
     return new ConfigMapper(config, this.logger, this.evaluator, converterRegistry);
   }
 
+  /**
+   * Create a new config instance on the provided path and then create a
+   * new mapper instance on top of that configuration instance
+   * @param fileName Input file within the resources folder
+   * @param internLeafValues Whether to deduplicate equal leaf values while mapping
+   * @return Mapper instance, operating on the configuration instance
+   */
+  public IConfigMapper makeMapper(String fileName, boolean internLeafValues) throws FileNotFoundException {
+    YamlConfig config = makeConfig(fileName);
+    return new ConfigMapper(config, this.logger, this.evaluator, null, internLeafValues);
+  }
+
+  /**
+   * Create a new repository of config files within the resources folder
+   * @param parallelism Maximum number of stages to execute at once
+   * @return Repository instance, without any registrations
+   */
+  public ConfigRepository makeRepository(int parallelism) {
+    return new ConfigRepository(Paths.get("src/test/resources"), this.logger, this.evaluator, this.expressionMarkerSuffix, null, parallelism);
+  }
+
   /**
    * Assert that a config value is an expression and that it evaluates to the expected value
    * @param expected Expected expression value
@@ -0,0 +1,213 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeakIdentityCacheTests {
+
+  private final TestHelper helper = new TestHelper();
+
+  @Test
+  public void shouldCompareKeysByIdentity() {
+    WeakIdentityCache<String, String> cache = new WeakIdentityCache<>(4, CacheEvictionPolicy.LEAST_RECENTLY_USED);
+    String key = new String("key");
+    String equalKey = new String("key");
+
+    assertEquals("first", cache.computeIfAbsent(key, k -> "first"));
+    assertEquals("second", cache.computeIfAbsent(equalKey, k -> "second"));
+    assertEquals("first", cache.computeIfAbsent(key, k -> "third"));
+
+    assertStatistics(cache, 1, 2, 0, 2);
+  }
+
+  @Test
+  public void shouldEvictTheLeastRecentlyUsedEntry() {
+    WeakIdentityCache<Object, String> cache = new WeakIdentityCache<>(2, CacheEvictionPolicy.LEAST_RECENTLY_USED);
+    Object a = new Object(), b = new Object(), c = new Object();
+
+    cache.computeIfAbsent(a, k -> "a");
+    cache.computeIfAbsent(b, k -> "b");
+    cache.computeIfAbsent(a, k -> "a");
+    cache.computeIfAbsent(c, k -> "c");
+
+    assertEquals("a", cache.getIfPresent(a));
+    assertNull(cache.getIfPresent(b));
+    assertEquals("c", cache.getIfPresent(c));
+    assertStatistics(cache, 1, 3, 1, 2);
+  }
+
+  @Test
+  public void shouldEvictTheFirstAddedEntry() {
+    WeakIdentityCache<Object, String> cache = new WeakIdentityCache<>(2, CacheEvictionPolicy.FIRST_IN_FIRST_OUT);
+    Object a = new Object(), b = new Object(), c = new Object();
+
+    cache.computeIfAbsent(a, k -> "a");
+    cache.computeIfAbsent(b, k -> "b");
+    cache.computeIfAbsent(a, k -> "a");
+    cache.computeIfAbsent(c, k -> "c");
+
+    assertNull(cache.getIfPresent(a));
+    assertEquals("b", cache.getIfPresent(b));
+    assertEquals("c", cache.getIfPresent(c));
+    assertStatistics(cache, 1, 3, 1, 2);
+  }
+
+  @Test
+  public void shouldEvictWhenShrinking() {
+    WeakIdentityCache<Object, String> cache = new WeakIdentityCache<>(4, CacheEvictionPolicy.FIRST_IN_FIRST_OUT);
+    Object a = new Object(), b = new Object(), c = new Object();
+
+    cache.computeIfAbsent(a, k -> "a");
+    cache.computeIfAbsent(b, k -> "b");
+    cache.computeIfAbsent(c, k -> "c");
+    cache.configure(1, CacheEvictionPolicy.LEAST_RECENTLY_USED);
+
+    assertEquals("c", cache.getIfPresent(c));
+    assertStatistics(cache, 0, 3, 2, 1);
+
+    assertThrows(IllegalArgumentException.class, () -> cache.configure(0, CacheEvictionPolicy.FIRST_IN_FIRST_OUT));
+  }
+
+  @Test
+  public void shouldBoundTheSumOfWeights() {
+    WeakIdentityCache<Object, String> cache = new WeakIdentityCache<>(10, CacheEvictionPolicy.LEAST_RECENTLY_USED, String::length);
+    Object a = new Object(), b = new Object(), c = new Object();
+
+    cache.put(a, "aaaa");
+    cache.put(b, "bbbb");
+    assertEquals(8, cache.getStatistics().getWeight());
+
+    // Replacing a value re-weighs it's entry
+    cache.put(a, "aaaaaa");
+    assertEquals(10, cache.getStatistics().getWeight());
+
+    // Replacing also counts as a use, which leaves b to be the least recently used entry
+    cache.put(c, "cccc");
+    assertNull(cache.getIfPresent(b));
+    assertEquals("aaaaaa", cache.getIfPresent(a));
+    assertEquals("cccc", cache.getIfPresent(c));
+    assertEquals(10, cache.getStatistics().getWeight());
+    assertEquals(1, cache.getStatistics().getEvictions());
+
+    // Values heavier than the whole bound are still retained on their own
+    cache.put(a, "aaaaaaaaaaaa");
+    assertEquals("aaaaaaaaaaaa", cache.getIfPresent(a));
+    assertEquals(1, cache.getStatistics().getSize());
+  }
+
+  @Test
+  public void shouldStripeConcurrentAccessesAcrossSegments() throws Exception {
+    WeakIdentityCache<Object, Integer> cache = new WeakIdentityCache<>(4096, CacheEvictionPolicy.LEAST_RECENTLY_USED);
+    Object[] keys = new Object[2048];
+
+    for (int i = 0; i < keys.length; i++)
+      keys[i] = new Object();
+
+    Thread[] threads = new Thread[4];
+
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread(() -> {
+        for (int round = 0; round < 4; round++) {
+          for (int k = 0; k < keys.length; k++) {
+            int expectedValue = k;
+            assertEquals(expectedValue, cache.computeIfAbsent(keys[k], key -> expectedValue));
+          }
+        }
+      });
+      threads[i].start();
+    }
+
+    for (Thread thread : threads)
+      thread.join();
+
+    // All keys fit into their segments, which is why each one has only been computed once
+    CacheStatistics statistics = cache.getStatistics();
+    assertEquals(keys.length, statistics.getSize());
+    assertEquals(keys.length, statistics.getMisses());
+    assertEquals(threads.length * 4L * keys.length - keys.length, statistics.getHits());
+
+    // Reconfiguring retains the counters and the entries which fit
+    cache.configure(16, CacheEvictionPolicy.FIRST_IN_FIRST_OUT);
+    assertEquals(16, cache.getStatistics().getSize());
+    assertEquals(keys.length, cache.getStatistics().getMisses());
+  }
+
+  @Test
+  public void shouldDropEntriesOfCollectedKeys() throws Exception {
+    WeakIdentityCache<Object, String> cache = new WeakIdentityCache<>(16, CacheEvictionPolicy.LEAST_RECENTLY_USED);
+    Object retainedKey = new Object();
+
+    cache.computeIfAbsent(retainedKey, k -> "retained");
+
+    for (int i = 0; i < 8; i++)
+      cache.computeIfAbsent(new Object(), k -> "collectable");
+
+    long deadline = System.currentTimeMillis() + 5000;
+
+    while (cache.getStatistics().getSize() > 1 && System.currentTimeMillis() < deadline) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    assertEquals(1, cache.getStatistics().getSize());
+    assertEquals("retained", cache.getIfPresent(retainedKey));
+    assertEquals(0, cache.getStatistics().getEvictions());
+  }
+
+  @Test
+  public void shouldBoundTheKeyCacheOfAConfig() throws Exception {
+    StringBuilder input = new StringBuilder();
+
+    for (int i = 0; i < 8; i++)
+      input.append("section").append(i).append(":\n  key: ").append(i).append('\n');
+
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader(input.toString()));
+    config.configureKeyCache(4, CacheEvictionPolicy.LEAST_RECENTLY_USED);
+
+    for (int i = 0; i < 8; i++)
+      assertEquals((long) i, config.get("section" + i + ".key"));
+
+    CacheStatistics statistics = config.getKeyCacheStatistics();
+    assertEquals(4, statistics.getSize());
+    assertTrue(statistics.getEvictions() > 0);
+
+    // Evicted indices are set up again on demand
+    assertEquals(0L, config.get("section0.key"));
+  }
+
+  private void assertStatistics(WeakIdentityCache<?, ?> cache, long hits, long misses, long evictions, int size) {
+    CacheStatistics statistics = cache.getStatistics();
+    assertEquals(hits, statistics.getHits(), "hits");
+    assertEquals(misses, statistics.getMisses(), "misses");
+    assertEquals(evictions, statistics.getEvictions(), "evictions");
+    assertEquals(size, statistics.getSize(), "size");
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YamlConfigAutoSaverTests {
+
+  private final TestHelper helper = new TestHelper();
+  private final Logger logger = Logger.getGlobal();
+
+  @Test
+  public void shouldCoalesceChangesUntilFlushed(@TempDir Path directory) throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    Path file = directory.resolve("mappings.yml");
+
+    try (YamlConfigAutoSaver saver = new YamlConfigAutoSaver(config, file, logger, 60_000, 120_000)) {
+      for (long i = 0; i < 100; i++)
+        config.set("n.m", i);
+
+      // Still within the debounce window
+      assertFalse(Files.exists(file));
+
+      assertTrue(saver.flush());
+      assertFileContent(config, file);
+
+      // Nothing changed since flushing
+      assertFalse(saver.flush());
+      assertNull(saver.getLastFailure());
+    }
+  }
+
+  @Test
+  public void shouldSaveInBackgroundAfterDebounceWindow(@TempDir Path directory) throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    Path file = directory.resolve("mappings.yml");
+
+    try (YamlConfigAutoSaver ignored = new YamlConfigAutoSaver(config, file, logger, 20, 100)) {
+      config.set("n.m", 5L);
+
+      long deadline = System.currentTimeMillis() + 5000;
+
+      while (!Files.exists(file) && System.currentTimeMillis() < deadline)
+        Thread.sleep(10);
+
+      assertTrue(Files.exists(file));
+    }
+
+    assertFalse(config.isDirty());
+    assertFileContent(config, file);
+  }
+
+  @Test
+  public void shouldRetryFailedSavesWhileDirty(@TempDir Path directory) throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    Path blocker = directory.resolve("blocker");
+    Path file = blocker.resolve("mappings.yml");
+
+    // The parent of the target is a regular file, which fails every save until it's removed
+    Files.writeString(blocker, "");
+
+    try (YamlConfigAutoSaver saver = new YamlConfigAutoSaver(config, file, logger, 10, 50)) {
+      config.set("n.m", 5L);
+
+      long deadline = System.currentTimeMillis() + 5000;
+
+      while (saver.getLastFailure() == null && System.currentTimeMillis() < deadline)
+        Thread.sleep(10);
+
+      assertNotNull(saver.getLastFailure());
+      assertTrue(config.isDirty());
+
+      // No further modification is required for the retry to succeed
+      Files.delete(blocker);
+
+      while (!Files.exists(file) && System.currentTimeMillis() < deadline)
+        Thread.sleep(10);
+
+      assertFileContent(config, file);
+      assertFalse(config.isDirty());
+    }
+  }
+
+  @Test
+  public void shouldFlushAndStopListeningOnClose(@TempDir Path directory) throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    Path file = directory.resolve("mappings.yml");
+
+    YamlConfigAutoSaver saver = new YamlConfigAutoSaver(config, file, logger, 60_000, 120_000);
+    config.set("n.m", 5L);
+    saver.close();
+
+    assertFileContent(config, file);
+    String savedContent = Files.readString(file, StandardCharsets.UTF_8);
+
+    config.set("n.m", 6L);
+    assertEquals(savedContent, Files.readString(file, StandardCharsets.UTF_8));
+    assertTrue(config.isDirty());
+  }
+
+  @Test
+  public void shouldRefuseInvalidDelays() throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    Path file = Path.of("unused.yml");
+    helper.assertThrowsWithMsg(IllegalArgumentException.class, () -> new YamlConfigAutoSaver(config, file, logger, -1, 10), "The debounce window cannot be negative");
+    helper.assertThrowsWithMsg(IllegalArgumentException.class, () -> new YamlConfigAutoSaver(config, file, logger, 10, 5), "The maximum delay cannot be shorter than the debounce window");
+    helper.assertThrowsWithMsg(IllegalArgumentException.class, () -> new YamlConfigAutoSaver(config.snapshot(), file, logger, 10, 10), "Snapshots cannot be modified");
+  }
+
+  private void assertFileContent(YamlConfig config, Path file) throws Exception {
+    StringWriter writer = new StringWriter();
+    config.save(writer);
+    assertEquals(writer.toString(), Files.readString(file, StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YamlConfigConcurrencyTests {
+
+  private static final int READER_THREADS = 4;
+  private static final int ITERATIONS = 5000;
+
+  private final TestHelper helper = new TestHelper();
+
+  @Test
+  public void shouldReadConsistentlyWhileBeingWrittenTo() throws Exception {
+    YamlConfig config = helper.makeConfig("merge_key_shallow.yml");
+
+    assertNoConcurrentFailures(config, () -> {
+      assertEquals(5L, config.get("d.b"));
+      assertEquals("i am overridden", config.get("d.toBeOverridden"));
+      assertTrue(config.exists("f.g"));
+
+      // The writer toggles this key, so it's either absent or holds a number
+      Object value = config.get("d.x.y");
+      assertTrue(value == null || value instanceof Long);
+    }, iteration -> {
+      if (iteration % 2 == 0)
+        config.set("d.x.y", iteration);
+      else
+        config.remove("d.x");
+
+      // Saving has to filter out merged keys without readers ever observing their absence
+      if (iteration % 50 == 0)
+        config.save(new StringWriter());
+    });
+  }
+
+  @Test
+  public void shouldHandOutTheSameSharedValueToConcurrentReaders() throws Exception {
+    YamlConfig config = helper.makeConfig("aliases.yml");
+    Object value = config.get("first");
+
+    assertNoConcurrentFailures(config, () -> {
+      assertSame(value, config.get("second"));
+      assertTrue(config.isSharedValue(value));
+      assertEquals(helper.map("effect", "damage", "duration", 120L, "amplifier", 2L), config.get("defaults"));
+    }, iteration -> config.attachComment("effects", List.of("Comment " + iteration), true));
+  }
+
+  @Test
+  public void shouldLoadAndSaveDifferentConfigsConcurrently() throws Exception {
+    StringWriter expectedWriter = new StringWriter();
+    helper.makeConfig("merge_key_shallow.yml").save(expectedWriter);
+    String expected = expectedWriter.toString();
+
+    Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    CountDownLatch startLatch = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+
+    for (int i = 0; i < READER_THREADS; i++) {
+      threads.add(new Thread(() -> {
+        try {
+          startLatch.await();
+
+          for (int iteration = 0; iteration < ITERATIONS / 10; iteration++) {
+            StringWriter writer = new StringWriter();
+            helper.makeConfig("merge_key_shallow.yml").save(writer);
+            assertEquals(expected, writer.toString());
+          }
+        } catch (Throwable e) {
+          failures.add(e);
+        }
+      }));
+    }
+
+    for (Thread thread : threads)
+      thread.start();
+
+    startLatch.countDown();
+
+    for (Thread thread : threads)
+      thread.join();
+
+    assertTrue(failures.isEmpty(), () -> failures.size() + " concurrent loads or saves failed: " + failures.peek());
+  }
+
+  @FunctionalInterface
+  private interface FWriteIteration {
+    void run(int iteration) throws Exception;
+  }
+
+  @FunctionalInterface
+  private interface FReadIteration {
+    void run() throws Exception;
+  }
+
+  /**
+   * Runs multiple readers concurrently to a single writer and asserts that none of them failed
+   * @param config Config which is operated on
+   * @param reader Reading iteration, invoked repeatedly by each reader thread
+   * @param writer Writing iteration, invoked repeatedly by a single writer thread
+   */
+  private void assertNoConcurrentFailures(YamlConfig config, FReadIteration reader, FWriteIteration writer) throws Exception {
+    Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    CountDownLatch startLatch = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+
+    for (int i = 0; i < READER_THREADS; i++) {
+      threads.add(new Thread(() -> {
+        try {
+          startLatch.await();
+
+          for (int iteration = 0; iteration < ITERATIONS; iteration++)
+            reader.run();
+        } catch (Throwable e) {
+          failures.add(e);
+        }
+      }));
+    }
+
+    threads.add(new Thread(() -> {
+      try {
+        startLatch.await();
+
+        for (int iteration = 0; iteration < ITERATIONS; iteration++)
+          writer.run(iteration);
+      } catch (Throwable e) {
+        failures.add(e);
+      }
+    }));
+
+    for (Thread thread : threads)
+      thread.start();
+
+    startLatch.countDown();
+
+    for (Thread thread : threads)
+      thread.join();
+
+    if (!failures.isEmpty()) {
+      AssertionError error = new AssertionError(failures.size() + " concurrent operations on " + config + " failed");
+      failures.forEach(error::addSuppressed);
+      throw error;
+    }
+  }
+}
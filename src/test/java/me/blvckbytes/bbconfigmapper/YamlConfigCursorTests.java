@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import me.blvckbytes.gpeee.parser.expression.AExpression;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YamlConfigCursorTests {
+
+  private static final String INPUT = (
+    "menus:\n" +
+    "  shop:\n" +
+    "    title: Shop\n" +
+    "    items:\n" +
+    "      sword:\n" +
+    "        price: 10\n" +
+    "      bow$:\n" +
+    "        price: '5 * 2'\n" +
+    "      shield:\n" +
+    "        price: 7\n"
+  );
+
+  private final TestHelper helper = new TestHelper();
+
+  @Test
+  public void shouldResolvePathsRelativeToTheCursor() throws Exception {
+    for (IConfig config : makeConfigs()) {
+      IConfigCursor shop = config.cursor("menus.shop");
+
+      assertNotNull(shop);
+      assertEquals("menus.shop", shop.getPath());
+      assertEquals("Shop", shop.get("title"));
+      assertEquals(10L, shop.get("ITEMS.sword.price"));
+      assertTrue(shop.exists("items.shield"));
+      assertFalse(shop.exists("items.axe"));
+      assertNull(shop.get("items.axe.price"));
+      assertEquals(((Map<?, ?>) config.get("menus.shop")).keySet(), ((Map<?, ?>) shop.get(null)).keySet());
+      assertThrows(IllegalArgumentException.class, () -> shop.get(" "));
+
+      IConfigCursor items = shop.child("items");
+
+      assertNotNull(items);
+      assertEquals("menus.shop.items", items.getPath());
+      assertEquals(7L, items.get("shield.price"));
+      assertNull(shop.child("absent"));
+      assertNull(config.cursor("menus.absent"));
+    }
+  }
+
+  @Test
+  public void shouldInheritTheExpressionMarker() throws Exception {
+    for (IConfig config : makeConfigs()) {
+      IConfigCursor items = config.cursor("menus.shop.items");
+      IConfigCursor bow = items.child("bow");
+
+      assertFalse(items.isMarkedForExpressions());
+      assertTrue(bow.isMarkedForExpressions());
+      assertTrue(bow.get("price") instanceof AExpression);
+      assertTrue(items.get("bow.price") instanceof AExpression);
+      assertFalse(items.get("sword.price") instanceof AExpression);
+    }
+  }
+
+  @Test
+  public void shouldIterateKeysInOrder() throws Exception {
+    for (IConfig config : makeConfigs()) {
+      List<String> keys = new ArrayList<>();
+      List<Boolean> marks = new ArrayList<>();
+
+      config.cursor("menus.shop.items").iterate((key, cursor) -> {
+        keys.add(key);
+        marks.add(cursor.isMarkedForExpressions());
+        assertTrue(cursor.exists("price"));
+      });
+
+      assertEquals(List.of("sword", "bow", "shield"), keys);
+      assertEquals(List.of(false, true, false), marks);
+
+      List<String> scalarKeys = new ArrayList<>();
+      config.cursor("menus.shop.title").iterate((key, cursor) -> scalarKeys.add(key));
+      assertTrue(scalarKeys.isEmpty());
+    }
+  }
+
+  @Test
+  public void shouldFollowModificationsOfTheConfig() throws Exception {
+    YamlConfig config = makeConfig();
+    IConfigCursor items = config.cursor("menus.shop.items");
+
+    config.set("menus.shop.items.sword.price", 20);
+    assertEquals(20L, items.get("sword.price"));
+
+    config.cursor("menus.shop.items").iterate((key, cursor) -> config.set("menus.shop.items." + key + ".sold", true));
+    assertEquals(true, items.get("shield.sold"));
+
+    config.set("menus.shop", Map.of("title", "Other"));
+    assertFalse(items.exists(null));
+    assertNull(items.get("sword.price"));
+
+    config.set("menus.shop.items.axe.price", 3);
+    assertTrue(items.exists(null));
+    assertEquals(3L, items.get("axe.price"));
+  }
+
+  private YamlConfig makeConfig() throws Exception {
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader(INPUT));
+    return config;
+  }
+
+  private List<IConfig> makeConfigs() throws Exception {
+    return List.of(makeConfig(), makeConfig().freeze());
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YamlConfigJournalTests {
+
+  private final TestHelper helper = new TestHelper();
+  private final Logger logger = Logger.getGlobal();
+
+  @Test
+  public void shouldReplayJournalOverBase(@TempDir Path directory) throws Exception {
+    Path base = makeBase(directory);
+    Path journalFile = directory.resolve("mappings.journal");
+    String baseContent = Files.readString(base);
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(helper.makeConfig(null), base, journalFile, logger, 0)) {
+      journal.load();
+      journal.set("n.m", 5L);
+      journal.set("n.l", helper.list(1, 2.5, 1.5F, "three", true, null, helper.map("k", "v")));
+      journal.remove("x");
+    }
+
+    // Only the journal has been written to
+    assertEquals(baseContent, Files.readString(base));
+
+    YamlConfig config = helper.makeConfig(null);
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(config, base, journalFile, logger, 0)) {
+      journal.load();
+    }
+
+    assertEquals(5L, config.get("n.m"));
+    assertEquals(helper.list(1L, 2.5, 1.5, "three", true, null, helper.map("k", "v")), config.get("n.l"));
+    assertFalse(config.exists("x"));
+  }
+
+  @Test
+  public void shouldCutOffTornRecords(@TempDir Path directory) throws Exception {
+    Path base = makeBase(directory);
+    Path journalFile = directory.resolve("mappings.journal");
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(helper.makeConfig(null), base, journalFile, logger, 0)) {
+      journal.load();
+      journal.set("n.m", 5L);
+    }
+
+    // The header of a record which never made it to the disk completely
+    Files.write(journalFile, new byte[] { 0, 0, 0, 100, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(helper.makeConfig(null), base, journalFile, logger, 0)) {
+      journal.load();
+      journal.set("n.o", "after");
+    }
+
+    YamlConfig config = helper.makeConfig(null);
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(config, base, journalFile, logger, 0)) {
+      journal.load();
+    }
+
+    assertEquals(5L, config.get("n.m"));
+    assertEquals("after", config.get("n.o"));
+  }
+
+  @Test
+  public void shouldCompactIntoBaseOncePastThreshold(@TempDir Path directory) throws Exception {
+    Path base = makeBase(directory);
+    Path journalFile = directory.resolve("mappings.journal");
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(helper.makeConfig(null), base, journalFile, logger, 64)) {
+      journal.load();
+
+      for (long i = 0; i < 50; i++)
+        journal.set("n.m", i);
+    }
+
+    // Records have been compacted into the base and discarded afterwards
+    assertFalse(Files.exists(directory.resolve("mappings.journal.compacting")));
+    assertTrue(loadPlain(base).exists("n.m"));
+
+    YamlConfig config = helper.makeConfig(null);
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(config, base, journalFile, logger, 0)) {
+      journal.load();
+      journal.compact();
+    }
+
+    assertEquals(0, Files.size(journalFile));
+    assertEquals(49L, config.get("n.m"));
+    assertEquals(49L, loadPlain(base).get("n.m"));
+  }
+
+  @Test
+  public void shouldReplayRecordsIdempotently(@TempDir Path directory) throws Exception {
+    Path base = makeBase(directory);
+    Path journalFile = directory.resolve("mappings.journal");
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(helper.makeConfig(null), base, journalFile, logger, 0)) {
+      journal.load();
+      journal.set("n", helper.map("a", 1, "b", 2));
+      journal.remove("n.a");
+      journal.set("n.c", 3);
+    }
+
+    byte[] journalRecords = Files.readAllBytes(journalFile);
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(helper.makeConfig(null), base, journalFile, logger, 0)) {
+      journal.load();
+      journal.compact();
+    }
+
+    // A compaction which saved the base but crashed before discarding the rotated records
+    Files.write(directory.resolve("mappings.journal.compacting"), journalRecords);
+
+    YamlConfig config = helper.makeConfig(null);
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(config, base, journalFile, logger, 0)) {
+      journal.load();
+    }
+
+    assertEquals(helper.map("b", 2L, "c", 3L), config.get("n"));
+    assertEquals(helper.map("b", 2L, "c", 3L), loadPlain(base).get("n"));
+  }
+
+  @Test
+  public void shouldRevokeRecordsRejectedByTheConfig(@TempDir Path directory) throws Exception {
+    Path base = makeBase(directory);
+    Path journalFile = directory.resolve("mappings.journal");
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(helper.makeConfig(null), base, journalFile, logger, 0)) {
+      journal.load();
+      journal.setSyncOnAppend(false);
+      journal.set("n.m", 5L);
+
+      long journalSize = Files.size(journalFile);
+
+      assertThrows(IllegalArgumentException.class, () -> journal.set("n.", 6L));
+      assertThrows(IllegalArgumentException.class, () -> journal.set(null, 7L));
+      assertEquals(journalSize, Files.size(journalFile));
+
+      journal.set("n.o", "after");
+    }
+
+    YamlConfig config = helper.makeConfig(null);
+
+    try (YamlConfigJournal journal = new YamlConfigJournal(config, base, journalFile, logger, 0)) {
+      journal.load();
+    }
+
+    assertEquals(5L, config.get("n.m"));
+    assertEquals("after", config.get("n.o"));
+  }
+
+  @Test
+  public void shouldRefuseModificationsBeforeLoading(@TempDir Path directory) throws Exception {
+    try (YamlConfigJournal journal = new YamlConfigJournal(helper.makeConfig(null), directory.resolve("a.yml"), directory.resolve("a.journal"), logger, 0)) {
+      helper.assertThrowsWithMsg(IllegalStateException.class, () -> journal.set("a", 1), "The journal has not yet been loaded");
+      journal.load();
+      helper.assertThrowsWithMsg(IllegalArgumentException.class, () -> journal.set("a", journal), "Cannot store a value of type");
+      assertEquals(0, Files.size(directory.resolve("a.journal")));
+    }
+  }
+
+  private Path makeBase(Path directory) throws Exception {
+    Path base = directory.resolve("mappings.yml");
+    helper.makeConfig("mappings.yml").save(base);
+    return base;
+  }
+
+  private YamlConfig loadPlain(Path path) throws IOException {
+    YamlConfig config = helper.makeConfig(null);
+
+    try (FileReader reader = new FileReader(path.toFile())) {
+      config.load(reader);
+    }
+
+    return config;
+  }
+}
@@ -24,11 +24,19 @@
 
 package me.blvckbytes.bbconfigmapper;
 
+import me.blvckbytes.bbconfigmapper.preprocessor.PreProcessor;
 import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
 
 import java.io.FileNotFoundException;
+import java.io.StringReader;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -50,6 +58,63 @@ public class YamlConfigReadTests {
     assertEquals("top level", config.get("h"));
   }
 
+  @Test
+  public void shouldReadTypedScalars() throws FileNotFoundException {
+    YamlConfig config = helper.makeConfig("scalars.yml");
+
+    for (IConfig typedConfig : List.of(config, config.freeze())) {
+      assertEquals(12L, typedConfig.getLong("a.d", -1));
+      assertEquals(12, typedConfig.getInt("A.D", -1));
+      assertEquals(14.3D, typedConfig.getDouble("a.e", -1));
+      assertEquals(12D, typedConfig.getDouble("a.d", -1));
+      assertEquals(34.12 * Math.pow(10, 3), typedConfig.getDouble("a.h", -1));
+      assertTrue(typedConfig.getBoolean("a.f", false));
+      assertFalse(typedConfig.getBoolean("a.g", true));
+      assertEquals("hello", typedConfig.getString("a.b", null));
+      assertEquals("12", typedConfig.getString("a.d", null));
+      assertEquals("true", typedConfig.getString("a.f", null));
+
+      // Absent, null, mismatching and non-scalar values fall back to the default
+      assertEquals(-1L, typedConfig.getLong("a.absent", -1));
+      assertEquals(-1L, typedConfig.getLong("a.b", -1));
+      assertEquals(-1L, typedConfig.getLong("a.e", -1));
+      assertEquals(-1L, typedConfig.getLong("a", -1));
+      assertEquals(-1L, typedConfig.getLong(null, -1));
+      assertTrue(typedConfig.getBoolean("a.d", true));
+      assertEquals("default", typedConfig.getString("a.i", "default"));
+      assertEquals("default", typedConfig.getString("a", "default"));
+    }
+
+    assertEquals(12L, config.getLong("a.d", -1));
+    assertTrue(config.getScalarCacheStatistics().getHits() > 0);
+
+    config.set("a.d", 13);
+    assertEquals(13L, config.getLong("a.d", -1));
+  }
+
+  @Test
+  public void shouldNotTruncateIntegersBeyondThirtyTwoBits() throws Exception {
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader("big: 4294967297\nsmall: -2147483649\nmax: 2147483647\nmin: -2147483648\n"));
+
+    for (IConfig typedConfig : List.of(config, config.freeze())) {
+      assertEquals(4294967297L, typedConfig.getLong("big", -1));
+      assertEquals(-1, typedConfig.getInt("big", -1));
+      assertEquals(-1, typedConfig.getInt("small", -1));
+      assertEquals(Integer.MAX_VALUE, typedConfig.getInt("max", -1));
+      assertEquals(Integer.MIN_VALUE, typedConfig.getInt("min", -1));
+    }
+  }
+
+  @Test
+  public void shouldNotReadTypedScalarsMarkedForExpressions() throws FileNotFoundException {
+    YamlConfig config = helper.makeConfig(null);
+    config.load(new StringReader("a$: 5\nb: 6\n"));
+
+    assertEquals(-1L, config.getLong("a", -1));
+    assertEquals(6L, config.getLong("b", -1));
+  }
+
   @Test
   public void shouldUnwrapLists() throws FileNotFoundException {
     YamlConfig config = helper.makeConfig("sequences.yml");
@@ -78,6 +143,48 @@ public class YamlConfigReadTests {
     helper.assertExpression("hello world", config.get("d.h.j"));
   }
 
+  @Test
+  public void shouldReuseParsedExpressionsUntilTheirNodeChanges() throws Exception {
+    YamlConfig config = helper.makeConfig("expressions.yml");
+    Object expression = config.get("a.b");
+
+    assertSame(expression, config.get("a.b"));
+    assertSame(expression, config.snapshot().get("a.b"));
+    assertEquals(2, config.getExpressionCacheStatistics().getHits());
+
+    // Values altered in place by the pre-processor are parsed again
+    new PreProcessor().setScalarValue(findScalar(config, "a", "b$"), "10 + 20 * 3");
+    assertNotSame(expression, config.get("a.b"));
+
+    assertEquals(12L, config.getLong("d.e.f", 12));
+    new PreProcessor().setScalarValue(findScalar(config, "d", "e", "f"), "60");
+    assertEquals("60", config.getString("d.e.f", null));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldShareUnwrappedValuesOfAliasedNodes() throws FileNotFoundException {
+    YamlConfig config = helper.makeConfig("aliases.yml");
+    Object first = config.get("first");
+
+    assertEquals(helper.map("effect", "damage", "duration", 120L, "amplifier", 2L), first);
+    assertSame(first, config.get("second"));
+    assertSame(first, config.get("defaults"));
+    assertSame(first, ((List<?>) config.get("effects")).get(1));
+    assertTrue(config.isSharedValue(first));
+    assertThrows(UnsupportedOperationException.class, () -> ((Map<Object, Object>) first).put("effect", "healing"));
+
+    Object healing = ((List<?>) config.get("effects")).get(2);
+    assertFalse(config.isSharedValue(healing));
+
+    // Altering the tree invalidates previously shared values
+    config.set("defaults.duration", 5);
+    Object updatedFirst = config.get("first");
+    assertNotSame(first, updatedFirst);
+    assertEquals(helper.map("effect", "damage", "duration", 5L, "amplifier", 2L), updatedFirst);
+    assertSame(updatedFirst, config.get("second"));
+  }
+
   @Test
   public void shouldCheckKeyExistence() throws FileNotFoundException {
     YamlConfig config = helper.makeConfig("key_existence.yml");
@@ -128,4 +235,22 @@ public class YamlConfigReadTests {
     helper.assertThrowsWithMsg(IllegalArgumentException.class, () -> config.set("a. ", 2), "Invalid path specified: a. ");
     helper.assertThrowsWithMsg(IllegalArgumentException.class, () -> config.set(" .b", 2), "Invalid path specified: ");
   }
+
+  private ScalarNode findScalar(YamlConfig config, String... keys) {
+    Node node = config.getRootNode();
+
+    for (String key : keys) {
+      Node value = null;
+
+      for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+        if (((ScalarNode) tuple.getKeyNode()).getValue().equals(key))
+          value = tuple.getValueNode();
+      }
+
+      assertNotNull(value, "Missing key " + key);
+      node = value;
+    }
+
+    return (ScalarNode) node;
+  }
 }
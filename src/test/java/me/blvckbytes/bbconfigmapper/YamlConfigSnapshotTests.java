@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YamlConfigSnapshotTests {
+
+  private final TestHelper helper = new TestHelper();
+
+  @Test
+  public void shouldRetainTheStateOfASnapshotAfterWriting() throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    YamlConfig snapshot = config.snapshot();
+
+    config.set("b.d.e", "changed");
+    config.remove("g.h");
+    config.set("n.m", 5L);
+
+    assertEquals("changed", config.get("b.d.e"));
+    assertNull(config.get("g.h"));
+    assertEquals(5L, config.get("n.m"));
+
+    assertEquals("mapping", snapshot.get("b.d.e"));
+    assertEquals("nested", snapshot.get("g.h"));
+    assertFalse(snapshot.exists("n"));
+
+    // Only the written paths have been copied, while untouched subtrees are shared
+    assertNotSame(snapshot.getRootNode(), config.getRootNode());
+    assertNotSame(findValue(snapshot.getRootNode(), "b"), findValue(config.getRootNode(), "b"));
+    assertSame(findValue(snapshot.getRootNode(), "a"), findValue(config.getRootNode(), "a"));
+  }
+
+  @Test
+  public void shouldKeepOlderSnapshotsValid() throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+
+    YamlConfig first = config.snapshot();
+    config.set("a.b", "second");
+    YamlConfig second = config.snapshot();
+    config.set("a.b", "third");
+
+    assertEquals("first", first.get("a.b"));
+    assertEquals("second", second.get("a.b"));
+    assertEquals("third", config.get("a.b"));
+  }
+
+  @Test
+  public void shouldKeepAliasesIntactWhenWritingAfterASnapshot() throws Exception {
+    YamlConfig config = helper.makeConfig("aliases.yml");
+    YamlConfig snapshot = config.snapshot();
+
+    config.set("defaults.duration", 60L);
+
+    assertEquals(60L, config.get("defaults.duration"));
+    assertEquals(60L, config.get("first.duration"));
+    assertEquals(60L, config.get("second.duration"));
+    assertEquals(60L, ((Map<?, ?>) ((List<?>) config.get("effects")).get(1)).get("duration"));
+
+    assertEquals(120L, snapshot.get("defaults.duration"));
+    assertEquals(120L, snapshot.get("first.duration"));
+
+    StringWriter writer = new StringWriter();
+    config.save(writer);
+
+    String savedText = writer.toString();
+    assertTrue(savedText.contains("first: *defaults"), savedText);
+    assertTrue(savedText.contains("duration: 60"), savedText);
+    assertFalse(savedText.contains("duration: 120"), savedText);
+
+    StringWriter snapshotWriter = new StringWriter();
+    snapshot.save(snapshotWriter);
+    assertTrue(snapshotWriter.toString().contains("duration: 120"));
+  }
+
+  @Test
+  public void shouldNotShareCommentsWithASnapshot() throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    config.attachComment("b.d.e", List.of(" Old comment"), true);
+    config.attachComment("a", List.of(" Old comment"), false);
+
+    YamlConfig snapshot = config.snapshot();
+
+    config.attachComment("b.d.e", List.of(" A comment"), true);
+    config.attachComment("a", List.of(" Another comment"), false);
+
+    assertEquals(List.of(" A comment"), config.readComment("b.d.e", true));
+    assertEquals(List.of(" Another comment"), config.readComment("a", false));
+    assertEquals(List.of(" Old comment"), snapshot.readComment("b.d.e", true));
+    assertEquals(List.of(" Old comment"), snapshot.readComment("a", false));
+  }
+
+  @Test
+  public void shouldNotAlterASnapshotWhenSavingMergedKeys() throws Exception {
+    YamlConfig config = helper.makeConfig("merge_key_shallow.yml");
+
+    StringWriter expectedWriter = new StringWriter();
+    config.save(expectedWriter);
+
+    YamlConfig snapshot = config.snapshot();
+    MappingNode snapshotDestination = (MappingNode) findValue(snapshot.getRootNode(), "d");
+    int snapshotDestinationSize = snapshotDestination.getValue().size();
+
+    config.set("d.e", 12);
+
+    StringWriter writer = new StringWriter();
+    config.save(writer);
+
+    assertEquals(expectedWriter.toString(), writer.toString());
+    assertEquals(snapshotDestinationSize, snapshotDestination.getValue().size());
+    assertEquals(5L, snapshot.get("d.b"));
+    assertEquals(21L, snapshot.get("d.g"));
+    assertEquals(5L, config.get("d.b"));
+    assertEquals(21L, config.get("d.g"));
+  }
+
+  @Test
+  public void shouldSaveASnapshotWithoutMergedKeys() throws Exception {
+    YamlConfig config = helper.makeConfig("merge_key_shallow.yml");
+
+    StringWriter expectedWriter = new StringWriter();
+    config.save(expectedWriter);
+
+    YamlConfig snapshot = config.snapshot();
+    config.remove("d");
+
+    StringWriter writer = new StringWriter();
+    snapshot.save(writer);
+
+    assertEquals(expectedWriter.toString(), writer.toString());
+  }
+
+  @Test
+  public void shouldThrowWhenAlteringASnapshot() throws Exception {
+    YamlConfig snapshot = helper.makeConfig("mappings.yml").snapshot();
+
+    assertTrue(snapshot.isSnapshot());
+    assertSame(snapshot, snapshot.snapshot());
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.set("a.b", 1));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.remove("a.b"));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.attachComment("a", List.of("comment"), true));
+    assertEquals("first", snapshot.get("a.b"));
+  }
+
+  private Node findValue(MappingNode node, String key) {
+    for (NodeTuple tuple : node.getValue()) {
+      if (((ScalarNode) tuple.getKeyNode()).getValue().equals(key))
+        return tuple.getValueNode();
+    }
+
+    throw new IllegalStateException("Could not find key " + key);
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YamlConfigTreeCacheTests {
+
+  private final TestHelper helper = new TestHelper();
+
+  @Test
+  public void shouldLoadEqualTreesFromCache(@TempDir Path directory) throws Exception {
+    for (String fileName : new String[] { "comments.yml", "aliases.yml", "merge_key_shallow.yml", "merge_merge_key_shallow.yml", "mappings_base.yml" }) {
+      Path source = copyResource(fileName, directory);
+      Path cacheFile = directory.resolve(fileName + ".cache");
+
+      YamlConfig parsedConfig = helper.makeConfig(null);
+      parsedConfig.load(source, cacheFile);
+      assertTrue(Files.exists(cacheFile));
+
+      YamlConfig cachedConfig = helper.makeConfig(null);
+      cachedConfig.load(source, cacheFile);
+      assertLoadedFromCache(cachedConfig);
+
+      // Merge keys cannot be unwrapped as a whole
+      if (!fileName.startsWith("merge"))
+        assertEquals(parsedConfig.get(null), cachedConfig.get(null), "Values of " + fileName + " differ");
+
+      assertEquals(parsedConfig.getHeader(), cachedConfig.getHeader());
+      assertEquals(saveToString(parsedConfig), saveToString(cachedConfig), "Saved text of " + fileName + " differs");
+    }
+  }
+
+  @Test
+  public void shouldParseAgainIfSourceChanged(@TempDir Path directory) throws Exception {
+    Path source = copyResource("mappings.yml", directory);
+    Path cacheFile = directory.resolve("mappings.cache");
+
+    helper.makeConfig(null).load(source, cacheFile);
+    byte[] previousCache = Files.readAllBytes(cacheFile);
+
+    Files.writeString(source, Files.readString(source) + "\nadded: 5\n");
+
+    YamlConfig config = helper.makeConfig(null);
+    config.load(source, cacheFile);
+
+    assertNotNull(config.getRootNode().getValue().get(0).getKeyNode().getStartMark().getBuffer());
+    assertEquals(5L, config.get("added"));
+    assertFalse(Arrays.equals(previousCache, Files.readAllBytes(cacheFile)));
+
+    YamlConfig cachedConfig = helper.makeConfig(null);
+    cachedConfig.load(source, cacheFile);
+    assertLoadedFromCache(cachedConfig);
+    assertEquals(5L, cachedConfig.get("added"));
+  }
+
+  @Test
+  public void shouldParseAgainIfCacheIsMalformed(@TempDir Path directory) throws Exception {
+    Path source = copyResource("mappings.yml", directory);
+    Path cacheFile = directory.resolve("mappings.cache");
+
+    helper.makeConfig(null).load(source, cacheFile);
+
+    // Keep the header, including the hash, but cut off the tree
+    byte[] cache = Files.readAllBytes(cacheFile);
+    Files.write(cacheFile, Arrays.copyOf(cache, cache.length / 2));
+
+    YamlConfig config = helper.makeConfig(null);
+    config.load(source, cacheFile);
+
+    assertEquals(helper.makeConfig("mappings.yml").get(null), config.get(null));
+    assertArrayEquals(cache, Files.readAllBytes(cacheFile));
+  }
+
+  @Test
+  public void shouldKeepMergedTuplesFromBeingSaved(@TempDir Path directory) throws Exception {
+    Path source = copyResource("merge_key_shallow.yml", directory);
+    Path cacheFile = directory.resolve("merge_key_shallow.cache");
+
+    YamlConfig parsedConfig = helper.makeConfig(null);
+    parsedConfig.load(source, cacheFile);
+
+    YamlConfig cachedConfig = helper.makeConfig(null);
+    cachedConfig.load(source, cacheFile);
+    assertLoadedFromCache(cachedConfig);
+
+    // Merged tuples are part of the cached tree, but are left out when saving
+    assertEquals(countTuples(parsedConfig.getRootNode()), countTuples(cachedConfig.getRootNode()));
+    assertEquals(saveToString(parsedConfig), saveToString(cachedConfig));
+  }
+
+  private int countTuples(MappingNode node) {
+    int count = 0;
+
+    for (NodeTuple tuple : node.getValue()) {
+      ++count;
+
+      if (tuple.getValueNode() instanceof MappingNode)
+        count += countTuples((MappingNode) tuple.getValueNode());
+    }
+
+    return count;
+  }
+
+  private void assertLoadedFromCache(YamlConfig config) {
+    // Cached marks lack the buffer of the text, as the text has never been read
+    assertEquals(0, config.getRootNode().getValue().get(0).getKeyNode().getStartMark().getBuffer().length);
+  }
+
+  private Path copyResource(String fileName, Path directory) throws Exception {
+    Path target = directory.resolve(fileName);
+    Files.copy(Paths.get("src/test/resources/" + fileName), target);
+    return target;
+  }
+
+  private String saveToString(YamlConfig config) throws Exception {
+    StringWriter writer = new StringWriter();
+    config.save(writer);
+    return writer.toString();
+  }
+}
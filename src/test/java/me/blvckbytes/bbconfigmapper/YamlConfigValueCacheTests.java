@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import me.blvckbytes.bbconfigmapper.preprocessor.PreProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YamlConfigValueCacheTests {
+
+  private static final String INPUT = (
+    "shop:\n" +
+    "  title: Shop\n" +
+    "  items:\n" +
+    "    - sword\n" +
+    "    - bow\n" +
+    "stats:\n" +
+    "  kills: 5\n" +
+    "  deaths: 2\n"
+  );
+
+  private final TestHelper helper = new TestHelper();
+
+  @Test
+  public void shouldHandOutTheSameValueForUnalteredSubtrees() throws Exception {
+    YamlConfig config = makeConfig();
+
+    Object shop = config.get("shop");
+    assertSame(shop, config.get("shop"));
+    assertSame(((Map<?, ?>) shop).get("items"), config.get("shop.items"));
+    assertEquals(Map.of("title", "Shop", "items", List.of("sword", "bow")), shop);
+
+    assertThrows(UnsupportedOperationException.class, () -> ((Map<?, ?>) config.get("stats")).clear());
+    assertThrows(UnsupportedOperationException.class, () -> ((List<?>) config.get("shop.items")).clear());
+
+    // Only the subtrees on the way to an altered path are unwrapped again
+    Object stats = config.get("stats");
+    Object items = config.get("shop.items");
+    Object root = config.get(null);
+
+    config.set("stats.kills", 6);
+
+    assertNotSame(stats, config.get("stats"));
+    assertNotSame(root, config.get(null));
+    assertEquals(6L, config.get("stats.kills"));
+    assertSame(items, config.get("shop.items"));
+    assertSame(shop, config.get("shop"));
+
+    config.remove("shop.title");
+    assertNotSame(shop, config.get("shop"));
+    assertEquals(Map.of("items", List.of("sword", "bow")), config.get("shop"));
+    assertSame(items, config.get("shop.items"));
+
+    config.load(new StringReader(INPUT));
+    assertNotSame(items, config.get("shop.items"));
+    assertEquals("Shop", config.get("shop.title"));
+  }
+
+  @Test
+  public void shouldNotBeAffectedBySnapshots() throws Exception {
+    YamlConfig config = makeConfig();
+    Object stats = config.get("stats");
+
+    YamlConfig snapshot = config.snapshot();
+    config.set("stats.deaths", 3);
+
+    assertEquals(3L, ((Map<?, ?>) config.get("stats")).get("deaths"));
+    assertEquals(stats, snapshot.get("stats"));
+    assertSame(snapshot.get("stats"), snapshot.get("stats"));
+  }
+
+  @Test
+  public void shouldUnwrapAgainAfterPreProcessing() throws Exception {
+    YamlConfig config = makeConfig();
+
+    Object shop = config.get("shop");
+    assertEquals(List.of("sword", "bow"), config.get("shop.items"));
+
+    PreProcessor preProcessor = new PreProcessor();
+
+    preProcessor.forEachScalarValue(config, node -> {
+      if (node.getValue().equals("bow"))
+        preProcessor.setScalarValue(node, "crossbow");
+      return false;
+    });
+
+    assertNotSame(shop, config.get("shop"));
+    assertEquals(List.of("sword", "crossbow"), config.get("shop.items"));
+    assertEquals(List.of("sword", "crossbow"), ((Map<?, ?>) config.get("shop")).get("items"));
+  }
+
+  @Test
+  public void shouldStayWithinTheBudget() throws Exception {
+    YamlConfig config = makeConfig();
+    config.setValueCacheBudget(256);
+
+    config.get("shop");
+    config.get("stats");
+
+    CacheStatistics statistics = config.getValueCacheStatistics();
+    assertTrue(statistics.getWeight() <= 256 || statistics.getSize() == 1);
+    assertTrue(statistics.getEvictions() > 0);
+
+    config.setValueCacheBudget(0);
+    assertEquals(0, config.getValueCacheStatistics().getSize());
+    assertNotSame(config.get("stats"), config.get("stats"));
+    ((Map<?, ?>) config.get("stats")).clear();
+
+    assertThrows(IllegalArgumentException.class, () -> config.setValueCacheBudget(-1));
+  }
+
+  private YamlConfig makeConfig() throws Exception {
+    YamlConfig config = helper.makeConfig(null);
+    config.setValueCacheBudget(1024 * 1024);
+    config.load(new StringReader(INPUT));
+    return config;
+  }
+}
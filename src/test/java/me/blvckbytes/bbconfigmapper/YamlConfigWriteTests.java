@@ -25,10 +25,24 @@
 package me.blvckbytes.bbconfigmapper;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.*;
+import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class YamlConfigWriteTests {
 
@@ -113,4 +127,180 @@ public class YamlConfigWriteTests {
     YamlConfig config = helper.makeConfig(null);
     helper.assertSave("empty_line.yml", config);
   }
+
+  @Test
+  public void shouldOnlyReRenderChangedRootKeysIfIncremental() throws Exception {
+    YamlConfig config = makeIncrementalConfig("hand_formatted.yml");
+    config.set("d.e", "changed");
+    config.set("a", 5);
+    helper.assertSave("hand_formatted_incremental.yml", config);
+  }
+
+  @Test
+  public void shouldSaveUnchangedTextVerbatimIfIncremental() throws Exception {
+    YamlConfig config = makeIncrementalConfig("hand_formatted.yml");
+    StringWriter writer = new StringWriter();
+    config.save(writer);
+    assertEquals(Files.readString(Path.of("src/test/resources/hand_formatted.yml")), writer.toString());
+  }
+
+  @Test
+  public void shouldSaveIncrementallyThroughPathsOfAnotherCase(@TempDir Path directory) throws Exception {
+    YamlConfig config = helper.makeConfig(null);
+    config.setIncrementalSave(true);
+    config.load(new StringReader("foo:\n  x: 1\nbar:   2   # verbatim\n"));
+
+    config.set("FOO.x", 5);
+
+    Path file = directory.resolve("case.yml");
+    assertTrue(config.save(file));
+
+    // The changed key is re-rendered, while the unchanged one is still copied as it was
+    assertEquals("foo:\n  x: 5\nbar:   2   # verbatim\n", Files.readString(file));
+
+    YamlConfig savedConfig = helper.makeConfig(null);
+
+    try (FileReader reader = new FileReader(file.toFile())) {
+      savedConfig.load(reader);
+    }
+
+    assertEquals(5L, savedConfig.get("foo.x"));
+  }
+
+  @Test
+  public void shouldFallBackToFullSaveIfRootKeysChanged() throws Exception {
+    YamlConfig incrementalConfig = makeIncrementalConfig("hand_formatted.yml");
+    YamlConfig config = helper.makeConfig("hand_formatted.yml");
+
+    for (YamlConfig target : Arrays.asList(incrementalConfig, config)) {
+      target.set("a", 5);
+      target.set("g", "new");
+    }
+
+    assertEquals(saveToString(config), saveToString(incrementalConfig));
+  }
+
+  @Test
+  public void shouldFallBackToFullSaveIfAliased() throws Exception {
+    YamlConfig incrementalConfig = makeIncrementalConfig("aliases.yml");
+    YamlConfig config = helper.makeConfig("aliases.yml");
+
+    for (YamlConfig target : Arrays.asList(incrementalConfig, config))
+      target.set("first.duration", 60);
+
+    assertEquals(saveToString(config), saveToString(incrementalConfig));
+  }
+
+  @Test
+  public void shouldOnlySaveToFileIfModified(@TempDir Path directory) throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    Path file = directory.resolve("mappings.yml");
+
+    assertTrue(config.isDirty());
+    assertTrue(config.save(file));
+    assertFalse(config.isDirty());
+    assertFileContent(config, file);
+
+    // Nothing changed since the last save
+    assertFalse(config.save(file));
+
+    config.set("n.m", 5L);
+    assertTrue(config.isDirty());
+    assertTrue(config.save(file));
+    assertFileContent(config, file);
+
+    // Modified, but the serialized content remains the same
+    config.set("n.m", 5L);
+    assertTrue(config.isDirty());
+    assertFalse(config.save(file));
+    assertFalse(config.isDirty());
+
+    // Another file has never been written to
+    assertTrue(config.save(directory.resolve("copy.yml")));
+
+    // Only the target files remain, without any temporary files
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(2, files.count());
+    }
+  }
+
+  @Test
+  public void shouldSaveToFileAgainIfItHasBeenDeleted(@TempDir Path directory) throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    Path file = directory.resolve("mappings.yml");
+
+    assertTrue(config.save(file));
+    Files.delete(file);
+    assertTrue(config.save(file));
+    assertFileContent(config, file);
+  }
+
+  @Test
+  public void shouldRetainThePermissionsOfTheTargetFile(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("mappings.yml");
+    Files.writeString(file, "a: 1\n");
+
+    assumeTrue(Files.getFileAttributeView(file, PosixFileAttributeView.class) != null);
+
+    Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+    Files.setPosixFilePermissions(file, permissions);
+
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    assertTrue(config.save(file));
+    assertFileContent(config, file);
+    assertEquals(permissions, Files.getPosixFilePermissions(file));
+  }
+
+  @Test
+  public void shouldSaveThroughSymbolicLinks(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("mappings.yml");
+    Path link = directory.resolve("link.yml");
+    Files.writeString(file, "a: 1\n");
+
+    try {
+      Files.createSymbolicLink(link, file);
+    } catch (UnsupportedOperationException | IOException e) {
+      assumeTrue(false, "Symbolic links are not supported");
+    }
+
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    assertTrue(config.save(link));
+
+    assertTrue(Files.isSymbolicLink(link));
+    assertFileContent(config, file);
+  }
+
+  @Test
+  public void shouldSaveToBareRelativeFile() throws Exception {
+    YamlConfig config = helper.makeConfig("mappings.yml");
+    Path file = Paths.get("relative_save_" + System.nanoTime() + ".yml");
+
+    try {
+      assertTrue(config.save(file));
+      assertFileContent(config, file);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private YamlConfig makeIncrementalConfig(String fileName) throws Exception {
+    YamlConfig config = helper.makeConfig(null);
+    config.setIncrementalSave(true);
+
+    try (FileReader reader = new FileReader("src/test/resources/" + fileName)) {
+      config.load(reader);
+    }
+
+    return config;
+  }
+
+  private String saveToString(YamlConfig config) throws Exception {
+    StringWriter writer = new StringWriter();
+    config.save(writer);
+    return writer.toString();
+  }
+
+  private void assertFileContent(YamlConfig config, Path file) throws Exception {
+    assertEquals(saveToString(config), Files.readString(file, StandardCharsets.UTF_8));
+  }
 }
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.representer.Representer;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Compares the duration of saving a large config by {@link YamlNodeEmitter} against SnakeYAML's
+ * serializer. This is not a test, but is meant to be run manually by it's main method.
+ */
+public class YamlNodeEmitterBenchmark {
+
+  private static final int SECTIONS = 2000;
+  private static final int WARMUP_ROUNDS = 20;
+  private static final int MEASURED_ROUNDS = 50;
+
+  public static void main(String[] args) throws Exception {
+    YamlConfig config = new YamlConfig(null, Logger.getGlobal(), "$");
+    config.load(new StringReader(""));
+
+    for (int i = 0; i < SECTIONS; i++) {
+      Map<String, Object> section = new LinkedHashMap<>();
+      section.put("name", "Section " + i);
+      section.put("enabled", i % 2 == 0);
+      section.put("weight", i * 1.5);
+      section.put("amount", (long) i);
+      section.put("tags", Arrays.asList("first", "second", "third"));
+      section.put("nested", Collections.singletonMap("value", i));
+      config.set("sections.section_" + i, section);
+    }
+
+    DumperOptions dumperOptions = new DumperOptions();
+    dumperOptions.setProcessComments(true);
+    dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+    dumperOptions.setAnchorGenerator(Node::getAnchor);
+    dumperOptions.setSplitLines(false);
+
+    LoaderOptions loaderOptions = new LoaderOptions();
+    loaderOptions.setProcessComments(true);
+
+    Yaml yaml = new Yaml(new Constructor(loaderOptions), new Representer(dumperOptions), dumperOptions, loaderOptions);
+
+    if (YamlNodeEmitter.emit(config.getRootNode(), Collections.emptySet()) == null)
+      throw new IllegalStateException("The benchmarked tree is not supported by the emitter");
+
+    measure("YamlNodeEmitter", () -> config.save(new StringWriter()));
+    measure("SnakeYAML", () -> yaml.serialize(config.getRootNode(), new StringWriter()));
+  }
+
+  private interface FRound {
+    void run() throws Exception;
+  }
+
+  private static void measure(String name, FRound round) throws Exception {
+    for (int i = 0; i < WARMUP_ROUNDS; i++)
+      round.run();
+
+    long start = System.nanoTime();
+
+    for (int i = 0; i < MEASURED_ROUNDS; i++)
+      round.run();
+
+    double millisPerRound = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+    System.out.printf("%s: %.2f ms per save of %d sections%n", name, millisPerRound, SECTIONS);
+  }
+}
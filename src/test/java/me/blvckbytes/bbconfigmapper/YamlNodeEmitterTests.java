@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.bbconfigmapper;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.representer.Representer;
+
+import java.io.FileReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class YamlNodeEmitterTests {
+
+  private final Yaml yaml;
+
+  public YamlNodeEmitterTests() {
+    LoaderOptions loaderOptions = new LoaderOptions();
+    loaderOptions.setProcessComments(true);
+    loaderOptions.setAllowDuplicateKeys(true);
+
+    DumperOptions dumperOptions = new DumperOptions();
+    dumperOptions.setProcessComments(true);
+    dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+    dumperOptions.setAnchorGenerator(Node::getAnchor);
+    dumperOptions.setSplitLines(false);
+
+    this.yaml = new Yaml(new Constructor(loaderOptions), new Representer(dumperOptions), dumperOptions, loaderOptions);
+  }
+
+  @Test
+  public void shouldEmitTheSameAsSnakeYamlForAllSupportedFiles() throws Exception {
+    List<Path> files;
+
+    try (Stream<Path> paths = Files.walk(Paths.get("src/test/resources"))) {
+      files = paths.filter(path -> path.toString().endsWith(".yml")).collect(Collectors.toList());
+    }
+
+    int supportedFiles = 0;
+
+    for (Path file : files) {
+      List<Node> documents = new ArrayList<>();
+
+      try (FileReader reader = new FileReader(file.toFile())) {
+        yaml.composeAll(reader).forEach(documents::add);
+      }
+
+      // Files of other tests which the config doesn't support either
+      if (documents.size() != 1 || !(documents.get(0) instanceof MappingNode))
+        continue;
+
+      Node root = documents.get(0);
+
+      String emittedText = YamlNodeEmitter.emit((MappingNode) root, Collections.emptySet());
+
+      if (emittedText == null)
+        continue;
+
+      assertEquals(serialize(root), emittedText, "Emitted text of " + file + " differs");
+      ++supportedFiles;
+    }
+
+    // Most files have to be supported for the emitter to be worthwhile
+    assertTrue(supportedFiles * 2 > files.size(), "Only " + supportedFiles + " of " + files.size() + " files are supported");
+  }
+
+  @Test
+  public void shouldEmitEdgeCasesTheSameAsSnakeYaml() throws Exception {
+    MappingNode root = (MappingNode) compose(Paths.get("src/test/resources/emitter_cases.yml"));
+    String emittedText = YamlNodeEmitter.emit(root, Collections.emptySet());
+
+    assertNotNull(emittedText);
+    assertEquals(serialize(root), emittedText);
+  }
+
+  @Test
+  public void shouldLeaveOutExcludedTuples() throws Exception {
+    MappingNode root = (MappingNode) compose(Paths.get("src/test/resources/emitter_cases.yml"));
+    Set<NodeTuple> excludedTuples = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    excludedTuples.add(root.getValue().get(1));
+    excludedTuples.add(((MappingNode) root.getValue().get(root.getValue().size() - 1).getValueNode()).getValue().get(0));
+
+    String emittedText = YamlNodeEmitter.emit(root, excludedTuples);
+
+    root.getValue().remove(1);
+    ((MappingNode) root.getValue().get(root.getValue().size() - 1).getValueNode()).getValue().remove(0);
+
+    assertEquals(serialize(root), emittedText);
+  }
+
+  @Test
+  public void shouldNotSupportAnchors() throws Exception {
+    MappingNode root = (MappingNode) compose(Paths.get("src/test/resources/aliases.yml"));
+    assertNull(YamlNodeEmitter.emit(root, Collections.emptySet()));
+  }
+
+  private Node compose(Path file) throws Exception {
+    try (FileReader reader = new FileReader(file.toFile())) {
+      return yaml.compose(reader);
+    }
+  }
+
+  private String serialize(Node root) {
+    StringWriter writer = new StringWriter();
+    yaml.serialize(root, writer);
+    return writer.toString();
+  }
+}